@@ -17,6 +17,7 @@ package top.leafage.auth;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * auth application.
@@ -24,6 +25,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author wq li
  */
 @SpringBootApplication
+@EnableScheduling
 public class AuthApplication {
 
     public static void main(String[] args) {
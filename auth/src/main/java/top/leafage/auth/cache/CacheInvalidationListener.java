@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * listen on postgres {@code NOTIFY} channels and hand each payload to the cache of its channel.
+ * <p>
+ * the hypervisor notifies {@code user_details} when memberships or group authorities change, the
+ * auth servers notify each other on {@code authorization} when a token is issued, refreshed or revoked.
+ * holds one connection of the pool for all channels, unlistened before it goes back to the pool; when it
+ * is lost every cache is reset, since notifications may have been missed, and it reconnects after a pause.
+ * a handler failing resets every cache too, the listener keeps running.
+ *
+ * @author wq li
+ */
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final DataSource dataSource;
+    private final Map<String, Consumer<String>> handlers;
+    private final Runnable reset;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Constructor for CacheInvalidationListener.
+     *
+     * @param dataSource a {@link DataSource} object
+     * @param handlers   payload handler by channel
+     * @param reset      drop everything, when notifications may have been missed
+     */
+    public CacheInvalidationListener(DataSource dataSource, Map<String, Consumer<String>> handlers, Runnable reset) {
+        this.dataSource = dataSource;
+        this.handlers = Map.copyOf(handlers);
+        this.reset = reset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofVirtual().name("cache-invalidation-listener").start(this::listen);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try {
+                    poll(connection);
+                } finally {
+                    // 连接归还连接池前取消监听，避免其他借用者收到通知
+                    unlisten(connection);
+                }
+            } catch (SQLException e) {
+                reset.run();
+                if (running) {
+                    logger.warn("Listen on {} failed, reconnect in {}", handlers.keySet(), RECONNECT_DELAY, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String channel : handlers.keySet()) {
+                statement.execute("LISTEN " + channel);
+            }
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    handle(notification);
+                }
+            }
+        }
+    }
+
+    private void handle(PGNotification notification) {
+        Consumer<String> handler = handlers.get(notification.getName());
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.accept(notification.getParameter());
+        } catch (RuntimeException e) {
+            // 一个处理失败不能停止监听，其缓存可能已过期，全部重置
+            logger.warn("Handle notification on {} failed, reset the caches", notification.getName(), e);
+            reset.run();
+        }
+    }
+
+    private void unlisten(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+        } catch (SQLException e) {
+            logger.debug("Unlisten failed, the connection is broken", e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_DELAY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
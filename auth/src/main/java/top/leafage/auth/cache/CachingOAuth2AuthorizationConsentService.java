@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsent;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * read-through cache of authorization consents, keyed by client and principal.
+ * <p>
+ * a missing consent is cached as well, save and remove replace the entry.
+ *
+ * @author wq li
+ */
+public class CachingOAuth2AuthorizationConsentService implements OAuth2AuthorizationConsentService, MeterBinder {
+
+    private static final String CACHE_NAME = "authorization_consent";
+
+    private final OAuth2AuthorizationConsentService delegate;
+    private final Cache<ConsentKey, Optional<OAuth2AuthorizationConsent>> cache;
+    private final StoreTimer storeTimer = new StoreTimer(CACHE_NAME);
+
+    /**
+     * Constructor for CachingOAuth2AuthorizationConsentService.
+     *
+     * @param delegate         the backing {@link OAuth2AuthorizationConsentService}
+     * @param maximumSize      max cached consents
+     * @param expireAfterWrite ttl of a cached consent
+     */
+    public CachingOAuth2AuthorizationConsentService(OAuth2AuthorizationConsentService delegate, long maximumSize,
+                                                    Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(OAuth2AuthorizationConsent authorizationConsent) {
+        storeTimer.record(() -> delegate.save(authorizationConsent));
+        cache.put(key(authorizationConsent), Optional.of(authorizationConsent));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(OAuth2AuthorizationConsent authorizationConsent) {
+        storeTimer.record(() -> delegate.remove(authorizationConsent));
+        cache.put(key(authorizationConsent), Optional.empty());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable OAuth2AuthorizationConsent findById(String registeredClientId, String principalName) {
+        return cache.get(new ConsentKey(registeredClientId, principalName),
+                        key -> Optional.ofNullable(storeTimer.record(() ->
+                                delegate.findById(key.registeredClientId(), key.principalName()))))
+                .orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        storeTimer.bindTo(registry);
+    }
+
+    private static ConsentKey key(OAuth2AuthorizationConsent authorizationConsent) {
+        return new ConsentKey(authorizationConsent.getRegisteredClientId(), authorizationConsent.getPrincipalName());
+    }
+
+    private record ConsentKey(String registeredClientId, String principalName) {
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2DeviceCode;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.OAuth2UserCode;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * write-through cache of authorizations, by id and by each of their token values.
+ * <p>
+ * a save replaces the entry and drops the token values it no longer holds, so refreshed and
+ * revoked tokens are looked up again; a remove drops them all. an entry lives until the last
+ * of its tokens expires, capped by the ttl. only misses reach the backing store, unknown
+ * tokens are not cached.
+ * <p>
+ * every save and remove is announced on the {@value #CHANNEL} channel, the other nodes drop their
+ * copy so a rotated or revoked token is looked up again there too.
+ *
+ * @author wq li
+ */
+public class CachingOAuth2AuthorizationService implements OAuth2AuthorizationService, MeterBinder {
+
+    /**
+     * channel the nodes notify, with the node and the id of the changed authorization.
+     */
+    public static final String CHANNEL = "authorization";
+
+    private static final String CACHE_NAME = "authorization";
+
+    private static final Map<String, Class<? extends OAuth2Token>> TOKEN_CLASSES = Map.of(
+            OAuth2ParameterNames.CODE, OAuth2AuthorizationCode.class,
+            OAuth2TokenType.ACCESS_TOKEN.getValue(), OAuth2AccessToken.class,
+            OAuth2TokenType.REFRESH_TOKEN.getValue(), OAuth2RefreshToken.class,
+            OidcParameterNames.ID_TOKEN, OidcIdToken.class,
+            OAuth2ParameterNames.USER_CODE, OAuth2UserCode.class,
+            OAuth2ParameterNames.DEVICE_CODE, OAuth2DeviceCode.class
+    );
+
+    private final OAuth2AuthorizationService delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final String node = UUID.randomUUID().toString();
+    private final Cache<String, OAuth2Authorization> byId;
+    private final Cache<String, OAuth2Authorization> byToken;
+    private final StoreTimer storeTimer = new StoreTimer(CACHE_NAME);
+
+    /**
+     * Constructor for CachingOAuth2AuthorizationService.
+     *
+     * @param delegate         the backing {@link OAuth2AuthorizationService}
+     * @param jdbcTemplate     a {@link JdbcTemplate} object, to notify the other nodes
+     * @param maximumSize      max cached authorizations
+     * @param expireAfterWrite max ttl of a cached authorization
+     */
+    public CachingOAuth2AuthorizationService(OAuth2AuthorizationService delegate, JdbcTemplate jdbcTemplate,
+                                             long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        AuthorizationExpiry expiry = new AuthorizationExpiry(expireAfterWrite, Clock.systemUTC());
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(expiry)
+                .recordStats()
+                .build();
+        this.byToken = Caffeine.newBuilder()
+                .maximumSize(maximumSize * TOKEN_CLASSES.size())
+                .expireAfter(expiry)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        storeTimer.record(() -> delegate.save(authorization));
+        put(authorization);
+        notify(authorization.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        storeTimer.record(() -> delegate.remove(authorization));
+        invalidate(authorization.getId());
+        byToken.invalidateAll(tokenValues(authorization));
+        notify(authorization.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable OAuth2Authorization findById(String id) {
+        OAuth2Authorization cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        OAuth2Authorization authorization = storeTimer.record(() -> delegate.findById(id));
+        if (authorization != null) {
+            put(authorization);
+        }
+        return authorization;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable OAuth2Authorization findByToken(String token, @Nullable OAuth2TokenType tokenType) {
+        OAuth2Authorization cached = byToken.getIfPresent(token);
+        if (cached != null && matches(cached, token, tokenType)) {
+            return cached;
+        }
+        OAuth2Authorization authorization = storeTimer.record(() -> delegate.findByToken(token, tokenType));
+        if (authorization != null) {
+            put(authorization);
+        }
+        return authorization;
+    }
+
+    /**
+     * evict the authorization of a {@value #CHANNEL} notification, unless this node sent it.
+     *
+     * @param payload the node and the id of the authorization.
+     */
+    public void evict(String payload) {
+        int i = payload.indexOf(':');
+        if (i > 0 && !node.equals(payload.substring(0, i))) {
+            invalidate(payload.substring(i + 1));
+        }
+    }
+
+    /**
+     * evict all.
+     */
+    public void evictAll() {
+        byId.invalidateAll();
+        byToken.invalidateAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, CACHE_NAME + "_by_id");
+        CaffeineCacheMetrics.monitor(registry, byToken, CACHE_NAME + "_by_token");
+        storeTimer.bindTo(registry);
+    }
+
+    private void put(OAuth2Authorization authorization) {
+        Set<String> values = tokenValues(authorization);
+        OAuth2Authorization previous = byId.getIfPresent(authorization.getId());
+        if (previous != null) {
+            Set<String> stale = tokenValues(previous);
+            stale.removeAll(values);
+            byToken.invalidateAll(stale);
+        }
+        byId.put(authorization.getId(), authorization);
+        values.forEach(value -> byToken.put(value, authorization));
+    }
+
+    private void invalidate(String id) {
+        OAuth2Authorization previous = byId.getIfPresent(id);
+        if (previous != null) {
+            byToken.invalidateAll(tokenValues(previous));
+        } else {
+            // 按 id 的条目可能已先过期，按 token 的条目仍在
+            byToken.asMap().values().removeIf(authorization -> id.equals(authorization.getId()));
+        }
+        byId.invalidate(id);
+    }
+
+    private void notify(String id) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, node + ':' + id);
+    }
+
+    private static boolean matches(OAuth2Authorization authorization, String token, @Nullable OAuth2TokenType tokenType) {
+        if (tokenType == null) {
+            return tokenValues(authorization).contains(token);
+        }
+        if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
+            return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+        }
+        Class<? extends OAuth2Token> tokenClass = TOKEN_CLASSES.get(tokenType.getValue());
+        if (tokenClass == null) {
+            return false;
+        }
+        OAuth2Authorization.Token<? extends OAuth2Token> held = authorization.getToken(tokenClass);
+        return held != null && token.equals(held.getToken().getTokenValue());
+    }
+
+    private static Set<String> tokenValues(OAuth2Authorization authorization) {
+        Set<String> values = new HashSet<>();
+        String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+        if (state != null) {
+            values.add(state);
+        }
+        for (Class<? extends OAuth2Token> tokenClass : TOKEN_CLASSES.values()) {
+            OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(tokenClass);
+            if (token != null) {
+                values.add(token.getToken().getTokenValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * expire when the last token of the authorization expires, capped by the max ttl.
+     */
+    private record AuthorizationExpiry(Duration max, Clock clock) implements Expiry<String, OAuth2Authorization> {
+
+        @Override
+        public long expireAfterCreate(String key, OAuth2Authorization value, long currentTime) {
+            Instant last = null;
+            for (Class<? extends OAuth2Token> tokenClass : TOKEN_CLASSES.values()) {
+                OAuth2Authorization.Token<? extends OAuth2Token> token = value.getToken(tokenClass);
+                Instant expiresAt = token == null ? null : token.getToken().getExpiresAt();
+                if (expiresAt == null) {
+                    continue;
+                }
+                if (last == null || expiresAt.isAfter(last)) {
+                    last = expiresAt;
+                }
+            }
+            long ttl = max.toNanos();
+            if (last != null) {
+                ttl = Math.min(ttl, Math.max(0, Duration.between(Instant.now(clock), last).toNanos()));
+            }
+            return ttl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, OAuth2Authorization value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, OAuth2Authorization value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
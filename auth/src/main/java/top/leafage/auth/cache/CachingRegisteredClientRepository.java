@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * read-through cache of registered clients, by id and by client id.
+ * <p>
+ * clients rarely change, a save here evicts both keys, a change made elsewhere is seen after the ttl.
+ *
+ * @author wq li
+ */
+public class CachingRegisteredClientRepository implements RegisteredClientRepository, MeterBinder {
+
+    private static final String CACHE_NAME = "registered_client";
+
+    private final RegisteredClientRepository delegate;
+    private final Cache<String, Optional<RegisteredClient>> byId;
+    private final Cache<String, Optional<RegisteredClient>> byClientId;
+    private final StoreTimer storeTimer = new StoreTimer(CACHE_NAME);
+
+    /**
+     * Constructor for CachingRegisteredClientRepository.
+     *
+     * @param delegate         the backing {@link RegisteredClientRepository}
+     * @param maximumSize      max cached clients
+     * @param expireAfterWrite ttl of a cached client
+     */
+    public CachingRegisteredClientRepository(RegisteredClientRepository delegate, long maximumSize,
+                                             Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.byClientId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(RegisteredClient registeredClient) {
+        storeTimer.record(() -> delegate.save(registeredClient));
+        byId.invalidate(registeredClient.getId());
+        byClientId.invalidate(registeredClient.getClientId());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable RegisteredClient findById(String id) {
+        return byId.get(id, key -> Optional.ofNullable(storeTimer.record(() -> delegate.findById(key))))
+                .orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable RegisteredClient findByClientId(String clientId) {
+        return byClientId.get(clientId, key -> Optional.ofNullable(storeTimer.record(() -> delegate.findByClientId(key))))
+                .orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, CACHE_NAME + "_by_id");
+        CaffeineCacheMetrics.monitor(registry, byClientId, CACHE_NAME + "_by_client_id");
+        storeTimer.bindTo(registry);
+    }
+}
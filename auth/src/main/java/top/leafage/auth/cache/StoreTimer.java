@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * latency of the backing store behind a cache, recorded once bound to a registry.
+ *
+ * @author wq li
+ */
+final class StoreTimer {
+
+    private static final String METER_NAME = "auth.store.latency";
+
+    private final String store;
+    private volatile Timer timer;
+
+    StoreTimer(String store) {
+        this.store = store;
+    }
+
+    void bindTo(MeterRegistry registry) {
+        this.timer = Timer.builder(METER_NAME)
+                .description("latency of the store behind the cache, misses and writes")
+                .tag("store", store)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    <T> T record(Supplier<T> supplier) {
+        Timer t = timer;
+        return t == null ? supplier.get() : t.record(supplier);
+    }
+
+    void record(Runnable runnable) {
+        Timer t = timer;
+        if (t == null) {
+            runnable.run();
+        } else {
+            t.record(runnable);
+        }
+    }
+}
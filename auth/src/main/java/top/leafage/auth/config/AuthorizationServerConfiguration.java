@@ -15,23 +15,35 @@
 
 package top.leafage.auth.config;
 
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
@@ -40,20 +52,30 @@ import org.springframework.security.oauth2.server.authorization.client.Registere
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationFailureHandler;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.security.web.util.matcher.MediaTypeRequestMatcher;
+import org.springframework.util.StringUtils;
+import top.leafage.auth.cache.CacheInvalidationListener;
+import top.leafage.auth.cache.CachingOAuth2AuthorizationConsentService;
+import top.leafage.auth.cache.CachingOAuth2AuthorizationService;
+import top.leafage.auth.cache.CachingRegisteredClientRepository;
+import top.leafage.auth.security.JdbcUserDetailsService;
+import top.leafage.auth.security.OffloadedPasswordEncoder;
+import top.leafage.auth.security.PasswordHashingExecutor;
+import top.leafage.auth.security.PasswordHashingRejectedException;
 
 import javax.sql.DataSource;
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -96,48 +118,112 @@ public class AuthorizationServerConfiguration {
                 .authorizeHttpRequests((authorize )->
                         authorize.requestMatchers("/actuator/**", "/assets/**", "/login").permitAll()
                                 .anyRequest().authenticated())
-                .formLogin(formLogin -> formLogin.loginPage("/login"));
+                .formLogin(formLogin -> formLogin.loginPage("/login")
+                        .failureHandler(loginFailureHandler()));
         return http.build();
     }
 
     @Bean
-    UserDetailsService userDetailsService(DataSource dataSource) {
-        JdbcUserDetailsManager jdbcUserDetailsManager = new JdbcUserDetailsManager(dataSource);
-        jdbcUserDetailsManager.setEnableGroups(true);
-        return jdbcUserDetailsManager;
+    PasswordEncoder passwordEncoder(@Value("${leafage.password.bcrypt-strength:10}") int strength) {
+        // 新密码使用按 strength 的 bcrypt，其余内置格式由默认的 DelegatingPasswordEncoder 校验，并在登录成功后重新编码
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return encoder;
     }
 
     @Bean
-    public RegisteredClientRepository registeredClientRepository(JdbcTemplate jdbcTemplate) {
-        return new JdbcRegisteredClientRepository(jdbcTemplate);
+    PasswordHashingExecutor passwordHashingExecutor(@Value("${leafage.password.hashing.threads:0}") int threads,
+                                                    @Value("${leafage.password.hashing.queue-capacity:64}") int queueCapacity,
+                                                    @Value("${leafage.password.hashing.timeout:PT5S}") Duration timeout) {
+        return new PasswordHashingExecutor(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, timeout);
     }
 
     @Bean
-    public JdbcOAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate,
-                                                               RegisteredClientRepository registeredClientRepository) {
-        return new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
+    DaoAuthenticationProvider formLoginAuthenticationProvider(JdbcUserDetailsService userDetailsService,
+                                                              PasswordEncoder passwordEncoder,
+                                                              PasswordHashingExecutor passwordHashingExecutor) {
+        // 仅表单登录的密码校验放到有界线程池，客户端密钥校验仍直接使用 passwordEncoder
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(new OffloadedPasswordEncoder(passwordEncoder, passwordHashingExecutor));
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
     }
 
     @Bean
-    public JdbcOAuth2AuthorizationConsentService authorizationConsentService(JdbcTemplate jdbcTemplate,
-                                                                             RegisteredClientRepository registeredClientRepository) {
+    JdbcUserDetailsService userDetailsService(JdbcTemplate jdbcTemplate,
+                                              @Value("${leafage.cache.user-details.maximum-size:10000}") long maximumSize,
+                                              @Value("${leafage.cache.user-details.expire-after-write:PT30S}") Duration expireAfterWrite) {
+        return new JdbcUserDetailsService(jdbcTemplate, maximumSize, expireAfterWrite);
+    }
+
+    @Bean
+    CacheInvalidationListener cacheInvalidationListener(DataSource dataSource, JdbcUserDetailsService userDetailsService,
+                                                        CachingOAuth2AuthorizationService authorizationService) {
+        return new CacheInvalidationListener(dataSource, Map.of(
+                JdbcUserDetailsService.CHANNEL, userDetailsService::evict,
+                CachingOAuth2AuthorizationService.CHANNEL, authorizationService::evict), () -> {
+            userDetailsService.evictAll();
+            authorizationService.evictAll();
+        });
+    }
+
+    @Bean
+    public CachingRegisteredClientRepository registeredClientRepository(JdbcTemplate jdbcTemplate,
+                                                                        @Value("${leafage.cache.registered-client.maximum-size:1000}") long maximumSize,
+                                                                        @Value("${leafage.cache.registered-client.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        return new CachingRegisteredClientRepository(new JdbcRegisteredClientRepository(jdbcTemplate),
+                maximumSize, expireAfterWrite);
+    }
+
+    @Bean
+    public CachingOAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate,
+                                                                  RegisteredClientRepository registeredClientRepository,
+                                                                  @Value("${leafage.cache.authorization.maximum-size:10000}") long maximumSize,
+                                                                  @Value("${leafage.cache.authorization.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        return new CachingOAuth2AuthorizationService(
+                new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository), jdbcTemplate,
+                maximumSize, expireAfterWrite);
+    }
+
+    @Bean
+    public CachingOAuth2AuthorizationConsentService authorizationConsentService(JdbcTemplate jdbcTemplate,
+                                                                                RegisteredClientRepository registeredClientRepository,
+                                                                                @Value("${leafage.cache.authorization-consent.maximum-size:10000}") long maximumSize,
+                                                                                @Value("${leafage.cache.authorization-consent.expire-after-write:PT10M}") Duration expireAfterWrite) {
         // Will be used by the ConsentController
-        return new JdbcOAuth2AuthorizationConsentService(jdbcTemplate, registeredClientRepository);
+        return new CachingOAuth2AuthorizationConsentService(
+                new JdbcOAuth2AuthorizationConsentService(jdbcTemplate, registeredClientRepository),
+                maximumSize, expireAfterWrite);
+    }
+
+    @Bean
+    public JWKSet jwkSet(ResourceLoader resourceLoader,
+                         @Value("${leafage.jwk.key-store:}") String keyStore,
+                         @Value("${leafage.jwk.key-store-password:}") String password,
+                         @Value("${leafage.jwk.algorithm:RS256}") SignatureAlgorithm algorithm) {
+        if (!StringUtils.hasText(keyStore)) {
+            // 未配置 key store 时生成临时密钥，重启后已签发的 token 失效，仅用于开发
+            return SigningKeys.generate(algorithm);
+        }
+        return SigningKeys.load(resourceLoader.getResource(keyStore), password);
     }
 
     @Bean
-    public JWKSource<SecurityContext> jwkSource() {
-        KeyPair keyPair = generateRsaKey();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        RSAKey rsaKey = new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .keyID(UUID.randomUUID().toString())
-                .build();
-        JWKSet jwkSet = new JWKSet(rsaKey);
+    public JWKSource<SecurityContext> jwkSource(JWKSet jwkSet) {
         return new ImmutableJWKSet<>(jwkSet);
     }
 
+    @Bean
+    public JwtEncoder jwtEncoder(JWKSet jwkSet, @Value("${leafage.jwk.active:}") String active,
+                                 @Value("${leafage.jwk.algorithm:RS256}") SignatureAlgorithm algorithm) {
+        // 仅使用 active 密钥签名，其余密钥只用于 jwks 发布和验签
+        JWK jwk = SigningKeys.active(jwkSet, active);
+        SigningKeys.check(jwk, algorithm);
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+    }
+
     @Bean
     public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
         return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
@@ -149,8 +235,12 @@ public class AuthorizationServerConfiguration {
     }
 
     @Bean
-    public OAuth2TokenCustomizer<JwtEncodingContext> jwtTokenCustomizer() {
+    public OAuth2TokenCustomizer<JwtEncodingContext> jwtTokenCustomizer(
+            @Value("${leafage.token.compact-authorities:false}") boolean compactAuthorities,
+            @Value("${leafage.jwk.algorithm:RS256}") SignatureAlgorithm algorithm) {
         return (context) -> {
+            // access token 与 id token 统一使用 active 密钥的算法
+            context.getJwsHeader().algorithm(algorithm);
             if (OAuth2TokenType.ACCESS_TOKEN.equals(context.getTokenType())) {
                 context.getClaims().claims(claims -> {
                     // 获取原有的 scope，若不存在则初始化
@@ -162,24 +252,32 @@ public class AuthorizationServerConfiguration {
                             .collect(Collectors.toSet());
                     claims.put("scope", scope);
 
-                    // 获取用户权限并添加到 scope
-                    context.getPrincipal().getAuthorities().stream()
+                    Set<String> authorities = context.getPrincipal().getAuthorities().stream()
                             .map(GrantedAuthority::getAuthority)
-                            .forEach(scope::add);
+                            .collect(Collectors.toSet());
+                    if (!compactAuthorities) {
+                        // 获取用户权限并添加到 scope
+                        scope.addAll(authorities);
+                        return;
+                    }
+                    // compact 模式下用户权限写入 authz，无法压缩的仍写入 scope
+                    Map<Boolean, List<String>> partitioned = authorities.stream()
+                            .collect(Collectors.partitioningBy(CompactAuthorities::encodable));
+                    scope.addAll(partitioned.get(false));
+                    claims.put(CompactAuthorities.CLAIM, CompactAuthorities.encode(partitioned.get(true)));
                 });
             }
         };
     }
 
-    private static KeyPair generateRsaKey() {
-        KeyPair keyPair;
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            keyPair = keyPairGenerator.generateKeyPair();
-        } catch (Exception ex) {
-            throw new IllegalStateException(ex);
-        }
-        return keyPair;
+    private static AuthenticationFailureHandler loginFailureHandler() {
+        // 密码校验饱和时返回 503，客户端稍后重试
+        LinkedHashMap<Class<? extends AuthenticationException>, AuthenticationFailureHandler> handlers = new LinkedHashMap<>();
+        handlers.put(PasswordHashingRejectedException.class, (request, response, exception) -> {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+        });
+        return new DelegatingAuthenticationFailureHandler(handlers,
+                new SimpleUrlAuthenticationFailureHandler("/login?error"));
     }
 }
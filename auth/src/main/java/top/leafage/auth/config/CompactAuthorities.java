@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.config;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.Deflater;
+
+/**
+ * compact form of the user authorities in an access token.
+ * <p>
+ * authorities are grouped by privilege, {@code users users:create users:modify} is written as
+ * {@code users:,create,modify}, then deflated and base64url encoded behind a version prefix.
+ * the resource servers expand it back, keep the format in step with them.
+ *
+ * @author wq li
+ */
+public final class CompactAuthorities {
+
+    /**
+     * name of the claim.
+     */
+    public static final String CLAIM = "authz";
+
+    private static final String VERSION = "1.";
+
+    private CompactAuthorities() {
+    }
+
+    /**
+     * whether the authority can be written in the compact form.
+     *
+     * @param authority the authority.
+     * @return true if it has no space or comma, and not ends with colon.
+     */
+    public static boolean encodable(String authority) {
+        return StringUtils.hasText(authority) && authority.indexOf(' ') < 0
+                && authority.indexOf(',') < 0 && !authority.endsWith(":");
+    }
+
+    /**
+     * encode authorities.
+     *
+     * @param authorities the authorities, each must be {@link #encodable(String)}.
+     * @return the claim value.
+     */
+    public static String encode(Collection<String> authorities) {
+        Map<String, SortedSet<String>> grouped = new TreeMap<>();
+        for (String authority : authorities) {
+            Assert.isTrue(encodable(authority), "authority can not be encoded: " + authority);
+            int i = authority.indexOf(':');
+            String name = i < 0 ? authority : authority.substring(0, i);
+            String action = i < 0 ? "" : authority.substring(i + 1);
+            grouped.computeIfAbsent(name, k -> new TreeSet<>()).add(action);
+        }
+        StringJoiner joiner = new StringJoiner(" ");
+        grouped.forEach((name, actions) -> {
+            if (actions.size() == 1 && actions.contains("")) {
+                joiner.add(name);
+            } else {
+                joiner.add(name + ':' + String.join(",", actions));
+            }
+        });
+        byte[] deflated = deflate(joiner.toString().getBytes(StandardCharsets.UTF_8));
+        return VERSION + Base64.getUrlEncoder().withoutPadding().encodeToString(deflated);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * token signing keys.
+ * <p>
+ * keys are read from a PKCS12 key store, the alias is the {@code kid}. every key is published on the
+ * jwks endpoint, private key entries and certificate-only entries alike, while tokens are signed by the
+ * active one. a rotation is: add the new key, deploy; switch active to it, deploy; drop the old key
+ * once the tokens signed by it have expired. rsa keys sign RS256, P-256 ec keys sign ES256.
+ *
+ * @author wq li
+ */
+public final class SigningKeys {
+
+    private SigningKeys() {
+    }
+
+    /**
+     * load all keys of the key store.
+     *
+     * @param resource the PKCS12 key store.
+     * @param password password of the store and its keys.
+     * @return the keys.
+     */
+    public static JWKSet load(Resource resource, String password) {
+        char[] secret = password.toCharArray();
+        try (InputStream in = resource.getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, secret);
+            JWKSet jwkSet = JWKSet.load(keyStore, name -> secret);
+            Assert.state(!jwkSet.isEmpty(), "no key found in " + resource);
+            return jwkSet;
+        } catch (Exception e) {
+            throw new IllegalStateException("failed to load signing keys from " + resource, e);
+        }
+    }
+
+    /**
+     * the key used to sign.
+     *
+     * @param jwkSet all keys.
+     * @param active kid of the active key, may be empty when there is only one private key.
+     * @return the active key.
+     */
+    public static JWK active(JWKSet jwkSet, String active) {
+        if (StringUtils.hasText(active)) {
+            JWK jwk = jwkSet.getKeyByKeyId(active);
+            Assert.state(jwk != null && jwk.isPrivate(), "no private key found for kid " + active);
+            return jwk;
+        }
+        List<JWK> privateKeys = jwkSet.getKeys().stream().filter(JWK::isPrivate).toList();
+        Assert.state(privateKeys.size() == 1, "leafage.jwk.active is required when there is not exactly one private key");
+        return privateKeys.getFirst();
+    }
+
+    /**
+     * a throwaway key, for development without a key store only.
+     *
+     * @param algorithm the signing algorithm, RS256 or ES256.
+     * @return the key.
+     */
+    public static JWKSet generate(SignatureAlgorithm algorithm) {
+        String kid = UUID.randomUUID().toString();
+        try {
+            JWK jwk = switch (algorithm) {
+                case RS256 -> new RSAKeyGenerator(2048).keyID(kid).generate();
+                case ES256 -> new ECKeyGenerator(Curve.P_256).keyID(kid).generate();
+                default -> throw new IllegalArgumentException("unsupported signing algorithm: " + algorithm);
+            };
+            return new JWKSet(jwk);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * check the key can sign with the algorithm.
+     *
+     * @param jwk       the key.
+     * @param algorithm the signing algorithm.
+     */
+    public static void check(JWK jwk, SignatureAlgorithm algorithm) {
+        KeyType keyType = KeyType.forAlgorithm(JWSAlgorithm.parse(algorithm.getName()));
+        Assert.state(keyType.equals(jwk.getKeyType()),
+                "key " + jwk.getKeyID() + " is " + jwk.getKeyType() + ", can not sign " + algorithm.getName());
+        if (jwk instanceof ECKey ecKey) {
+            Assert.state(Curve.P_256.equals(ecKey.getCurve()), "key " + jwk.getKeyID() + " is not on curve P-256");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * user details with direct and group authorities loaded in one query, behind a short-lived cache.
+ * <p>
+ * the cache holds an immutable copy, a new {@link User} is built for each call since the
+ * authentication erases the password of the one it returns. entries are dropped by ttl,
+ * or earlier on a {@value #CHANNEL} notification when the hypervisor changes them.
+ * passwords re-encoded on login are written back through {@link #updatePassword(UserDetails, String)}.
+ *
+ * @author wq li
+ */
+public class JdbcUserDetailsService implements UserDetailsService, UserDetailsPasswordService, MeterBinder {
+
+    /**
+     * channel the hypervisor notifies, with a comma separated list of usernames or {@code *} for all.
+     */
+    public static final String CHANNEL = "user_details";
+
+    private static final String CACHE_NAME = "user_details";
+    private static final String ALL = "*";
+
+    private static final String USER_AUTHORITIES_QUERY = """
+            SELECT u.username, u.password, u.enabled, a.authority
+            FROM users u
+            LEFT JOIN (SELECT username, authority FROM authorities WHERE username = ?
+                       UNION
+                       SELECT gm.username, ga.authority
+                       FROM group_members gm
+                       JOIN group_authorities ga ON ga.group_id = gm.group_id
+                       WHERE gm.username = ?) a ON a.username = u.username
+            WHERE u.username = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, CachedUser> cache;
+
+    /**
+     * Constructor for JdbcUserDetailsService.
+     *
+     * @param jdbcTemplate     a {@link JdbcTemplate} object
+     * @param maximumSize      max cached users
+     * @param expireAfterWrite ttl of a cached user
+     */
+    public JdbcUserDetailsService(JdbcTemplate jdbcTemplate, long maximumSize, Duration expireAfterWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CachedUser user = cache.get(username, this::load);
+        if (user == null) {
+            throw new UsernameNotFoundException("Username " + username + " not found");
+        }
+        if (user.authorities().isEmpty()) {
+            throw new UsernameNotFoundException("User " + username + " has no GrantedAuthority");
+        }
+        return User.withUsername(user.username())
+                .password(user.password())
+                .disabled(!user.enabled())
+                .authorities(user.authorities())
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, @Nullable String newPassword) {
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE username = ?", newPassword, user.getUsername());
+        cache.invalidate(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    /**
+     * evict the given users.
+     *
+     * @param usernames usernames
+     */
+    public void evict(Collection<String> usernames) {
+        cache.invalidateAll(usernames);
+    }
+
+    /**
+     * evict the users of a {@value #CHANNEL} notification.
+     *
+     * @param payload comma separated usernames, or {@code *} for all.
+     */
+    public void evict(String payload) {
+        if (ALL.equals(payload)) {
+            evictAll();
+        } else {
+            evict(Arrays.asList(payload.split(",")));
+        }
+    }
+
+    /**
+     * evict all.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private CachedUser load(String username) {
+        return jdbcTemplate.query(USER_AUTHORITIES_QUERY, rs -> {
+            CachedUser user = null;
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            while (rs.next()) {
+                if (user == null) {
+                    user = new CachedUser(rs.getString(1), rs.getString(2), rs.getBoolean(3), authorities);
+                }
+                String authority = rs.getString(4);
+                if (authority != null) {
+                    authorities.add(new SimpleGrantedAuthority(authority));
+                }
+            }
+            return user == null ? null : new CachedUser(user.username(), user.password(), user.enabled(),
+                    List.copyOf(authorities));
+        }, username, username, username);
+    }
+
+    private record CachedUser(String username, String password, boolean enabled,
+                              List<GrantedAuthority> authorities) {
+    }
+}
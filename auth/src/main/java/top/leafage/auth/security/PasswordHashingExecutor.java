@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * dedicated, bounded pool the password hashes of the form login run on.
+ * <p>
+ * at most {@code threads} hashes run at once and {@code queueCapacity} wait, any more are rejected at once
+ * with {@link PasswordHashingRejectedException}, as is one waiting longer than the timeout. so a login burst
+ * can not take every request thread, and token and jwks requests keep being served.
+ *
+ * @author wq li
+ */
+public class PasswordHashingExecutor implements MeterBinder, DisposableBean {
+
+    private static final String EXECUTOR_NAME = "password_hashing";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private volatile Counter rejected;
+
+    /**
+     * Constructor for PasswordHashingExecutor.
+     *
+     * @param threads       concurrent hashes
+     * @param queueCapacity hashes allowed to wait
+     * @param timeout       max wait of a caller
+     */
+    public PasswordHashingExecutor(int threads, int queueCapacity, Duration timeout) {
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * run the hash on the pool and wait for it.
+     *
+     * @param task the hash
+     * @param <T>  the type of result
+     * @return the result of the hash.
+     * @throws PasswordHashingRejectedException if the pool is saturated or the wait times out.
+     */
+    public <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw reject("Password hashing is saturated", e);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw reject("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(registry);
+        this.rejected = Counter.builder("executor.rejected.hashes")
+                .description("password hashes rejected for saturation or timeout")
+                .tag("name", EXECUTOR_NAME)
+                .register(registry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private PasswordHashingRejectedException reject(String msg, Throwable cause) {
+        Counter counter = rejected;
+        if (counter != null) {
+            counter.increment();
+        }
+        return new PasswordHashingRejectedException(msg, cause);
+    }
+}
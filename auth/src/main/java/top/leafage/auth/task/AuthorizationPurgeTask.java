@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.auth.task;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * purge expired and revoked authorizations in bounded batches.
+ * <p>
+ * an authorization is expired when the last of its tokens expired before the retention, and revoked
+ * when its refresh token, or its access token if there is none, is invalidated. each batch runs in
+ * a short transaction with a lock timeout, skips rows locked by token requests, and the run stops
+ * at its time budget. both conditions are backed by the indexes in schema.sql, keep them in step.
+ *
+ * @author wq li
+ */
+@Component
+public class AuthorizationPurgeTask implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationPurgeTask.class);
+
+    private static final String TABLE_NAME = "oauth2_authorization";
+
+    private static final String PURGE_QUERY = """
+            DELETE FROM oauth2_authorization
+            WHERE id IN (SELECT id FROM oauth2_authorization
+                         WHERE GREATEST(authorization_code_expires_at, access_token_expires_at,
+                                        refresh_token_expires_at, oidc_id_token_expires_at,
+                                        user_code_expires_at, device_code_expires_at) < ?
+                            OR (refresh_token_value IS NOT NULL
+                                    AND refresh_token_metadata LIKE '%"metadata.token.invalidated":true%')
+                            OR (refresh_token_value IS NULL
+                                    AND access_token_metadata LIKE '%"metadata.token.invalidated":true%')
+                         LIMIT ? FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration lockTimeout;
+    private final Duration timeBudget;
+
+    private Counter purged;
+    private Timer duration;
+
+    /**
+     * Constructor for AuthorizationPurgeTask.
+     *
+     * @param jdbcTemplate        a {@link JdbcTemplate} object
+     * @param transactionTemplate a {@link TransactionTemplate} object
+     * @param retention           how long an expired authorization is kept
+     * @param batchSize           rows deleted per transaction
+     * @param lockTimeout         lock timeout of a batch
+     * @param timeBudget          max duration of a run
+     */
+    public AuthorizationPurgeTask(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  @Value("${leafage.purge.authorization.retention:P1D}") Duration retention,
+                                  @Value("${leafage.purge.authorization.batch-size:1000}") int batchSize,
+                                  @Value("${leafage.purge.authorization.lock-timeout:PT2S}") Duration lockTimeout,
+                                  @Value("${leafage.purge.authorization.time-budget:PT1M}") Duration timeBudget) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.lockTimeout = lockTimeout;
+        this.timeBudget = timeBudget;
+    }
+
+    @Scheduled(cron = "${leafage.purge.authorization.cron:0 */10 * * * *}")
+    public void purge() {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        long total = 0;
+        int deleted;
+        do {
+            try {
+                deleted = deleteBatch(cutoff);
+            } catch (DataAccessException e) {
+                // lock timeout or conflict, try again in the next run
+                logger.warn("purge of {} stopped: {}", TABLE_NAME, e.getMessage());
+                break;
+            }
+            total += deleted;
+            if (purged != null) {
+                purged.increment(deleted);
+            }
+        } while (deleted == batchSize && System.nanoTime() < deadline);
+
+        long elapsed = System.nanoTime() - start;
+        if (duration != null) {
+            duration.record(Duration.ofNanos(elapsed));
+        }
+        logger.info("{} purged, deleted: {}, duration: {}ms", TABLE_NAME, total, Duration.ofNanos(elapsed).toMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.purged = Counter.builder("auth.authorization.purged")
+                .description("authorizations deleted by the purge")
+                .register(registry);
+        this.duration = Timer.builder("auth.authorization.purge.duration")
+                .description("duration of a purge run")
+                .register(registry);
+        Gauge.builder("auth.authorization.table.size", jdbcTemplate, this::tableSize)
+                .description("total size of the authorization table, indexes and toast included")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private int deleteBatch(Timestamp cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            // SET LOCAL can not take a bind parameter
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+            return jdbcTemplate.update(PURGE_QUERY, cutoff, batchSize);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private double tableSize(JdbcTemplate jdbcTemplate) {
+        Long size = jdbcTemplate.queryForObject("SELECT pg_total_relation_size(CAST(? AS regclass))", Long.class, TABLE_NAME);
+        return size == null ? Double.NaN : size;
+    }
+}
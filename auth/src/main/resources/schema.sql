@@ -204,3 +204,22 @@ COMMENT
 ALTER TABLE "public"."oauth2_authorization_consent"
     ADD CONSTRAINT "oauth2_authorization_consent_pkey" PRIMARY KEY ("registered_client_id", "principal_name");
 
+
+-- ----------------------------
+-- Indexes structure for table oauth2_authorization
+-- token values are long, hash indexes serve the equality lookups of JdbcOAuth2AuthorizationService
+-- ----------------------------
+CREATE INDEX "ix_oauth2_authorization_state" ON "public"."oauth2_authorization" USING hash ("state");
+CREATE INDEX "ix_oauth2_authorization_authorization_code_value" ON "public"."oauth2_authorization" USING hash ("authorization_code_value");
+CREATE INDEX "ix_oauth2_authorization_access_token_value" ON "public"."oauth2_authorization" USING hash ("access_token_value");
+CREATE INDEX "ix_oauth2_authorization_oidc_id_token_value" ON "public"."oauth2_authorization" USING hash ("oidc_id_token_value");
+CREATE INDEX "ix_oauth2_authorization_refresh_token_value" ON "public"."oauth2_authorization" USING hash ("refresh_token_value");
+CREATE INDEX "ix_oauth2_authorization_user_code_value" ON "public"."oauth2_authorization" USING hash ("user_code_value");
+CREATE INDEX "ix_oauth2_authorization_device_code_value" ON "public"."oauth2_authorization" USING hash ("device_code_value");
+-- expired and revoked authorizations, for the purge
+CREATE INDEX "ix_oauth2_authorization_expires_at" ON "public"."oauth2_authorization"
+    (GREATEST("authorization_code_expires_at", "access_token_expires_at", "refresh_token_expires_at",
+              "oidc_id_token_expires_at", "user_code_expires_at", "device_code_expires_at"));
+CREATE INDEX "ix_oauth2_authorization_revoked" ON "public"."oauth2_authorization" ("id")
+    WHERE ("refresh_token_value" IS NOT NULL AND "refresh_token_metadata" LIKE '%"metadata.token.invalidated":true%')
+       OR ("refresh_token_value" IS NULL AND "access_token_metadata" LIKE '%"metadata.token.invalidated":true%');
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.auth.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * cache invalidation listener test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private PGNotification failing;
+
+    @Mock
+    private PGNotification notification;
+
+    @Test
+    void listen() throws Exception {
+        List<String> evicted = new CopyOnWriteArrayList<>();
+        AtomicInteger resets = new AtomicInteger();
+        CacheInvalidationListener listener = new CacheInvalidationListener(dataSource, Map.of(
+                "user_details", payload -> {
+                    throw new IllegalStateException("broken");
+                },
+                "authorization", evicted::add), resets::incrementAndGet);
+
+        given(dataSource.getConnection()).willReturn(connection);
+        given(connection.createStatement()).willReturn(statement);
+        given(connection.unwrap(PGConnection.class)).willReturn(pgConnection);
+        given(failing.getName()).willReturn("user_details");
+        given(failing.getParameter()).willReturn("test");
+        given(notification.getName()).willReturn("authorization");
+        given(notification.getParameter()).willReturn("a1");
+        given(pgConnection.getNotifications(anyInt()))
+                .willReturn(new PGNotification[]{failing, notification})
+                .willAnswer(invocation -> {
+                    listener.stop();
+                    return null;
+                });
+
+        listener.start();
+
+        // 处理失败后继续处理后续通知，归还连接前取消监听
+        verify(connection, timeout(1000)).close();
+        verify(statement).execute("LISTEN user_details");
+        verify(statement).execute("LISTEN authorization");
+        verify(statement).execute("UNLISTEN *");
+        assertEquals(List.of("a1"), evicted);
+        assertEquals(1, resets.get());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.auth.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * caching authorization service test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class CachingOAuth2AuthorizationServiceTest {
+
+    @Mock
+    private OAuth2AuthorizationService delegate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CachingOAuth2AuthorizationService authorizationService;
+
+    private OAuth2Authorization authorization;
+
+    @BeforeEach
+    void setUp() {
+        authorizationService = new CachingOAuth2AuthorizationService(delegate, jdbcTemplate, 100, Duration.ofMinutes(10));
+
+        RegisteredClient client = RegisteredClient.withId("1")
+                .clientId("client")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+        Instant now = Instant.now();
+        authorization = OAuth2Authorization.withRegisteredClient(client)
+                .id("a1")
+                .principalName("client")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .accessToken(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "token", now, now.plusSeconds(300)))
+                .build();
+    }
+
+    @Test
+    void save() {
+        authorizationService.save(authorization);
+
+        verify(delegate).save(authorization);
+        assertTrue(payload().endsWith(":a1"));
+        assertSame(authorization, authorizationService.findByToken("token", OAuth2TokenType.ACCESS_TOKEN));
+        verify(delegate, never()).findByToken("token", OAuth2TokenType.ACCESS_TOKEN);
+    }
+
+    @Test
+    void remove() {
+        authorizationService.save(authorization);
+        authorizationService.remove(authorization);
+
+        verify(delegate).remove(authorization);
+        authorizationService.findById("a1");
+        verify(delegate).findById("a1");
+    }
+
+    @Test
+    void evict() {
+        authorizationService.save(authorization);
+        given(delegate.findByToken("token", OAuth2TokenType.ACCESS_TOKEN)).willReturn(authorization);
+
+        authorizationService.evict("other-node:a1");
+
+        assertSame(authorization, authorizationService.findByToken("token", OAuth2TokenType.ACCESS_TOKEN));
+        verify(delegate).findByToken("token", OAuth2TokenType.ACCESS_TOKEN);
+    }
+
+    @Test
+    void evict_own() {
+        authorizationService.save(authorization);
+
+        authorizationService.evict(payload());
+
+        assertSame(authorization, authorizationService.findById("a1"));
+        verify(delegate, never()).findById("a1");
+    }
+
+    @Test
+    void evictAll() {
+        authorizationService.save(authorization);
+
+        authorizationService.evictAll();
+
+        authorizationService.findById("a1");
+        verify(delegate).findById("a1");
+    }
+
+    private String payload() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).queryForList(eq("SELECT pg_notify(?, ?)"), eq(CachingOAuth2AuthorizationService.CHANNEL), payload.capture());
+        return (String) payload.getValue();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.auth.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * compact authorities test
+ *
+ * @author wq li
+ **/
+class CompactAuthoritiesTest {
+
+    /**
+     * the text the hypervisor {@code CompactAuthoritiesTest} decodes, change both or neither.
+     */
+    private static final String GOLDEN = "ROLE_ADMIN roles:remove users:,create,modify";
+
+    @Test
+    void encode() {
+        String value = CompactAuthorities.encode(Set.of("users", "users:create", "users:modify", "roles:remove", "ROLE_ADMIN"));
+
+        assertTrue(value.startsWith("1."));
+        assertEquals(GOLDEN, inflate(value));
+    }
+
+    @Test
+    void encode_empty() {
+        assertEquals("", inflate(CompactAuthorities.encode(Set.of())));
+    }
+
+    @Test
+    void encode_not_encodable() {
+        assertFalse(CompactAuthorities.encodable("users read"));
+        assertFalse(CompactAuthorities.encodable("users:"));
+        assertThrows(IllegalArgumentException.class, () -> CompactAuthorities.encode(List.of("a,b")));
+    }
+
+    @Test
+    void encode_smaller() {
+        for (int size : new int[]{50, 500}) {
+            Set<String> authorities = IntStream.range(0, size)
+                    .mapToObj(i -> "privilege" + (i / 6) + ":" + List.of("create", "modify", "remove", "enable", "import", "export").get(i % 6))
+                    .collect(Collectors.toSet());
+
+            String scope = String.join(" ", authorities);
+            String compact = CompactAuthorities.encode(authorities);
+            assertTrue(compact.length() * 4 < scope.length(), size + " authorities: " + compact.length() + " of " + scope.length());
+        }
+    }
+
+    private static String inflate(String value) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(Base64.getUrlDecoder().decode(value.substring(2)));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[512];
+            while (!inflater.finished()) {
+                out.write(buffer, 0, inflater.inflate(buffer));
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.auth.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * password encoder test
+ *
+ * @author wq li
+ **/
+class PasswordEncoderTest {
+
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new AuthorizationServerConfiguration().passwordEncoder(4);
+    }
+
+    @Test
+    void encode() {
+        String encoded = passwordEncoder.encode("password");
+
+        assertTrue(encoded.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(passwordEncoder.matches("password", encoded));
+        assertFalse(passwordEncoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void matches_legacy() {
+        String pbkdf2 = "{pbkdf2@SpringSecurity_v5_8}" + Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password");
+
+        assertTrue(passwordEncoder.matches("password", "{noop}password"));
+        assertTrue(passwordEncoder.matches("password", pbkdf2));
+        assertTrue(passwordEncoder.upgradeEncoding("{noop}password"));
+        assertTrue(passwordEncoder.upgradeEncoding(pbkdf2));
+    }
+
+    @Test
+    void upgrade_strength() {
+        String weaker = passwordEncoder.encode("password");
+        PasswordEncoder stronger = new AuthorizationServerConfiguration().passwordEncoder(5);
+
+        assertTrue(stronger.upgradeEncoding(weaker));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.auth.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * signing keys test
+ *
+ * @author wq li
+ **/
+class SigningKeysTest {
+
+    @Test
+    void generate() {
+        JWK rsa = SigningKeys.active(SigningKeys.generate(SignatureAlgorithm.RS256), "");
+        JWK ec = SigningKeys.active(SigningKeys.generate(SignatureAlgorithm.ES256), "");
+
+        assertDoesNotThrow(() -> SigningKeys.check(rsa, SignatureAlgorithm.RS256));
+        assertDoesNotThrow(() -> SigningKeys.check(ec, SignatureAlgorithm.ES256));
+        assertThrows(IllegalStateException.class, () -> SigningKeys.check(ec, SignatureAlgorithm.RS256));
+    }
+
+    @Test
+    void generate_unsupported() {
+        assertThrows(IllegalArgumentException.class, () -> SigningKeys.generate(SignatureAlgorithm.PS256));
+    }
+
+    @Test
+    void signature_size() {
+        // base64url of a 256 bytes RSA-2048 signature and a 64 bytes P-256 signature
+        assertEquals(342, signature(SignatureAlgorithm.RS256).length());
+        assertEquals(86, signature(SignatureAlgorithm.ES256).length());
+    }
+
+    private static String signature(SignatureAlgorithm algorithm) {
+        JWKSet jwkSet = SigningKeys.generate(algorithm);
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(jwkSet));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("test")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        String token = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims))
+                .getTokenValue();
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.auth.task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * authorization purge task test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class AuthorizationPurgeTaskTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void purge() {
+        AuthorizationPurgeTask task = task(Duration.ofMinutes(1));
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100))).thenReturn(100, 100, 30);
+
+        task.purge();
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Timestamp.class), eq(100));
+        verify(jdbcTemplate, times(3)).execute("SET LOCAL lock_timeout = 2000");
+        assertEquals(230, registry.get("auth.authorization.purged").counter().count());
+        assertEquals(1, registry.get("auth.authorization.purge.duration").timer().count());
+    }
+
+    @Test
+    void purge_time_budget() {
+        AuthorizationPurgeTask task = task(Duration.ZERO);
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100))).thenReturn(100);
+
+        task.purge();
+
+        // 超出时间预算后剩余的留给下一次
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Timestamp.class), eq(100));
+        assertEquals(100, registry.get("auth.authorization.purged").counter().count());
+    }
+
+    @Test
+    void purge_lock_timeout() {
+        AuthorizationPurgeTask task = task(Duration.ofMinutes(1));
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100)))
+                .thenReturn(100)
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertDoesNotThrow(task::purge);
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Timestamp.class), eq(100));
+        assertEquals(100, registry.get("auth.authorization.purged").counter().count());
+    }
+
+    private AuthorizationPurgeTask task(Duration timeBudget) {
+        AuthorizationPurgeTask task = new AuthorizationPurgeTask(jdbcTemplate, new TransactionTemplate(transactionManager),
+                Duration.ofDays(1), 100, Duration.ofSeconds(2), timeBudget);
+        task.bindTo(registry);
+        return task;
+    }
+}
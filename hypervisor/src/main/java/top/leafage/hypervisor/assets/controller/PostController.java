@@ -27,6 +27,7 @@ import top.leafage.hypervisor.assets.domain.dto.PostDTO;
 import top.leafage.hypervisor.assets.domain.vo.PostVO;
 import top.leafage.hypervisor.assets.service.PostService;
 import top.leafage.common.poi.ExcelReader;
+import top.leafage.hypervisor.paging.CursorPage;
 
 import java.io.IOException;
 import java.util.List;
@@ -70,6 +71,24 @@ public class PostController {
         return ResponseEntity.ok(voPage);
     }
 
+    /**
+     * Retrieves the records after a cursor, the cost does not grow with the depth.
+     *
+     * @param cursor     The cursor of the previous page, empty for the first page.
+     * @param size       The number of records per page.
+     * @param sortBy     The field to sort by.
+     * @param descending Whether sorting should be in descending order.
+     * @param filters    The filters.
+     * @return A page of records with the cursor of the next page.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_posts')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<PostVO>> seek(@RequestParam String cursor, @RequestParam int size,
+                                                   String sortBy, boolean descending, String filters) {
+        CursorPage<PostVO> voPage = postService.seek(cursor, size, sortBy, descending, filters);
+        return ResponseEntity.ok(voPage);
+    }
+
     /**
      * fetch with id .
      *
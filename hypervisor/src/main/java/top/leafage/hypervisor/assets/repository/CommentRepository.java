@@ -17,10 +17,15 @@ package top.leafage.hypervisor.assets.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import top.leafage.hypervisor.assets.domain.Comment;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * comment repository.
@@ -54,4 +59,27 @@ public interface CommentRepository extends JpaRepository<Comment, Long>, JpaSpec
      */
     long countByReplier(Long replier);
 
+    /**
+     * 批量查询回复记录数
+     *
+     * @param repliers 回复id
+     * @return 回复id及记录数
+     */
+    @Query("SELECT t.replier, COUNT(t) FROM Comment t WHERE t.replier IN :repliers GROUP BY t.replier")
+    List<Object[]> countGroupByReplierIn(Collection<Long> repliers);
+
+    /**
+     * 批量查询回复记录数
+     *
+     * @param repliers 回复id
+     * @return 以回复id为key的记录数，无回复时不存在
+     */
+    default Map<Long, Long> countByReplierIn(Collection<Long> repliers) {
+        if (repliers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return countGroupByReplierIn(repliers).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
 }
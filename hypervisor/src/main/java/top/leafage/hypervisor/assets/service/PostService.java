@@ -17,12 +17,13 @@ package top.leafage.hypervisor.assets.service;
 import top.leafage.hypervisor.assets.domain.dto.PostDTO;
 import top.leafage.hypervisor.assets.domain.vo.PostVO;
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.paging.SeekableService;
 
 /**
  * posts service.
  *
  * @author wq li
  */
-public interface PostService extends JpaCrudService<PostDTO, PostVO> {
+public interface PostService extends JpaCrudService<PostDTO, PostVO>, SeekableService<PostVO> {
 
 }
@@ -29,6 +29,8 @@ import top.leafage.hypervisor.assets.repository.CommentRepository;
 import top.leafage.hypervisor.assets.service.CommentService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * comment service impl.
@@ -59,13 +61,9 @@ public class CommentServiceImpl implements CommentService {
         Specification<@NonNull Comment> spec = (root, query, cb) ->
                 buildPredicate(filters, cb, root).orElse(null);
 
-        return commentRepository.findAll(spec, pageable).map(entity -> {
-            if (entity.getId() != null) {
-                long count = commentRepository.countByReplier(entity.getId());
-                return CommentVO.from(entity, count);
-            }
-            return CommentVO.from(entity);
-        });
+        Page<@NonNull Comment> entityPage = commentRepository.findAll(spec, pageable);
+        Map<Long, Long> counts = countReplies(entityPage.getContent());
+        return entityPage.map(entity -> CommentVO.from(entity, counts.getOrDefault(entity.getId(), 0L)));
     }
 
     /**
@@ -84,14 +82,11 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public List<CommentVO> replies(Long replier) {
-        return commentRepository.findAllByReplier(replier)
-                .stream().map(entity -> {
-                    if (entity.getId() != null) {
-                        long count = commentRepository.countByReplier(entity.getId());
-                        return CommentVO.from(entity, count);
-                    }
-                    return CommentVO.from(entity);
-                }).toList();
+        List<Comment> entities = commentRepository.findAllByReplier(replier);
+        Map<Long, Long> counts = countReplies(entities);
+        return entities.stream()
+                .map(entity -> CommentVO.from(entity, counts.getOrDefault(entity.getId(), 0L)))
+                .toList();
     }
 
     /**
@@ -104,4 +99,11 @@ public class CommentServiceImpl implements CommentService {
         return CommentVO.from(entity);
     }
 
+    private Map<Long, Long> countReplies(List<Comment> entities) {
+        return commentRepository.countByReplierIn(entities.stream()
+                .map(Comment::getId)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
 }
@@ -28,6 +28,10 @@ import top.leafage.hypervisor.assets.domain.dto.PostDTO;
 import top.leafage.hypervisor.assets.domain.vo.PostVO;
 import top.leafage.hypervisor.assets.repository.PostRepository;
 import top.leafage.hypervisor.assets.service.PostService;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.paging.Keyset;
+
+import java.util.Set;
 
 
 /**
@@ -38,6 +42,8 @@ import top.leafage.hypervisor.assets.service.PostService;
 @Service
 public class PostServiceImpl implements PostService {
 
+    private static final Set<String> SORTABLE = Set.of("title", "publishedAt", "createdDate", "lastModifiedDate");
+
     private static final BeanCopier copier = BeanCopier.create(PostDTO.class, Post.class, false);
     private final PostRepository postRepository;
 
@@ -64,6 +70,18 @@ public class PostServiceImpl implements PostService {
                 .map(PostVO::from);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<PostVO> seek(String cursor, int size, String sortBy, boolean descending, String filters) {
+        Specification<@NonNull Post> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        return Keyset.seek(postRepository, spec, cursor, size, sortBy, descending, SORTABLE)
+                .map(PostVO::from);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.security.autoconfigure.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.leafage.hypervisor.logging.AccessLogFilter;
+import top.leafage.hypervisor.logging.AccessLogWriter;
+
+/**
+ * logging configuration
+ *
+ * @author wq li
+ */
+@Configuration(proxyBeanMethods = false)
+public class LoggingConfiguration {
+
+    /**
+     * access log filter, before the security filter chain so rejected requests are logged too.
+     *
+     * @param accessLogWriter a {@link AccessLogWriter} object
+     * @param enabled         whether to capture
+     * @param sampleRate      share of successful requests kept, 0 to 1
+     * @param maxLength       max length of params and body
+     * @return a {@link FilterRegistrationBean} object
+     */
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogWriter accessLogWriter,
+                                                                   @Value("${leafage.logging.access.enabled:true}") boolean enabled,
+                                                                   @Value("${leafage.logging.access.sample-rate:1.0}") double sampleRate,
+                                                                   @Value("${leafage.logging.access.max-length:255}") int maxLength) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(accessLogWriter, enabled, sampleRate, maxLength));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
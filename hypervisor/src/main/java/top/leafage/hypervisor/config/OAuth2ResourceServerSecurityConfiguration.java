@@ -15,13 +15,22 @@
 
 package top.leafage.hypervisor.config;
 
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.Customizer;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import top.leafage.hypervisor.security.CompiledAuthorizationManager;
+import top.leafage.hypervisor.security.JwtAuthenticationCache;
 
 /**
  * AuthorizationServerConfiguration class.
@@ -30,24 +39,45 @@ import org.springframework.security.web.SecurityFilterChain;
  */
 @Configuration(proxyBeanMethods = false)
 @EnableWebSecurity
-@EnableMethodSecurity
+@EnableMethodSecurity(prePostEnabled = false)
 public class OAuth2ResourceServerSecurityConfiguration {
 
     /**
      * securityFilterChain.
      *
-     * @param http a {@link HttpSecurity} object
+     * @param http                   a {@link HttpSecurity} object
+     * @param jwtAuthenticationCache a {@link JwtAuthenticationCache} object
      * @return a {@link SecurityFilterChain} object
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationCache jwtAuthenticationCache) {
         http
                 .authorizeHttpRequests(authorize ->
                         authorize.requestMatchers("/actuator/**").permitAll()
                                 .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 ->
-                        oauth2.jwt(Customizer.withDefaults()));
+                        oauth2.jwt(jwt -> jwt.authenticationManager(jwtAuthenticationCache)));
         return http.build();
     }
 
+    /**
+     * {@code @PreAuthorize} interceptor backed by compiled authority checks.
+     *
+     * @param expressionHandler the expression handler of the context, if any
+     * @param context           a {@link ApplicationContext} object
+     * @return a {@link Advisor} object
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationMethodInterceptor(ObjectProvider<MethodSecurityExpressionHandler> expressionHandler,
+                                                             ApplicationContext context) {
+        // 未编译的表达式使用上下文的 expression handler，保留 bean 引用、角色层级等
+        MethodSecurityExpressionHandler handler = expressionHandler.getIfAvailable(() -> {
+            DefaultMethodSecurityExpressionHandler defaultHandler = new DefaultMethodSecurityExpressionHandler();
+            defaultHandler.setApplicationContext(context);
+            return defaultHandler;
+        });
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(new CompiledAuthorizationManager(handler));
+    }
+
 }
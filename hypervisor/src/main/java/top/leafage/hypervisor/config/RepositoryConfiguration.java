@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import top.leafage.hypervisor.paging.CountingJpaRepository;
+
+/**
+ * repository configuration, repositories count pages by the strategy of the request.
+ *
+ * @author wq li
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableJpaRepositories(basePackages = "top.leafage.hypervisor", repositoryBaseClass = CountingJpaRepository.class)
+public class RepositoryConfiguration {
+}
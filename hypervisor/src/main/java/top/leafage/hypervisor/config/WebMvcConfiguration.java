@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.config;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import top.leafage.hypervisor.export.ExportTimeoutInterceptor;
+import top.leafage.hypervisor.paging.CountStrategyInterceptor;
+
+import java.time.Duration;
+
+/**
+ * web mvc configuration
+ *
+ * @author wq li
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    private final Duration exportTimeout;
+
+    /**
+     * Constructor for WebMvcConfiguration.
+     *
+     * @param exportTimeout max duration of an export
+     */
+    public WebMvcConfiguration(@Value("${leafage.export.timeout:PT30M}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new CountStrategyInterceptor());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new ExportTimeoutInterceptor(exportTimeout));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * build the streamed response of an export.
+ * <p>
+ * the body is written on an async thread after the headers are sent, so the rows never sit in
+ * memory. with gzip the body is compressed on the fly and sent as a {@code .gz} attachment. the
+ * streaming is bounded by the export timeout instead of the default async one.
+ *
+ * @author wq li
+ */
+public final class ExportResponse {
+
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private ExportResponse() {
+    }
+
+    /**
+     * the response of an export.
+     *
+     * @param name    the name of attachment, without extension.
+     * @param format  the format parameter.
+     * @param gzip    compress the body or not.
+     * @param service the service.
+     * @param filters the filters.
+     * @return the response.
+     */
+    public static ResponseEntity<StreamingResponseBody> of(String name, String format, boolean gzip,
+                                                           ExportableService service, String filters) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            // 导出使用单独的超时时间，见 ExportTimeoutInterceptor
+            attributes.setAttribute(ExportTimeoutInterceptor.ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        String filename = name + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                service.export(filters, exportFormat, gzipOut);
+                gzipOut.finish();
+            } else {
+                service.export(filters, exportFormat, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename).build().toString())
+                .contentType(gzip ? APPLICATION_GZIP : exportFormat.getMediaType())
+                .body(body);
+    }
+}
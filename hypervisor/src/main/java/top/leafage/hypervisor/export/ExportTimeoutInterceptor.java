@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.export;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * give the async streaming of an export its own timeout.
+ * <p>
+ * {@link ExportResponse} marks the request, the timeout is set before the async processing starts,
+ * other async requests keep the default one.
+ *
+ * @author wq li
+ */
+public class ExportTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    static final String ATTRIBUTE = ExportTimeoutInterceptor.class.getName() + ".export";
+
+    private final Duration timeout;
+
+    /**
+     * Constructor for ExportTimeoutInterceptor.
+     *
+     * @param timeout max duration of an export
+     */
+    public ExportTimeoutInterceptor(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncWebRequest
+                && request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            asyncWebRequest.setTimeout(timeout.toMillis());
+        }
+    }
+}
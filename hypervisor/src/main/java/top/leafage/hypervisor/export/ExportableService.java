@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * service supporting the export of the rows matching the filters of retrieve.
+ *
+ * @author wq li
+ */
+public interface ExportableService {
+
+    /**
+     * write the rows matching the filters.
+     *
+     * @param filters the filters.
+     * @param format  the format.
+     * @param out     the output, not closed.
+     * @throws IOException if the output fails.
+     */
+    void export(String filters, ExportFormat format, OutputStream out) throws IOException;
+}
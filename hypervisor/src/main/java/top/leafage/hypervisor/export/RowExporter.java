@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.export;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * stream the rows of a specification to an output, as csv or ndjson.
+ * <p>
+ * rows are read through a forward-only cursor in a read-only transaction, with a fetch size so the
+ * driver does not buffer the result, and each row is detached once written, memory stays flat
+ * whatever the row count. the columns of csv are the components of the vo record.
+ *
+ * @author wq li
+ */
+@Component
+public class RowExporter {
+
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final int fetchSize;
+
+    /**
+     * Constructor for RowExporter.
+     *
+     * @param entityManager      a {@link EntityManager} object
+     * @param transactionManager a {@link PlatformTransactionManager} object
+     * @param jsonMapper         a {@link JsonMapper} object
+     * @param fetchSize          rows fetched per round trip
+     */
+    public RowExporter(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                       JsonMapper jsonMapper, @Value("${leafage.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * write the rows matching the specification, ordered by id.
+     *
+     * @param type   the type of entity.
+     * @param spec   the filters.
+     * @param voType the type of vo, its components are the csv columns.
+     * @param mapper entity to vo.
+     * @param format the format.
+     * @param out    the output, not closed.
+     * @param <T>    the type of entity
+     * @param <V>    the type of vo, a record
+     * @throws IOException if the output fails.
+     */
+    public <T, V extends Record> void export(Class<T> type, Specification<T> spec, Class<V> voType,
+                                             Function<T, V> mapper, ExportFormat format,
+                                             OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            RowWriter<V> rowWriter = format == ExportFormat.CSV ? new CsvRowWriter<>(voType, writer)
+                    : vo -> ndjson(vo, writer);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<T> rows = stream(type, spec)) {
+                    rows.forEach(entity -> {
+                        rowWriter.write(mapper.apply(entity));
+                        entityManager.detach(entity);
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private <T> Stream<T> stream(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get(ID)));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private <V> void ndjson(V vo, Writer writer) {
+        try {
+            writer.write(jsonMapper.writeValueAsString(vo));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<V> {
+
+        void write(V vo);
+    }
+
+    /**
+     * csv per RFC 4180, the header is written first, so an empty result still has its columns. text cells
+     * starting with a formula character, tab or carriage return are prefixed with a quote, so spreadsheets
+     * do not evaluate them.
+     */
+    private static final class CsvRowWriter<V extends Record> implements RowWriter<V> {
+
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+        private final RecordComponent[] components;
+
+        private CsvRowWriter(Class<V> voType, Writer writer) {
+            this.writer = writer;
+            this.components = voType.getRecordComponents();
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    cell(i, components[i].getName(), false);
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(V vo) {
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    Object value = components[i].getAccessor().invoke(vo);
+                    cell(i, value == null ? "" : value.toString(), value instanceof CharSequence);
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void cell(int index, String value, boolean text) throws IOException {
+            if (index > 0) {
+                writer.write(',');
+            }
+            String cell = text && !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+            if (cell.indexOf(',') < 0 && cell.indexOf('"') < 0 && cell.indexOf('\n') < 0 && cell.indexOf('\r') < 0) {
+                writer.write(cell);
+                return;
+            }
+            writer.write('"');
+            writer.write(cell.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * capture an access log for each request and hand it to the {@link AccessLogWriter}.
+ * <p>
+ * registered before the security filter chain so 401 and 403 are logged too, the user is read once the chain
+ * has run. successful requests are sampled, errors are always kept. uri, pattern, params and body are trimmed
+ * to the column length, multipart bodies skipped. the matched handler pattern is kept next to the uri,
+ * rollups group by it. an async request is logged when it completes, with its final status and duration.
+ *
+ * @author wq li
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogWriter accessLogWriter;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxLength;
+
+    /**
+     * Constructor for AccessLogFilter.
+     *
+     * @param accessLogWriter a {@link AccessLogWriter} object
+     * @param enabled         whether to capture
+     * @param sampleRate      share of successful requests kept, 0 to 1
+     * @param maxLength       max length of params and body
+     */
+    public AccessLogFilter(AccessLogWriter accessLogWriter, boolean enabled, double sampleRate, int maxLength) {
+        this.accessLogWriter = accessLogWriter;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Instant now = Instant.now();
+        long start = System.nanoTime();
+        ContentCachingRequestWrapper wrapper = new ContentCachingRequestWrapper(request, maxLength);
+        try {
+            filterChain.doFilter(wrapper, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // 异步请求在完成时才有最终状态码和耗时
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, wrapper, start, now);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, wrapper, start, now);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, ContentCachingRequestWrapper wrapper,
+                        long start, Instant now) {
+        int status = response.getStatus();
+        if (status >= 400 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            accessLogWriter.submit(new AccessLogRecord(trim(request.getRequestURI()), trim(urlPattern(request)),
+                    request.getMethod(), request.getRemoteAddr(), trim(request.getQueryString()), body(wrapper),
+                    status, (System.nanoTime() - start) / 1_000_000, username(request), now));
+        }
+    }
+
+    private String body(ContentCachingRequestWrapper wrapper) {
+        String contentType = wrapper.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return null;
+        }
+        byte[] content = wrapper.getContentAsByteArray();
+        return content.length == 0 ? null : trim(new String(content, StandardCharsets.UTF_8));
+    }
+
+    private static String urlPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? null : pattern.toString();
+    }
+
+    private String trim(String value) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+
+    private static String username(HttpServletRequest request) {
+        // 安全过滤链返回时已清空 SecurityContextHolder，bearer token 的认证结果仍保存在请求属性中
+        SecurityContext context = request.getAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME)
+                instanceof SecurityContext saved ? saved : SecurityContextHolder.getContext();
+        Authentication authentication = context.getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
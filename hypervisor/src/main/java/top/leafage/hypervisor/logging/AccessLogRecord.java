@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import java.time.Instant;
+
+/**
+ * an access log waiting to be written.
+ *
+ * @param url        request uri
+ * @param urlPattern matched handler pattern, null if none matched
+ * @param httpMethod http method
+ * @param ip         client address
+ * @param params     query string, trimmed
+ * @param body       request body, trimmed
+ * @param statusCode response status
+ * @param duration   handling time in milliseconds
+ * @param createdBy  username, null if anonymous
+ * @param createdDate time of the request
+ * @author wq li
+ */
+public record AccessLogRecord(String url, String urlPattern, String httpMethod, String ip, String params,
+                              String body, int statusCode, long duration, String createdBy, Instant createdDate) {
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * roll access logs up into per-minute and per-hour buckets by (url pattern, http method, status class).
+ * <p>
+ * a watermark in rollup_watermarks keeps the last id rolled up, so rows are read once, in batches by
+ * id, and each batch is merged into the buckets and advances the watermark in one transaction.
+ * rows are only read up to the max id seen by the previous run, so inserts still in flight then have
+ * committed. counts are of the captured rows, successful requests are subject to the sample rate.
+ *
+ * @author wq li
+ */
+@Component
+public class AccessLogRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogRollup.class);
+
+    private static final String WATERMARK = "access_logs";
+    private static final String UNMATCHED = "unmatched";
+
+    private static final String INIT_WATERMARK_QUERY = """
+            INSERT INTO rollup_watermarks (name) VALUES (?) ON CONFLICT (name) DO NOTHING
+            """;
+
+    private static final String WATERMARK_QUERY = """
+            SELECT last_id, horizon_id FROM rollup_watermarks WHERE name = ? FOR UPDATE
+            """;
+
+    private static final String ADVANCE_QUERY = """
+            UPDATE rollup_watermarks SET last_id = ?, horizon_id = ?, last_modified_date = CURRENT_TIMESTAMP
+            WHERE name = ?
+            """;
+
+    private static final String HORIZON_QUERY = "SELECT coalesce(max(id), 0) FROM access_logs";
+
+    private static final String UPPER_QUERY = """
+            SELECT max(id) FROM (SELECT id FROM access_logs WHERE id > ? AND id <= ? ORDER BY id LIMIT ?) batch
+            """;
+
+    private static final String AGGREGATE_QUERY = """
+            SELECT date_trunc('minute', created_date) AS bucket, coalesce(url_pattern, ?) AS url_pattern,
+                   coalesce(http_method, '') AS http_method, coalesce(status_code, 0) / 100 AS status_class,
+                   width_bucket(greatest(coalesce(duration, 0), 0), CAST(? AS bigint[])) - 1 AS slot,
+                   count(*) AS hits, count(*) FILTER (WHERE status_code >= 500) AS errors,
+                   coalesce(sum(duration), 0) AS duration_sum, coalesce(max(duration), 0) AS duration_max
+            FROM access_logs
+            WHERE id > ? AND id <= ?
+            GROUP BY 1, 2, 3, 4, 5
+            """;
+
+    private static final String UPSERT_QUERY = """
+            INSERT INTO access_log_rollups (resolution, bucket, url_pattern, http_method, status_class, count,
+                                            error_count, duration_sum, duration_max, histogram)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS bigint[]))
+            ON CONFLICT (resolution, bucket, url_pattern, http_method, status_class) DO UPDATE
+            SET count        = access_log_rollups.count + excluded.count,
+                error_count  = access_log_rollups.error_count + excluded.error_count,
+                duration_sum = access_log_rollups.duration_sum + excluded.duration_sum,
+                duration_max = greatest(access_log_rollups.duration_max, excluded.duration_max),
+                histogram    = ARRAY(SELECT coalesce(slot.stored, 0) + coalesce(slot.added, 0)
+                                     FROM unnest(access_log_rollups.histogram, excluded.histogram)
+                                              WITH ORDINALITY AS slot(stored, added, ordinal)
+                                     ORDER BY slot.ordinal)
+            """;
+
+    private static final String EXPIRE_QUERY = "DELETE FROM access_log_rollups WHERE resolution = ? AND bucket < ?";
+
+    private static final String STATS_QUERY = """
+            SELECT bucket, url_pattern, http_method, status_class, count, error_count, duration_sum, duration_max,
+                   histogram
+            FROM access_log_rollups
+            WHERE resolution = ? AND bucket >= ? AND bucket < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration timeBudget;
+    private final Map<RollupResolution, Duration> retentions;
+
+    /**
+     * Constructor for AccessLogRollup.
+     *
+     * @param jdbcTemplate       a {@link JdbcTemplate} object
+     * @param transactionManager a {@link PlatformTransactionManager} object
+     * @param batchSize          access logs read per transaction
+     * @param timeBudget         max duration of a run
+     * @param minuteRetention    retention of the minute buckets
+     * @param hourRetention      retention of the hour buckets
+     */
+    public AccessLogRollup(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           @Value("${leafage.logging.rollup.batch-size:50000}") int batchSize,
+                           @Value("${leafage.logging.rollup.time-budget:PT30S}") Duration timeBudget,
+                           @Value("${leafage.logging.rollup.minute-retention:P7D}") Duration minuteRetention,
+                           @Value("${leafage.logging.rollup.hour-retention:P400D}") Duration hourRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.timeBudget = timeBudget;
+        this.retentions = Map.of(RollupResolution.MINUTE, minuteRetention, RollupResolution.HOUR, hourRetention);
+    }
+
+    /**
+     * roll up the access logs after the watermark, within the time budget.
+     *
+     * @return access logs rolled up.
+     */
+    public long rollup() {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        long total = 0;
+        try {
+            jdbcTemplate.update(INIT_WATERMARK_QUERY, WATERMARK);
+            Batch batch;
+            do {
+                batch = transactionTemplate.execute(status -> rollupBatch());
+                if (batch == null) {
+                    break;
+                }
+                total += batch.rows();
+            } while (!batch.caughtUp() && System.nanoTime() < deadline);
+        } catch (DataAccessException e) {
+            // the batch is rolled back with its watermark, it is read again in the next run
+            logger.warn("access log rollup stopped: {}", e.getMessage());
+        }
+        logger.debug("access logs rolled up, rows: {}, duration: {}ms", total,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return total;
+    }
+
+    /**
+     * delete the buckets past their retention.
+     *
+     * @param now the current time.
+     */
+    public void expire(Instant now) {
+        retentions.forEach((resolution, retention) -> {
+            int deleted = jdbcTemplate.update(EXPIRE_QUERY, resolution.name(), Timestamp.from(now.minus(retention)));
+            logger.info("access log rollups expired, resolution: {}, deleted: {}", resolution, deleted);
+        });
+    }
+
+    /**
+     * the buckets in a range, ordered by time.
+     *
+     * @param resolution the resolution.
+     * @param from       start of the range, inclusive.
+     * @param to         end of the range, exclusive.
+     * @param urlPattern the url pattern, all if empty.
+     * @param httpMethod the http method, all if empty.
+     * @return the buckets.
+     */
+    public List<AccessLogStat> stats(RollupResolution resolution, Instant from, Instant to, String urlPattern,
+                                     String httpMethod) {
+        Assert.notNull(from, "from must not be null.");
+        Assert.notNull(to, "to must not be null.");
+        Assert.isTrue(from.isBefore(to), "from must be before to.");
+        Assert.isTrue(Duration.between(from, to).compareTo(resolution.getMaxRange()) <= 0,
+                "range must not exceed " + resolution.getMaxRange() + " at this resolution.");
+
+        StringBuilder query = new StringBuilder(STATS_QUERY);
+        List<Object> args = new ArrayList<>(List.of(resolution.name(), Timestamp.from(from), Timestamp.from(to)));
+        if (StringUtils.hasText(urlPattern)) {
+            query.append(" AND url_pattern = ?");
+            args.add(urlPattern);
+        }
+        if (StringUtils.hasText(httpMethod)) {
+            query.append(" AND http_method = ?");
+            args.add(httpMethod);
+        }
+        query.append(" ORDER BY bucket, url_pattern, http_method, status_class");
+        return jdbcTemplate.query(query.toString(), (rs, rowNum) -> new AccessLogStat(
+                rs.getTimestamp("bucket").toInstant(), rs.getString("url_pattern"), rs.getString("http_method"),
+                rs.getInt("status_class"), rs.getLong("count"), rs.getLong("error_count"),
+                rs.getLong("duration_sum"), rs.getLong("duration_max"), histogram(rs.getArray("histogram"))
+        ), args.toArray());
+    }
+
+    private Batch rollupBatch() {
+        Watermark watermark = jdbcTemplate.queryForObject(WATERMARK_QUERY,
+                (rs, rowNum) -> new Watermark(rs.getLong("last_id"), rs.getLong("horizon_id")), WATERMARK);
+        Assert.state(watermark != null, "watermark not found: " + WATERMARK);
+        if (watermark.lastId() >= watermark.horizonId()) {
+            // caught up, the rows up to the current max id are read by the next run
+            Long horizon = jdbcTemplate.queryForObject(HORIZON_QUERY, Long.class);
+            jdbcTemplate.update(ADVANCE_QUERY, watermark.lastId(), horizon == null ? watermark.horizonId() : horizon,
+                    WATERMARK);
+            return new Batch(0, true);
+        }
+
+        Long upper = jdbcTemplate.queryForObject(UPPER_QUERY, Long.class, watermark.lastId(), watermark.horizonId(),
+                batchSize);
+        long rows = 0;
+        if (upper == null) {
+            upper = watermark.horizonId();
+        } else {
+            Map<Key, Bucket> minutes = new HashMap<>();
+            Map<Key, Bucket> hours = new HashMap<>();
+            RowCallbackHandler handler = rs -> collect(rs, minutes, hours);
+            jdbcTemplate.query(AGGREGATE_QUERY, handler, UNMATCHED, LatencyHistogram.BOUNDS_LITERAL,
+                    watermark.lastId(), upper);
+            upsert(RollupResolution.MINUTE, minutes);
+            upsert(RollupResolution.HOUR, hours);
+            rows = minutes.values().stream().mapToLong(Bucket::count).sum();
+        }
+        jdbcTemplate.update(ADVANCE_QUERY, upper, watermark.horizonId(), WATERMARK);
+        return new Batch(rows, false);
+    }
+
+    private void collect(ResultSet rs, Map<Key, Bucket> minutes, Map<Key, Bucket> hours) throws SQLException {
+        LocalDateTime minute = rs.getTimestamp("bucket").toLocalDateTime();
+        String urlPattern = rs.getString("url_pattern");
+        String httpMethod = rs.getString("http_method");
+        int statusClass = rs.getInt("status_class");
+        int slot = rs.getInt("slot");
+        long hits = rs.getLong("hits");
+        long errors = rs.getLong("errors");
+        long durationSum = rs.getLong("duration_sum");
+        long durationMax = rs.getLong("duration_max");
+
+        minutes.computeIfAbsent(new Key(minute, urlPattern, httpMethod, statusClass), key -> new Bucket())
+                .add(slot, hits, errors, durationSum, durationMax);
+        hours.computeIfAbsent(new Key(minute.truncatedTo(ChronoUnit.HOURS), urlPattern, httpMethod, statusClass),
+                        key -> new Bucket())
+                .add(slot, hits, errors, durationSum, durationMax);
+    }
+
+    private void upsert(RollupResolution resolution, Map<Key, Bucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Bucket>> entries = new ArrayList<>(buckets.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_QUERY, entries, entries.size(), (ps, entry) -> {
+            Key key = entry.getKey();
+            Bucket bucket = entry.getValue();
+            ps.setString(1, resolution.name());
+            ps.setTimestamp(2, Timestamp.valueOf(key.bucket()));
+            ps.setString(3, key.urlPattern());
+            ps.setString(4, key.httpMethod());
+            ps.setInt(5, key.statusClass());
+            ps.setLong(6, bucket.count());
+            ps.setLong(7, bucket.errorCount);
+            ps.setLong(8, bucket.durationSum);
+            ps.setLong(9, bucket.durationMax);
+            ps.setString(10, Arrays.stream(bucket.histogram)
+                    .mapToObj(String::valueOf)
+                    .collect(Collectors.joining(",", "{", "}")));
+        });
+    }
+
+    private static long[] histogram(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        long[] counts = LatencyHistogram.empty();
+        for (int i = 0; i < values.length && i < counts.length; i++) {
+            counts[i] = values[i] == null ? 0 : ((Number) values[i]).longValue();
+        }
+        return counts;
+    }
+
+    private record Watermark(long lastId, long horizonId) {
+    }
+
+    private record Batch(long rows, boolean caughtUp) {
+    }
+
+    private record Key(LocalDateTime bucket, String urlPattern, String httpMethod, int statusClass) {
+    }
+
+    private static final class Bucket {
+
+        private final long[] histogram = LatencyHistogram.empty();
+        private long errorCount;
+        private long durationSum;
+        private long durationMax;
+
+        private void add(int slot, long hits, long errors, long sum, long max) {
+            histogram[slot] += hits;
+            errorCount += errors;
+            durationSum += sum;
+            durationMax = Math.max(durationMax, max);
+        }
+
+        private long count() {
+            return Arrays.stream(histogram).sum();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import java.time.Instant;
+
+/**
+ * a bucket of the access log rollups.
+ *
+ * @param bucket      start of the bucket
+ * @param urlPattern  matched handler pattern, unmatched if none
+ * @param httpMethod  http method
+ * @param statusClass status code divided by 100
+ * @param count       requests
+ * @param errorCount  requests answered with 5xx
+ * @param durationSum sum of durations in milliseconds
+ * @param durationMax max duration in milliseconds
+ * @param histogram   counts per slot of {@link LatencyHistogram}
+ * @author wq li
+ */
+public record AccessLogStat(Instant bucket, String urlPattern, String httpMethod, int statusClass, long count,
+                            long errorCount, long durationSum, long durationMax, long[] histogram) {
+}
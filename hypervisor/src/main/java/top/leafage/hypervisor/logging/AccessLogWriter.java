@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * write access logs in jdbc batches.
+ *
+ * @author wq li
+ */
+@Component
+public class AccessLogWriter extends BatchingWriter<AccessLogRecord> {
+
+    private static final String INSERT_QUERY = """
+            INSERT INTO access_logs (url, url_pattern, http_method, ip, params, body, status_code, duration,
+                                     created_by, created_date)
+            VALUES (?, ?, ?, CAST(? AS inet), ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for AccessLogWriter.
+     *
+     * @param jdbcTemplate  a {@link JdbcTemplate} object
+     * @param capacity      capacity of the buffer
+     * @param batchSize     max rows in a batch
+     * @param flushInterval max wait between flushes
+     * @param overflow      policy when the buffer is full
+     * @param blockTimeout  max wait for room with {@link OverflowPolicy#BLOCK}
+     */
+    public AccessLogWriter(JdbcTemplate jdbcTemplate,
+                           @Value("${leafage.logging.access.capacity:8192}") int capacity,
+                           @Value("${leafage.logging.access.batch-size:500}") int batchSize,
+                           @Value("${leafage.logging.access.flush-interval:PT1S}") Duration flushInterval,
+                           @Value("${leafage.logging.access.overflow:DROP}") OverflowPolicy overflow,
+                           @Value("${leafage.logging.access.block-timeout:PT0.01S}") Duration blockTimeout) {
+        super("access_log", capacity, batchSize, flushInterval, overflow, blockTimeout);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void write(List<AccessLogRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_QUERY, batch, batch.size(), (ps, entry) -> {
+            ps.setString(1, entry.url());
+            if (entry.urlPattern() == null) {
+                ps.setNull(2, Types.VARCHAR);
+            } else {
+                ps.setString(2, entry.urlPattern());
+            }
+            ps.setString(3, entry.httpMethod());
+            ps.setString(4, entry.ip());
+            ps.setString(5, entry.params());
+            ps.setString(6, entry.body());
+            ps.setInt(7, entry.statusCode());
+            ps.setLong(8, entry.duration());
+            if (entry.createdBy() == null) {
+                ps.setNull(9, Types.VARCHAR);
+            } else {
+                ps.setString(9, entry.createdBy());
+            }
+            ps.setTimestamp(10, Timestamp.from(entry.createdDate()));
+        });
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import top.leafage.hypervisor.system.domain.Group;
+import top.leafage.hypervisor.system.domain.Privilege;
+import top.leafage.hypervisor.system.domain.Role;
+import top.leafage.hypervisor.system.domain.User;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * hibernate listener producing audit logs of users, roles, privileges and groups.
+ * <p>
+ * runs after commit, so rolled back changes are not audited and nothing is added to the transaction.
+ * the diff is taken from the states hibernate already holds, only the changed fields of an update are kept.
+ * serialization and the insert are left to the {@link AuditLogWriter}.
+ *
+ * @author wq li
+ */
+@Component
+public class AuditLogListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Map<Class<?>, String> RESOURCES = Map.of(
+            User.class, "users",
+            Role.class, "roles",
+            Privilege.class, "privileges",
+            Group.class, "groups");
+
+    private static final Set<String> IGNORED = Set.of("lastModifiedBy", "lastModifiedDate");
+    private static final Set<String> MASKED = Set.of("password");
+    private static final String MASK = "******";
+
+    private final AuditLogWriter auditLogWriter;
+
+    /**
+     * Constructor for AuditLogListener, registers itself to the session factory.
+     *
+     * @param entityManagerFactory a {@link EntityManagerFactory} object
+     * @param auditLogWriter       a {@link AuditLogWriter} object
+     */
+    public AuditLogListener(EntityManagerFactory entityManagerFactory, AuditLogWriter auditLogWriter) {
+        this.auditLogWriter = auditLogWriter;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getEventListenerRegistry();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        submit(persister, "create", event.getId(), Map.of(), fields(persister, event.getState()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        if (oldState == null) {
+            submit(persister, "modify", event.getId(), Map.of(), fields(persister, state));
+            return;
+        }
+
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        int[] dirty = event.getDirtyProperties();
+        Map<String, Object> oldValue = new LinkedHashMap<>();
+        Map<String, Object> newValue = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            boolean changed = dirty == null ? !Objects.equals(oldState[i], state[i]) : contains(dirty, i);
+            if (!changed || skip(names[i], types[i])) {
+                continue;
+            }
+            oldValue.put(names[i], value(names[i], oldState[i]));
+            newValue.put(names[i], value(names[i], state[i]));
+        }
+        if (!newValue.isEmpty()) {
+            submit(persister, "modify", event.getId(), oldValue, newValue);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        submit(persister, "remove", event.getId(), fields(persister, event.getDeletedState()), Map.of());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back, nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, nothing to audit
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return RESOURCES.containsKey(persister.getMappedClass());
+    }
+
+    private void submit(EntityPersister persister, String action, Object id, Map<String, Object> oldValue,
+                        Map<String, Object> newValue) {
+        String resource = RESOURCES.get(persister.getMappedClass());
+        if (resource == null) {
+            return;
+        }
+        String ip = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            ip = attributes.getRequest().getRemoteAddr();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication == null ? null : authentication.getName();
+        auditLogWriter.submit(new AuditLogRecord(resource, action, (Long) id, oldValue, newValue, ip, username,
+                Instant.now()));
+    }
+
+    private static Map<String, Object> fields(EntityPersister persister, Object[] state) {
+        if (state == null) {
+            return Map.of();
+        }
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (!skip(names[i], types[i]) && state[i] != null) {
+                fields.put(names[i], value(names[i], state[i]));
+            }
+        }
+        return fields;
+    }
+
+    private static boolean skip(String name, Type type) {
+        // collections are lazy wrappers bound to the session, they can not be read on the writer thread
+        return IGNORED.contains(name) || type.isCollectionType();
+    }
+
+    private static Object value(String name, Object value) {
+        return value != null && MASKED.contains(name) ? MASK : value;
+    }
+
+    private static boolean contains(int[] indexes, int index) {
+        for (int i : indexes) {
+            if (i == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
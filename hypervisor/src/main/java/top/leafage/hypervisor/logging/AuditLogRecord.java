@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * an audit log waiting to be written, the changed fields are serialized by the writer.
+ *
+ * @param resource    table of the entity
+ * @param action      create, modify or remove
+ * @param targetId    the pk of the entity
+ * @param oldValue    changed fields before, empty on create
+ * @param newValue    changed fields after, empty on remove
+ * @param ip          client address, null outside a request
+ * @param createdBy   username, null outside a request
+ * @param createdDate time of the commit
+ * @author wq li
+ */
+public record AuditLogRecord(String resource, String action, Long targetId, Map<String, Object> oldValue,
+                             Map<String, Object> newValue, String ip, String createdBy, Instant createdDate) {
+}
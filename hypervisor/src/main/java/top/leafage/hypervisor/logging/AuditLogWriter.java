@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * write audit logs in jdbc batches, the changed fields are serialized to json here, off the committing thread.
+ *
+ * @author wq li
+ */
+@Component
+public class AuditLogWriter extends BatchingWriter<AuditLogRecord> {
+
+    private static final String INSERT_QUERY = """
+            INSERT INTO audit_logs (resource, action, target_id, old_value, new_value, ip, created_by, created_date)
+            VALUES (?, ?, ?, ?, ?, CAST(? AS inet), ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Constructor for AuditLogWriter.
+     *
+     * @param jdbcTemplate  a {@link JdbcTemplate} object
+     * @param jsonMapper    a {@link JsonMapper} object
+     * @param capacity      capacity of the buffer
+     * @param batchSize     max rows in a batch
+     * @param flushInterval max wait between flushes
+     * @param overflow      policy when the buffer is full
+     * @param blockTimeout  max wait for room with {@link OverflowPolicy#BLOCK}
+     */
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper,
+                          @Value("${leafage.logging.audit.capacity:4096}") int capacity,
+                          @Value("${leafage.logging.audit.batch-size:200}") int batchSize,
+                          @Value("${leafage.logging.audit.flush-interval:PT1S}") Duration flushInterval,
+                          @Value("${leafage.logging.audit.overflow:BLOCK}") OverflowPolicy overflow,
+                          @Value("${leafage.logging.audit.block-timeout:PT0.05S}") Duration blockTimeout) {
+        super("audit_log", capacity, batchSize, flushInterval, overflow, blockTimeout);
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void write(List<AuditLogRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_QUERY, batch, batch.size(), (ps, entry) -> {
+            ps.setString(1, entry.resource());
+            ps.setString(2, entry.action());
+            ps.setLong(3, entry.targetId());
+            ps.setString(4, json(entry.oldValue()));
+            ps.setString(5, json(entry.newValue()));
+            ps.setString(6, entry.ip());
+            ps.setString(7, entry.createdBy());
+            ps.setTimestamp(8, Timestamp.from(entry.createdDate()));
+        });
+    }
+
+    private String json(Map<String, Object> value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return jsonMapper.writeValueAsString(value);
+        } catch (JacksonException e) {
+            return String.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * buffer entries in a {@link RingBuffer} and write them in batches on a background thread.
+ * <p>
+ * producers never wait on the store: when the buffer is full the entry is dropped, or with
+ * {@link OverflowPolicy#BLOCK} waits up to the block timeout first. a failed batch is counted
+ * and dropped, the rest is flushed on stop.
+ *
+ * @param <T> the type of entry
+ * @author wq li
+ */
+public abstract class BatchingWriter<T> implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingWriter.class);
+
+    private static final long BLOCK_PARK_NANOS = 50_000;
+
+    private final String name;
+    private final RingBuffer<T> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflow;
+    private final long blockTimeoutNanos;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Constructor for BatchingWriter.
+     *
+     * @param name          name of the writer, also the metrics tag
+     * @param capacity      capacity of the buffer
+     * @param batchSize     max entries in a batch
+     * @param flushInterval max wait between flushes
+     * @param overflow      policy when the buffer is full
+     * @param blockTimeout  max wait for room with {@link OverflowPolicy#BLOCK}
+     */
+    protected BatchingWriter(String name, int capacity, int batchSize, Duration flushInterval,
+                             OverflowPolicy overflow, Duration blockTimeout) {
+        this.name = name;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+    }
+
+    /**
+     * hand an entry to the writer.
+     *
+     * @param entry the entry.
+     * @return false if it was dropped.
+     */
+    public boolean submit(T entry) {
+        if (buffer.offer(entry)) {
+            return true;
+        }
+        if (overflow == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (buffer.offer(entry)) {
+                    return true;
+                }
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * write everything buffered, in batches.
+     *
+     * @return the number of entries taken from the buffer.
+     */
+    public int flush() {
+        int count = 0;
+        List<T> batch = new ArrayList<>(batchSize);
+        T entry;
+        while ((entry = buffer.poll()) != null) {
+            batch.add(entry);
+            count++;
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+        return count;
+    }
+
+    /**
+     * write a batch to the store.
+     *
+     * @param batch the entries.
+     */
+    protected abstract void write(List<T> batch);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofVirtual().name(name + "-writer").start(this::run);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("log.writer.written", written, LongAdder::sum)
+                .description("entries written to the store")
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("log.writer.dropped", dropped, LongAdder::sum)
+                .description("entries dropped because the buffer was full")
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("log.writer.failed", failed, LongAdder::sum)
+                .description("entries lost in failed batches")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("log.writer.buffered", buffer, RingBuffer::size)
+                .description("entries waiting in the buffer")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private void run() {
+        while (running) {
+            flush();
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    private void writeBatch(List<T> batch) {
+        try {
+            write(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            logger.warn("{} failed to write {} entries", name, batch.size(), e);
+        }
+    }
+}
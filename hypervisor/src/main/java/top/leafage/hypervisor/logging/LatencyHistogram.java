@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * fixed layout latency histogram in milliseconds, counts per slot are kept in a {@code long[]}.
+ * <p>
+ * slots grow roughly by a quarter, so a percentile is off by less than a slot width, and two
+ * histograms of the same layout merge by element-wise sum, which is what makes rollups of
+ * rollups exact. the layout must only be extended at the end, stored rollups rely on it.
+ *
+ * @author wq li
+ */
+public final class LatencyHistogram {
+
+    /**
+     * lower bound of each slot, a duration falls in the last slot whose bound is not above it.
+     */
+    static final long[] BOUNDS = {0, 1, 2, 3, 4, 5, 6, 8, 10, 12, 15, 20, 25, 30, 40, 50, 60, 80, 100, 120, 150,
+            200, 250, 300, 400, 500, 600, 800, 1000, 1200, 1500, 2000, 2500, 3000, 4000, 5000, 6000, 8000,
+            10000, 12000, 15000, 20000, 30000, 60000};
+
+    /**
+     * the bounds as a postgres array literal, for {@code width_bucket}.
+     */
+    public static final String BOUNDS_LITERAL = Arrays.stream(BOUNDS)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(",", "{", "}"));
+
+    private LatencyHistogram() {
+    }
+
+    /**
+     * a histogram with no count.
+     *
+     * @return the counts per slot.
+     */
+    public static long[] empty() {
+        return new long[BOUNDS.length];
+    }
+
+    /**
+     * the slot of a duration.
+     *
+     * @param duration duration in milliseconds.
+     * @return the index of slot.
+     */
+    public static int slot(long duration) {
+        int index = Arrays.binarySearch(BOUNDS, Math.max(duration, 0));
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * add the counts of the source into the target.
+     *
+     * @param target the counts added to.
+     * @param source the counts to add.
+     */
+    public static void merge(long[] target, long[] source) {
+        Assert.isTrue(target.length >= source.length, "histogram layouts do not match");
+        for (int i = 0; i < source.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    /**
+     * the percentile, as the upper bound of the slot it falls in, capped by the max.
+     *
+     * @param counts   the counts per slot.
+     * @param quantile between 0 and 1.
+     * @param max      the max duration recorded.
+     * @return the duration in milliseconds, 0 if empty.
+     */
+    public static long percentile(long[] counts, double quantile, long max) {
+        Assert.isTrue(quantile >= 0 && quantile <= 1, "quantile must be between 0 and 1");
+        long total = Arrays.stream(counts).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i + 1 < BOUNDS.length ? Math.min(BOUNDS[i + 1], max) : max;
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * maintain the daily range partitions of the log tables on created_date.
+ * <p>
+ * partitions of the coming days are created ahead, the ones entirely older than the retention
+ * are dropped, so retention costs a catalog change instead of a delete. each ddl runs in its own
+ * short transaction with a lock timeout, a busy table is retried on the next run.
+ *
+ * @author wq li
+ */
+@Component
+public class LogPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPartitionManager.class);
+
+    public static final Set<String> TABLES = Set.of("access_logs", "operation_logs", "audit_logs", "scheduler_logs");
+
+    private static final String SUFFIX = "_p";
+    private static final String DEFAULT_SUFFIX = "_default";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String PARTITIONED_QUERY = """
+            SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))
+            """;
+
+    private static final String PARTITIONS_QUERY = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = CAST(? AS regclass)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeDays;
+    private final Duration lockTimeout;
+
+    /**
+     * Constructor for LogPartitionManager.
+     *
+     * @param jdbcTemplate       a {@link JdbcTemplate} object
+     * @param transactionManager a {@link PlatformTransactionManager} object
+     * @param premakeDays        days of partitions created ahead
+     * @param lockTimeout        max wait for the table lock of a ddl
+     */
+    public LogPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               @Value("${leafage.logging.partition.premake-days:7}") int premakeDays,
+                               @Value("${leafage.logging.partition.lock-timeout:PT5S}") Duration lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.premakeDays = premakeDays;
+        this.lockTimeout = lockTimeout;
+    }
+
+    /**
+     * whether the table is range partitioned, tables created by hibernate are not.
+     *
+     * @param table the table.
+     * @return true if partitioned.
+     */
+    public boolean isPartitioned(String table) {
+        Assert.isTrue(TABLES.contains(table), "table is not a log table: " + table);
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITIONED_QUERY, Boolean.class, table));
+    }
+
+    /**
+     * the default partition of a log table, holding the rows outside the daily partitions.
+     *
+     * @param table the table.
+     * @return the name of the default partition.
+     */
+    public static String defaultPartition(String table) {
+        Assert.isTrue(TABLES.contains(table), "table is not a log table: " + table);
+        return table + DEFAULT_SUFFIX;
+    }
+
+    /**
+     * create the partitions of today and the coming days, drop the ones past the retention.
+     * <p>
+     * rows of a new day already in the default partition, written while its partition was missing,
+     * would fail the create, so the default partition is detached, the day created, its rows moved
+     * and the default attached again, all in one transaction.
+     *
+     * @param table     the table.
+     * @param retention how long rows are kept.
+     * @param today     the current day.
+     * @return the result.
+     */
+    public PartitionResult maintain(String table, Duration retention, LocalDate today) {
+        Assert.isTrue(TABLES.contains(table), "table is not a log table: " + table);
+        Set<String> partitions = new HashSet<>(jdbcTemplate.queryForList(PARTITIONS_QUERY, String.class, table));
+
+        String defaultPartition = defaultPartition(table);
+        boolean hasDefault = partitions.contains(defaultPartition);
+        int created = 0;
+        for (int i = 0; i <= premakeDays; i++) {
+            LocalDate day = today.plusDays(i);
+            String partition = table + SUFFIX + day.format(FORMATTER);
+            if (partitions.contains(partition)) {
+                continue;
+            }
+            String create = String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, table, day, day.plusDays(1));
+            boolean done = hasDefault && hasRows(defaultPartition, day)
+                    ? execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table, defaultPartition),
+                    create,
+                    String.format("WITH moved AS (DELETE FROM %s WHERE created_date >= '%s' AND created_date < '%s' " +
+                            "RETURNING *) INSERT INTO %s SELECT * FROM moved", defaultPartition, day, day.plusDays(1), partition),
+                    String.format("ALTER TABLE %s ATTACH PARTITION %s DEFAULT", table, defaultPartition))
+                    : execute(create);
+            if (done) {
+                created++;
+            }
+        }
+
+        // a partition holds [day, day + 1), dropped once all of it is older than the cutoff
+        LocalDate cutoff = today.minusDays(retention.toDays());
+        int dropped = 0;
+        for (String partition : partitions) {
+            LocalDate day = day(table, partition);
+            if (day != null && !day.plusDays(1).isAfter(cutoff)
+                    && execute(String.format("DROP TABLE IF EXISTS %s", partition))) {
+                dropped++;
+            }
+        }
+        return new PartitionResult(table, created, dropped);
+    }
+
+    private boolean hasRows(String partition, LocalDate day) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format(
+                "SELECT EXISTS (SELECT 1 FROM %s WHERE created_date >= '%s' AND created_date < '%s')",
+                partition, day, day.plusDays(1)), Boolean.class));
+    }
+
+    private boolean execute(String... ddl) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(String.format("SET LOCAL lock_timeout = '%dms'", lockTimeout.toMillis()));
+                for (String statement : ddl) {
+                    jdbcTemplate.execute(statement);
+                }
+            });
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("log partition ddl failed, retried on the next run: {}", String.join("; ", ddl), e);
+            return false;
+        }
+    }
+
+    private static LocalDate day(String table, String partition) {
+        String prefix = table + SUFFIX;
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()), FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * result of a maintenance run.
+     *
+     * @param table   the table
+     * @param created partitions created
+     * @param dropped partitions dropped
+     */
+    public record PartitionResult(String table, int created, int dropped) {
+    }
+}
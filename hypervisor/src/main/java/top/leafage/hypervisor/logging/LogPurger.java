@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * delete log rows older than a cutoff in bounded batches.
+ * <p>
+ * each batch runs in a short transaction with a lock timeout and skips locked rows, batches are
+ * separated by a throttle so autovacuum and writers keep up, and the run stops at its time budget.
+ * the rest is left to the next run. an explicit clear goes on until nothing is left instead.
+ * backed by the created_date indexes in schema.sql.
+ *
+ * @author wq li
+ */
+@Component
+public class LogPurger implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPurger.class);
+
+    private static final String PURGE_QUERY = """
+            DELETE FROM %1$s
+            WHERE id IN (SELECT id FROM %1$s WHERE created_date < ? LIMIT ? FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration throttle;
+    private final Duration lockTimeout;
+    private final Duration timeBudget;
+
+    private final Map<String, Counter> purged = new HashMap<>();
+    private final Map<String, Timer> durations = new HashMap<>();
+
+    /**
+     * Constructor for LogPurger.
+     *
+     * @param jdbcTemplate       a {@link JdbcTemplate} object
+     * @param transactionManager a {@link PlatformTransactionManager} object
+     * @param batchSize          rows deleted per transaction
+     * @param throttle           pause between batches
+     * @param lockTimeout        lock timeout of a batch
+     * @param timeBudget         max duration of a run per table
+     */
+    public LogPurger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                     @Value("${leafage.logging.purge.batch-size:5000}") int batchSize,
+                     @Value("${leafage.logging.purge.throttle:PT0.1S}") Duration throttle,
+                     @Value("${leafage.logging.purge.lock-timeout:PT2S}") Duration lockTimeout,
+                     @Value("${leafage.logging.purge.time-budget:PT2M}") Duration timeBudget) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.throttle = throttle;
+        this.lockTimeout = lockTimeout;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * delete the rows created before the cutoff, within the time budget.
+     *
+     * @param table  the log table.
+     * @param cutoff rows created before are deleted.
+     * @return rows deleted.
+     */
+    public long purge(String table, Instant cutoff) {
+        Assert.isTrue(LogPartitionManager.TABLES.contains(table), "table is not a log table: " + table);
+        return purge(table, table, cutoff);
+    }
+
+    /**
+     * delete the rows of the default partition created before the cutoff, within the time budget.
+     * <p>
+     * the daily partitions are dropped whole, so a partitioned table only has the rows of its default
+     * partition left to delete, and the delete never scans into the partition of the cutoff day.
+     *
+     * @param table  the log table.
+     * @param cutoff rows created before are deleted.
+     * @return rows deleted.
+     */
+    public long purgeDefaultPartition(String table, Instant cutoff) {
+        return purge(table, LogPartitionManager.defaultPartition(table), cutoff);
+    }
+
+    /**
+     * delete every row created before the cutoff, not bounded by the time budget.
+     * <p>
+     * batches go on until one deletes nothing, so rows skipped as locked are retried. a lock timeout
+     * is thrown to the caller instead of being left to the next run.
+     *
+     * @param table  the log table.
+     * @param cutoff rows created before are deleted.
+     * @return rows deleted.
+     */
+    public long purgeAll(String table, Instant cutoff) {
+        Assert.isTrue(LogPartitionManager.TABLES.contains(table), "table is not a log table: " + table);
+        String query = String.format(PURGE_QUERY, table);
+        Timestamp timestamp = Timestamp.from(cutoff);
+        long start = System.nanoTime();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch(query, timestamp);
+            total += deleted;
+            count(table, deleted);
+        } while (deleted > 0 && pause());
+
+        logger.info("{} cleared, deleted: {}, duration: {}ms", table, total,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return total;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (String table : LogPartitionManager.TABLES) {
+            purged.put(table, Counter.builder("log.retention.purged")
+                    .description("log rows deleted by the retention purge")
+                    .tag("table", table)
+                    .register(registry));
+            durations.put(table, Timer.builder("log.retention.duration")
+                    .description("duration of a purge run")
+                    .tag("table", table)
+                    .register(registry));
+        }
+    }
+
+    private long purge(String table, String relation, Instant cutoff) {
+        String query = String.format(PURGE_QUERY, relation);
+        Timestamp timestamp = Timestamp.from(cutoff);
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        long total = 0;
+        int deleted;
+        do {
+            try {
+                deleted = deleteBatch(query, timestamp);
+            } catch (DataAccessException e) {
+                // lock timeout or conflict, try again in the next run
+                logger.warn("purge of {} stopped: {}", relation, e.getMessage());
+                break;
+            }
+            total += deleted;
+            count(table, deleted);
+        } while (deleted == batchSize && System.nanoTime() < deadline && pause());
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Timer timer = durations.get(table);
+        if (timer != null) {
+            timer.record(elapsed);
+        }
+        logger.info("{} purged, deleted: {}, duration: {}ms", relation, total, elapsed.toMillis());
+        return total;
+    }
+
+    private void count(String table, int deleted) {
+        Counter counter = purged.get(table);
+        if (counter != null) {
+            counter.increment(deleted);
+        }
+    }
+
+    private int deleteBatch(String query, Timestamp cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            // SET LOCAL can not take a bind parameter
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+            return jdbcTemplate.update(query, cutoff, batchSize);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean pause() {
+        if (throttle.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(throttle);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.annotation.Annotation;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * build an operation log around each {@link OperationLogged} method and hand it to the {@link OperationLogWriter}.
+ * <p>
+ * only references the arguments on the request thread, serialization happens in the writer.
+ * the status follows the {@code GlobalExceptionHandler} mapping when the method throws.
+ *
+ * @author wq li
+ */
+@Aspect
+@Component
+public class OperationLogAspect {
+
+    private final OperationLogWriter operationLogWriter;
+
+    /**
+     * Constructor for OperationLogAspect.
+     *
+     * @param operationLogWriter a {@link OperationLogWriter} object
+     */
+    public OperationLogAspect(OperationLogWriter operationLogWriter) {
+        this.operationLogWriter = operationLogWriter;
+    }
+
+    @Around("@annotation(operationLogged)")
+    public Object around(ProceedingJoinPoint joinPoint, OperationLogged operationLogged) throws Throwable {
+        Instant now = Instant.now();
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        try {
+            Object result = joinPoint.proceed();
+            status = result instanceof ResponseEntity<?> entity ? entity.getStatusCode().value() : HttpStatus.OK.value();
+            return result;
+        } catch (IllegalArgumentException e) {
+            status = HttpStatus.BAD_REQUEST.value();
+            throw e;
+        } catch (EntityNotFoundException e) {
+            status = HttpStatus.NOT_FOUND.value();
+            throw e;
+        } finally {
+            operationLogWriter.submit(record(joinPoint, operationLogged, status, now));
+        }
+    }
+
+    private OperationLogRecord record(ProceedingJoinPoint joinPoint, OperationLogged operationLogged, int status,
+                                      Instant now) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String[] names = signature.getParameterNames();
+        Annotation[][] annotations = signature.getMethod().getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+        Map<String, Object> params = new LinkedHashMap<>();
+        Object body = null;
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (isRequestBody(annotations[i])) {
+                body = arg;
+            } else if (arg instanceof MultipartFile file) {
+                params.put(names[i], file.getOriginalFilename());
+            } else if (arg != null && !(arg instanceof ServletRequest || arg instanceof ServletResponse
+                    || arg instanceof Principal)) {
+                params.put(names[i], arg);
+            }
+        }
+
+        String ip = null;
+        String sessionId = null;
+        String userAgent = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            ip = request.getRemoteAddr();
+            HttpSession session = request.getSession(false);
+            sessionId = session == null ? null : session.getId();
+            userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication == null ? null : authentication.getName();
+        return new OperationLogRecord(operationLogged.module(), operationLogged.action(), params, body, ip,
+                sessionId, userAgent, status, username, now);
+    }
+
+    private static boolean isRequestBody(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof RequestBody) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * an operation log waiting to be written, params and body are serialized by the writer.
+ *
+ * @param module      the module
+ * @param action      the action
+ * @param params      arguments other than the body, by name
+ * @param body        the request body argument, may be null
+ * @param ip          client address
+ * @param sessionId   session id, may be null
+ * @param userAgent   user agent
+ * @param statusCode  response status
+ * @param createdBy   username
+ * @param createdDate time of the call
+ * @author wq li
+ */
+public record OperationLogRecord(String module, String action, Map<String, Object> params, Object body,
+                                 String ip, String sessionId, String userAgent, int statusCode,
+                                 String createdBy, Instant createdDate) {
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * write operation logs in jdbc batches, params and body are serialized to json here, off the request thread,
+ * with password fields masked.
+ *
+ * @author wq li
+ */
+@Component
+public class OperationLogWriter extends BatchingWriter<OperationLogRecord> {
+
+    private static final String INSERT_QUERY = """
+            INSERT INTO operation_logs (module, action, params, body, ip, session_id, user_agent, status_code,
+                                        created_by, created_date)
+            VALUES (?, ?, ?, ?, CAST(? AS inet), ?, ?, ?, ?, ?)
+            """;
+
+    private static final String PASSWORD = "password";
+    private static final String MASK = "******";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final int maxLength;
+
+    /**
+     * Constructor for OperationLogWriter.
+     *
+     * @param jdbcTemplate  a {@link JdbcTemplate} object
+     * @param jsonMapper    a {@link JsonMapper} object
+     * @param capacity      capacity of the buffer
+     * @param batchSize     max rows in a batch
+     * @param flushInterval max wait between flushes
+     * @param overflow      policy when the buffer is full
+     * @param blockTimeout  max wait for room with {@link OverflowPolicy#BLOCK}
+     * @param maxLength     max length of params, body and user agent
+     */
+    public OperationLogWriter(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper,
+                              @Value("${leafage.logging.operation.capacity:4096}") int capacity,
+                              @Value("${leafage.logging.operation.batch-size:200}") int batchSize,
+                              @Value("${leafage.logging.operation.flush-interval:PT1S}") Duration flushInterval,
+                              @Value("${leafage.logging.operation.overflow:BLOCK}") OverflowPolicy overflow,
+                              @Value("${leafage.logging.operation.block-timeout:PT0.05S}") Duration blockTimeout,
+                              @Value("${leafage.logging.operation.max-length:255}") int maxLength) {
+        super("operation_log", capacity, batchSize, flushInterval, overflow, blockTimeout);
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void write(List<OperationLogRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_QUERY, batch, batch.size(), (ps, entry) -> {
+            ps.setString(1, entry.module());
+            ps.setString(2, entry.action());
+            ps.setString(3, entry.params().isEmpty() ? null : json(entry.params()));
+            ps.setString(4, entry.body() == null ? null : json(entry.body()));
+            ps.setString(5, entry.ip());
+            ps.setString(6, entry.sessionId());
+            ps.setString(7, trim(entry.userAgent()));
+            ps.setInt(8, entry.statusCode());
+            ps.setString(9, entry.createdBy());
+            ps.setTimestamp(10, Timestamp.from(entry.createdDate()));
+        });
+    }
+
+    private String json(Object value) {
+        try {
+            JsonNode node = jsonMapper.valueToTree(value);
+            mask(node);
+            return trim(jsonMapper.writeValueAsString(node));
+        } catch (JacksonException e) {
+            return trim(String.valueOf(value));
+        }
+    }
+
+    private static void mask(JsonNode node) {
+        if (node instanceof ObjectNode objectNode && objectNode.has(PASSWORD)) {
+            objectNode.put(PASSWORD, MASK);
+        }
+        node.forEach(OperationLogWriter::mask);
+    }
+
+    private String trim(String value) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+}
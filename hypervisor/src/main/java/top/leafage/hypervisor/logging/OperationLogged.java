@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import java.lang.annotation.*;
+
+/**
+ * record an operation log for each call of the annotated controller method.
+ *
+ * @author wq li
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OperationLogged {
+
+    /**
+     * the module, e.g. users.
+     *
+     * @return the module.
+     */
+    String module();
+
+    /**
+     * the action, e.g. create.
+     *
+     * @return the action.
+     */
+    String action();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+/**
+ * what to do when the buffer of a {@link BatchingWriter} is full.
+ *
+ * @author wq li
+ */
+public enum OverflowPolicy {
+
+    /**
+     * drop the entry at once.
+     */
+    DROP,
+
+    /**
+     * wait for room up to the block timeout, then drop.
+     */
+    BLOCK
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * resolution of the access log rollups.
+ *
+ * @author wq li
+ */
+public enum RollupResolution {
+
+    MINUTE(ChronoUnit.MINUTES, Duration.ofDays(1)),
+
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(93));
+
+    private final ChronoUnit unit;
+    private final Duration maxRange;
+
+    RollupResolution(ChronoUnit unit, Duration maxRange) {
+        this.unit = unit;
+        this.maxRange = maxRange;
+    }
+
+    /**
+     * parse the request parameter, case-insensitive.
+     *
+     * @param value the parameter.
+     * @return the resolution, minute if empty.
+     */
+    public static RollupResolution parse(String value) {
+        if (!StringUtils.hasText(value)) {
+            return MINUTE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("resolution must be one of minute, hour: " + value);
+        }
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * the widest range served at once, keeps a response bounded.
+     *
+     * @return the range.
+     */
+    public Duration getMaxRange() {
+        return maxRange;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * how the total of a paged retrieve is counted, bound to the current request.
+ *
+ * @author wq li
+ */
+public enum CountStrategy {
+
+    /**
+     * count(*) of the filtered rows.
+     */
+    EXACT,
+
+    /**
+     * planner statistics of the table, exact when filtered.
+     */
+    ESTIMATED,
+
+    /**
+     * no count, the total only tells whether there is a next page.
+     */
+    NONE;
+
+    private static final ThreadLocal<CountStrategy> CURRENT = new ThreadLocal<>();
+
+    /**
+     * parse the request parameter, case-insensitive.
+     *
+     * @param value the parameter.
+     * @return the strategy, exact if empty.
+     */
+    public static CountStrategy parse(String value) {
+        if (!StringUtils.hasText(value)) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("count must be one of exact, estimated, none: " + value);
+        }
+    }
+
+    /**
+     * the strategy of the current request.
+     *
+     * @return the strategy, exact if not set.
+     */
+    public static CountStrategy current() {
+        CountStrategy strategy = CURRENT.get();
+        return strategy == null ? EXACT : strategy;
+    }
+
+    /**
+     * bind a strategy to the current thread.
+     *
+     * @param strategy the strategy.
+     */
+    public static void set(CountStrategy strategy) {
+        CURRENT.set(strategy);
+    }
+
+    /**
+     * unbind the strategy of the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.List;
+
+/**
+ * repository base class applying the {@link CountStrategy} of the request to paged specification queries,
+ * so every retrieve supports it without change.
+ * <p>
+ * one more row than the page is fetched, a short page needs no count at all. estimated reads the
+ * row estimate of the table and its partitions from pg_class, which is only meaningful unfiltered,
+ * filtered queries and tables never analyzed fall back to count(*).
+ *
+ * @param <T>  the type of entity
+ * @param <ID> the type of id
+ * @author wq li
+ */
+public class CountingJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    private static final String ESTIMATE_QUERY = """
+            SELECT CAST(COALESCE(SUM(GREATEST(c.reltuples, 0)), 0) AS bigint) FROM pg_class c
+            WHERE c.oid = to_regclass(?1)
+               OR c.oid IN (SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = to_regclass(?1))
+            """;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor for CountingJpaRepository.
+     *
+     * @param entityInformation a {@link JpaEntityInformation} object
+     * @param entityManager     a {@link EntityManager} object
+     */
+    public CountingJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NonNull Page<T> findAll(@Nullable Specification<T> spec, @NonNull Pageable pageable) {
+        CountStrategy strategy = CountStrategy.current();
+        if (strategy == CountStrategy.EXACT || pageable.isUnpaged()) {
+            return super.findAll(spec, pageable);
+        }
+
+        TypedQuery<T> query = getQuery(spec, pageable);
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+        long seen = pageable.getOffset() + Math.min(rows.size(), pageable.getPageSize());
+        if (rows.size() <= pageable.getPageSize()) {
+            return new PageImpl<>(rows, pageable, seen);
+        }
+
+        List<T> content = rows.subList(0, pageable.getPageSize());
+        // with none, one past what was seen, enough to tell there is a next page
+        long total = seen + 1;
+        if (strategy == CountStrategy.ESTIMATED) {
+            long estimate = isFiltered(spec) ? 0 : estimate();
+            total = Math.max(estimate > 0 ? estimate : count(spec), total);
+        }
+        return new PageImpl<>(List.copyOf(content), pageable, total);
+    }
+
+    private boolean isFiltered(@Nullable Specification<T> spec) {
+        if (spec == null) {
+            return false;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        return spec.toPredicate(query.from(getDomainClass()), query, cb) != null;
+    }
+
+    private long estimate() {
+        Table table = getDomainClass().getAnnotation(Table.class);
+        if (table == null || table.name().isEmpty()) {
+            return 0;
+        }
+        Object estimate = entityManager.createNativeQuery(ESTIMATE_QUERY)
+                .setParameter(1, table.name())
+                .getSingleResult();
+        return estimate instanceof Number number ? number.longValue() : 0;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * opaque position of a keyset page, the sort key and the id of the last row seen.
+ *
+ * @param sortBy the sort property
+ * @param value  the sort key of the last row, null when the key is null
+ * @param id     the id of the last row
+ * @author wq li
+ */
+public record Cursor(String sortBy, String value, Long id) {
+
+    private static final String SEPARATOR = "\u0000";
+    private static final String PRESENT = "=";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * the cursor after a row.
+     *
+     * @param sortBy the sort property
+     * @param value  the sort key of the row
+     * @param id     the id of the row
+     * @return the cursor.
+     */
+    public static Cursor of(String sortBy, Object value, Long id) {
+        Assert.notNull(id, "id must not be null.");
+        String raw = switch (value) {
+            case null -> null;
+            case Enum<?> e -> e.name();
+            default -> value.toString();
+        };
+        return new Cursor(sortBy, raw, id);
+    }
+
+    /**
+     * decode a cursor from the request.
+     *
+     * @param token the token.
+     * @return the cursor, null for the first page.
+     */
+    public static Cursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+            if (parts.length == 3) {
+                String value = parts[2].startsWith(PRESENT) ? parts[2].substring(PRESENT.length()) : null;
+                return new Cursor(parts[0], value, Long.valueOf(parts[1]));
+            }
+        } catch (IllegalArgumentException e) {
+            // malformed base64 or id, reported below
+        }
+        throw new IllegalArgumentException("invalid cursor: " + token);
+    }
+
+    /**
+     * encode for the response.
+     *
+     * @return the token.
+     */
+    public String encode() {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + (value == null ? "" : PRESENT + value);
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
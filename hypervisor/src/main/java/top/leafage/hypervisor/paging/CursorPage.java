@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * a page of a keyset query.
+ *
+ * @param content the rows
+ * @param next    cursor of the next page, null on the last page
+ * @param <T>     the type of row
+ * @author wq li
+ */
+public record CursorPage<T>(List<T> content, String next) {
+
+    /**
+     * whether there is a next page.
+     *
+     * @return true if there is.
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * map the rows, the cursor is kept.
+     *
+     * @param mapper the mapper.
+     * @param <R>    the type of mapped row
+     * @return the mapped page.
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), next);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * keyset (seek) pagination on top of the filters of a retrieve.
+ * <p>
+ * rows are ordered by the sort property then id, and a page starts after the (sort key, id) of the
+ * cursor, so its cost does not grow with the depth. the condition is written as
+ * {@code sort >= ? AND (sort > ? OR id > ?)} for the index range scan, nulls sort last. the sort property
+ * must be one the service allows, the cursor carries its value of the last row in plain base64.
+ *
+ * @author wq li
+ */
+public final class Keyset {
+
+    private static final String ID = "id";
+
+    private Keyset() {
+    }
+
+    /**
+     * fetch the page after the cursor.
+     *
+     * @param repository the repository.
+     * @param spec       the filters.
+     * @param cursor     the cursor, empty for the first page.
+     * @param size       rows of the page.
+     * @param sortBy     the sort property, id if empty.
+     * @param descending whether descending.
+     * @param sortable   the sort properties allowed besides id.
+     * @param <T>        the type of entity
+     * @return the page of entities.
+     */
+    public static <T> CursorPage<T> seek(JpaSpecificationExecutor<T> repository, Specification<T> spec,
+                                         String cursor, int size, String sortBy, boolean descending,
+                                         Set<String> sortable) {
+        Assert.isTrue(size > 0, "size must be positive.");
+        String property = StringUtils.hasText(sortBy) ? sortBy : ID;
+        Assert.isTrue(ID.equals(property) || sortable.contains(property), "sort property not allowed: " + property);
+        Cursor after = Cursor.decode(cursor);
+        Specification<T> query = spec;
+        if (after != null) {
+            Assert.isTrue(property.equals(after.sortBy()), "cursor does not match the sort: " + property);
+            query = spec.and(after(after, descending));
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = ID.equals(property) ? Sort.by(direction, ID)
+                : Sort.by(new Sort.Order(direction, property, Sort.NullHandling.NULLS_LAST), new Sort.Order(direction, ID));
+        // one more row tells whether there is a next page
+        List<T> rows;
+        try {
+            rows = repository.findBy(query, q -> q.sortBy(sort).limit(size + 1).all());
+        } catch (InvalidDataAccessApiUsageException e) {
+            // a cursor value not matching the sort property, report it as a bad request
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(content.getLast());
+        Cursor next = Cursor.of(property, last.getPropertyValue(property), (Long) last.getPropertyValue(ID));
+        return new CursorPage<>(List.copyOf(content), next.encode());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> after(Cursor cursor, boolean descending) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get(ID);
+            Predicate idAfter = descending ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+            if (ID.equals(cursor.sortBy())) {
+                return idAfter;
+            }
+
+            Path sort = root.get(cursor.sortBy());
+            if (cursor.value() == null) {
+                return cb.and(cb.isNull(sort), idAfter);
+            }
+            Comparable value = convert(sort.getJavaType(), cursor.value());
+            return cb.or(cb.and(bound(cb, sort, value, descending), cb.or(beyond(cb, sort, value, descending), idAfter)),
+                    cb.isNull(sort));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate bound(CriteriaBuilder cb, Path sort, Comparable value, boolean descending) {
+        return descending ? cb.lessThanOrEqualTo(sort, value) : cb.greaterThanOrEqualTo(sort, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path sort, Comparable value, boolean descending) {
+        return descending ? cb.lessThan(sort, value) : cb.greaterThan(sort, value);
+    }
+
+    static Comparable<?> convert(Class<?> type, String value) {
+        try {
+            return parse(type, value);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("invalid cursor value: " + value, e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<?> parse(Class<?> type, String value) {
+        if (type == String.class) {
+            return value;
+        } else if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        } else if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        } else if (type == Short.class || type == short.class) {
+            return Short.valueOf(value);
+        } else if (type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(value);
+        } else if (type == Double.class || type == double.class) {
+            return Double.valueOf(value);
+        } else if (type == Instant.class) {
+            return Instant.parse(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        } else if (type == OffsetDateTime.class) {
+            return OffsetDateTime.parse(value);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, value);
+        }
+        throw new IllegalArgumentException("unsupported sort property type: " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+/**
+ * service supporting keyset pagination next to the offset retrieve.
+ * <p>
+ * the next cursor holds the sort value of the last row, so only fields fine to expose can be sorted by,
+ * any other is rejected.
+ *
+ * @param <V> the type of vo
+ * @author wq li
+ */
+public interface SeekableService<V> {
+
+    /**
+     * Retrieves the records after a cursor, with the filters of retrieve.
+     *
+     * @param cursor     the cursor of the previous page, empty for the first page.
+     * @param size       the number of records per page.
+     * @param sortBy     the field to sort by, one of the fields the service allows.
+     * @param descending whether sorting should be in descending order.
+     * @param filters    the filters.
+     * @return the page with the cursor of the next page.
+     */
+    CursorPage<V> seek(String cursor, int size, String sortBy, boolean descending, String filters);
+}
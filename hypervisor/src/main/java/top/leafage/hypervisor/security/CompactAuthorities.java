@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * compact form of the user authorities in an access token.
+ * <p>
+ * authorities are grouped by privilege, {@code users users:create users:modify} is written as
+ * {@code users:,create,modify}, then deflated and base64url encoded behind a version prefix,
+ * e.g. {@code 1.K84vTS0...}. only the auth server writes it, this side decodes.
+ *
+ * @author wq li
+ */
+public final class CompactAuthorities {
+
+    /**
+     * name of the claim.
+     */
+    public static final String CLAIM = "authz";
+
+    private static final String VERSION = "1.";
+    private static final int MAX_INFLATED_SIZE = 1 << 16;
+
+    private CompactAuthorities() {
+    }
+
+    /**
+     * decode authorities.
+     *
+     * @param value the claim value.
+     * @return the authorities.
+     * @throws IllegalArgumentException if the version is not supported or the value is malformed.
+     */
+    public static Set<String> decode(String value) {
+        if (value == null || !value.startsWith(VERSION)) {
+            throw new IllegalArgumentException("unsupported compact authorities version");
+        }
+        String text = new String(inflate(Base64.getUrlDecoder().decode(value.substring(VERSION.length()))),
+                StandardCharsets.UTF_8);
+        Set<String> authorities = new LinkedHashSet<>();
+        if (text.isEmpty()) {
+            return authorities;
+        }
+        for (String entry : text.split(" ")) {
+            int i = entry.indexOf(':');
+            if (i < 0) {
+                authorities.add(entry);
+                continue;
+            }
+            String name = entry.substring(0, i);
+            for (String action : entry.substring(i + 1).split(",", -1)) {
+                authorities.add(action.isEmpty() ? name : name + ':' + action);
+            }
+        }
+        return authorities;
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("truncated compact authorities");
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_INFLATED_SIZE) {
+                    throw new IllegalArgumentException("compact authorities too large");
+                }
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("malformed compact authorities", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * granted authorities of a jwt, the {@code scope} claim plus the expanded {@link CompactAuthorities#CLAIM},
+ * both with the {@code SCOPE_} prefix, so tokens in either format satisfy the same rules.
+ *
+ * @author wq li
+ */
+public class CompactAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private static final String AUTHORITY_PREFIX = "SCOPE_";
+
+    private final JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<GrantedAuthority> convert(@NonNull Jwt jwt) {
+        Collection<GrantedAuthority> scopes = scopeConverter.convert(jwt);
+        String compact = jwt.getClaimAsString(CompactAuthorities.CLAIM);
+        if (compact == null) {
+            return scopes;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(scopes);
+        try {
+            CompactAuthorities.decode(compact).forEach(authority ->
+                    authorities.add(new SimpleGrantedAuthority(AUTHORITY_PREFIX + authority)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBearerTokenException("Invalid " + CompactAuthorities.CLAIM + " claim", e);
+        }
+        return authorities;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link PreAuthorize} manager without SpEL for the common expressions.
+ * <p>
+ * expressions made of hasRole/hasAuthority joined by || are compiled once per method into the
+ * authorities to look up; the granted authorities come hashed on a {@link HashedJwtAuthenticationToken},
+ * and are hashed per call otherwise. anything else falls back to {@link PreAuthorizeAuthorizationManager}
+ * with the expression handler of the context.
+ *
+ * @author wq li
+ */
+public class CompiledAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final Pattern TERM = Pattern.compile("\\s*(hasRole|hasAuthority)\\('([^']+)'\\)\\s*");
+    private static final String[] FALLBACK = new String[0];
+
+    private final Map<MethodClassKey, String[]> rules = new ConcurrentHashMap<>();
+    private final PreAuthorizeAuthorizationManager fallback = new PreAuthorizeAuthorizationManager();
+
+    /**
+     * Constructor for CompiledAuthorizationManager, the fallback uses the default expression handler.
+     */
+    public CompiledAuthorizationManager() {
+        this(new DefaultMethodSecurityExpressionHandler());
+    }
+
+    /**
+     * Constructor for CompiledAuthorizationManager.
+     *
+     * @param expressionHandler the handler the fallback evaluates expressions with
+     */
+    public CompiledAuthorizationManager(MethodSecurityExpressionHandler expressionHandler) {
+        this.fallback.setExpressionHandler(expressionHandler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication, MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target == null ? invocation.getMethod().getDeclaringClass() : AopUtils.getTargetClass(target);
+        String[] required = rules.computeIfAbsent(new MethodClassKey(invocation.getMethod(), targetClass),
+                key -> compile(invocation.getMethod(), targetClass));
+        if (required == FALLBACK) {
+            return fallback.authorize(authentication, invocation);
+        }
+        Authentication current = authentication.get();
+        if (current == null) {
+            return new AuthorizationDecision(false);
+        }
+        Set<String> granted = current instanceof HashedJwtAuthenticationToken token ? token.getAuthorityNames() : hash(current);
+        for (String authority : required) {
+            if (granted.contains(authority)) {
+                return new AuthorizationDecision(true);
+            }
+        }
+        return new AuthorizationDecision(false);
+    }
+
+    /**
+     * compile an expression into the authorities of which any one grants access.
+     *
+     * @param expression the expression.
+     * @return the authorities, null if not supported.
+     */
+    static String[] compile(String expression) {
+        String[] terms = expression.split("\\|\\|");
+        String[] required = new String[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            Matcher matcher = TERM.matcher(terms[i]);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String value = matcher.group(2);
+            required[i] = "hasRole".equals(matcher.group(1)) && !value.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + value : value;
+        }
+        return required;
+    }
+
+    private static String[] compile(Method method, Class<?> targetClass) {
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(specific, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return FALLBACK;
+        }
+        String[] required = compile(preAuthorize.value());
+        return required == null ? FALLBACK : required;
+    }
+
+    private static Set<String> hash(Authentication authentication) {
+        Set<String> names = new HashSet<>(authentication.getAuthorities().size() * 2);
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+}
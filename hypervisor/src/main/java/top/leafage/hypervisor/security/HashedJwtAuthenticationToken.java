@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * jwt authentication carrying its authority names already hashed.
+ * <p>
+ * built per request by {@link JwtAuthenticationCache} from the cached set, so
+ * {@link CompiledAuthorizationManager} looks authorities up without hashing them again.
+ *
+ * @author wq li
+ */
+public class HashedJwtAuthenticationToken extends JwtAuthenticationToken {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> authorityNames;
+
+    /**
+     * Constructor for HashedJwtAuthenticationToken.
+     *
+     * @param jwt            the verified jwt
+     * @param authorities    the authorities
+     * @param name           the principal name
+     * @param authorityNames the names of the authorities, immutable
+     */
+    public HashedJwtAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, String name,
+                                        Set<String> authorityNames) {
+        super(jwt, authorities, name);
+        this.authorityNames = authorityNames;
+    }
+
+    /**
+     * the names of the granted authorities.
+     *
+     * @return the names, immutable.
+     */
+    public Set<String> getAuthorityNames() {
+        return authorityNames;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * bearer token authentication with a cache of the verified results.
+ * <p>
+ * keyed by the sha-256 of the token, holding the verified {@code Jwt} and its authorities, an entry
+ * never outlives the {@code exp} of its token. a new {@link JwtAuthenticationToken} carrying the details
+ * of the current request is built per call, the token is mutable and must not be shared.
+ * failures are not cached. authorities are read by {@link CompactAuthoritiesConverter}, and hashed once
+ * per token for {@link CompiledAuthorizationManager}.
+ *
+ * @author wq li
+ */
+@Component
+public class JwtAuthenticationCache implements AuthenticationManager, MeterBinder {
+
+    private static final String CACHE_NAME = "jwt_authentication";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Verified> cache;
+
+    /**
+     * Constructor for JwtAuthenticationCache.
+     *
+     * @param jwtDecoder       a {@link JwtDecoder} object
+     * @param maximumSize      max cached tokens
+     * @param expireAfterWrite max ttl of a cached token, when exp is later or absent
+     */
+    public JwtAuthenticationCache(JwtDecoder jwtDecoder,
+                                  @Value("${leafage.cache.jwt.maximum-size:10000}") long maximumSize,
+                                  @Value("${leafage.cache.jwt.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this(provider(jwtDecoder), maximumSize, expireAfterWrite, Clock.systemUTC());
+    }
+
+    JwtAuthenticationCache(AuthenticationProvider delegate, long maximumSize, Duration expireAfterWrite, Clock clock) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(expireAfterWrite, clock))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        String key = hash(bearer.getToken());
+        Verified verified = cache.getIfPresent(key);
+        if (verified == null) {
+            Authentication authenticated = delegate.authenticate(bearer);
+            if (!(authenticated instanceof JwtAuthenticationToken token)) {
+                return authenticated;
+            }
+            verified = new Verified(token.getToken(), List.copyOf(token.getAuthorities()), token.getName(),
+                    names(token.getAuthorities()));
+            cache.put(key, verified);
+        }
+        JwtAuthenticationToken token = new HashedJwtAuthenticationToken(verified.jwt(), verified.authorities(),
+                verified.name(), verified.authorityNames());
+        token.setDetails(bearer.getDetails());
+        return token;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private static AuthenticationProvider provider(JwtDecoder jwtDecoder) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(new CompactAuthoritiesConverter());
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(converter);
+        return provider;
+    }
+
+    private static Set<String> names(Collection<GrantedAuthority> authorities) {
+        Set<String> names = new HashSet<>(authorities.size() * 2);
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * the verified token, immutable.
+     */
+    private record Verified(Jwt jwt, List<GrantedAuthority> authorities, String name, Set<String> authorityNames) {
+    }
+
+    /**
+     * expire at the exp of the token, capped by the max ttl.
+     */
+    private record TokenExpiry(Duration max, Clock clock) implements Expiry<String, Verified> {
+
+        @Override
+        public long expireAfterCreate(String key, Verified value, long currentTime) {
+            long ttl = max.toNanos();
+            if (value.jwt().getExpiresAt() != null) {
+                Duration remaining = Duration.between(Instant.now(clock), value.jwt().getExpiresAt());
+                ttl = Math.min(ttl, Math.max(0, remaining.toNanos()));
+            }
+            return ttl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Verified value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Verified value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.StringJoiner;
+
+/**
+ * tell the auth server to drop cached user details, through postgres {@code NOTIFY}.
+ * <p>
+ * issued in the surrounding transaction, so it is delivered on commit and dropped on rollback.
+ * the payload is a comma separated list of usernames, or {@code *} for all.
+ *
+ * @author wq li
+ */
+@Component
+public class UserDetailsNotifier {
+
+    static final String CHANNEL = "user_details";
+    static final String ALL = "*";
+
+    /**
+     * payload of NOTIFY must be shorter than 8000 bytes.
+     */
+    private static final int MAX_PAYLOAD = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for UserDetailsNotifier.
+     *
+     * @param jdbcTemplate a {@link JdbcTemplate} object
+     */
+    public UserDetailsNotifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * invalidate the given users.
+     *
+     * @param usernames usernames
+     */
+    public void invalidate(Collection<String> usernames) {
+        if (CollectionUtils.isEmpty(usernames)) {
+            return;
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        int size = 0;
+        for (String username : usernames) {
+            int length = username.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (size + length > MAX_PAYLOAD) {
+                send(joiner.toString());
+                joiner = new StringJoiner(",");
+                size = 0;
+            }
+            joiner.add(username);
+            size += length;
+        }
+        send(joiner.toString());
+    }
+
+    /**
+     * invalidate all users.
+     */
+    public void invalidateAll() {
+        send(ALL);
+    }
+
+    private void send(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+}
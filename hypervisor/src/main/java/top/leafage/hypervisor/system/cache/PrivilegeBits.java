@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.cache;
+
+/**
+ * compiled privileges of a user, one bit per privilege and per action of it.
+ * <p>
+ * the bit layout belongs to the hierarchy snapshot of {@link #version()}.
+ *
+ * @author wq li
+ */
+public final class PrivilegeBits {
+
+    private final long version;
+    private final long[] words;
+
+    PrivilegeBits(long version, long[] words) {
+        this.version = version;
+        this.words = words;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    boolean get(int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+}
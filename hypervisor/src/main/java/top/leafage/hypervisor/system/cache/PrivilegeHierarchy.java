@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.leafage.hypervisor.system.domain.Privilege;
+import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
+import top.leafage.hypervisor.system.repository.PrivilegeRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * immutable in-memory snapshot of the privilege hierarchy.
+ * <p>
+ * readers always see a complete snapshot; a change only bumps the version after commit,
+ * and the next read builds a new snapshot and swaps it in.
+ *
+ * @author wq li
+ */
+@Component
+public class PrivilegeHierarchy {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final PrivilegeRepository privilegeRepository;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor for PrivilegeHierarchy.
+     *
+     * @param privilegeRepository a {@link PrivilegeRepository} object
+     */
+    public PrivilegeHierarchy(PrivilegeRepository privilegeRepository) {
+        this.privilegeRepository = privilegeRepository;
+    }
+
+    /**
+     * direct children of the superior.
+     *
+     * @param superiorId the pk of superior.
+     * @return children, sorted by pk.
+     */
+    public List<PrivilegeVO> subset(Long superiorId) {
+        Snapshot current = current();
+        int index = current.indexOf(superiorId);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        return current.toList(current.children[index]);
+    }
+
+    /**
+     * ancestors of the privilege, from the root down to the direct superior.
+     *
+     * @param id the pk of privilege.
+     * @return ancestors.
+     */
+    public List<PrivilegeVO> ancestors(Long id) {
+        Snapshot current = current();
+        int index = current.indexOf(id);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        Deque<PrivilegeVO> ancestors = new ArrayDeque<>();
+        // depth is bounded by size, a broken superior cycle can not loop forever
+        for (int p = current.parent[index], depth = 0; p >= 0 && depth < current.nodes.length; p = current.parent[p], depth++) {
+            ancestors.addFirst(current.nodes[p]);
+        }
+        return List.copyOf(ancestors);
+    }
+
+    /**
+     * descendants of the privilege, depth first.
+     *
+     * @param id the pk of privilege.
+     * @return descendants.
+     */
+    public List<PrivilegeVO> descendants(Long id) {
+        Snapshot current = current();
+        int index = current.indexOf(id);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        List<PrivilegeVO> descendants = new ArrayList<>();
+        boolean[] visited = new boolean[current.nodes.length];
+        visited[index] = true;
+        Deque<Integer> stack = new ArrayDeque<>();
+        pushChildren(stack, current.children[index]);
+        while (!stack.isEmpty()) {
+            int i = stack.pop();
+            if (visited[i]) {
+                continue;
+            }
+            visited[i] = true;
+            descendants.add(current.nodes[i]);
+            pushChildren(stack, current.children[i]);
+        }
+        return descendants;
+    }
+
+    /**
+     * compile the granted privileges into bits, disabled or unknown privileges and undeclared actions are dropped.
+     *
+     * @param granted granted actions keyed by the pk of privilege, empty for the privilege itself.
+     * @return the bits.
+     */
+    public PrivilegeBits compile(Map<Long, Set<String>> granted) {
+        Snapshot current = current();
+        long[] words = new long[(current.bits + 63) >>> 6];
+        granted.forEach((id, actions) -> {
+            int index = current.indexOf(id);
+            if (index < 0 || !current.nodes[index].enabled()) {
+                return;
+            }
+            int base = current.offsets[index];
+            words[base >>> 6] |= 1L << base;
+            for (String action : actions) {
+                int slot = Arrays.binarySearch(current.actions[index], action);
+                if (slot >= 0) {
+                    int bit = base + 1 + slot;
+                    words[bit >>> 6] |= 1L << bit;
+                }
+            }
+        });
+        return new PrivilegeBits(current.version, words);
+    }
+
+    /**
+     * whether the bits were compiled against the current snapshot.
+     *
+     * @param bits the bits.
+     * @return true if current.
+     */
+    public boolean isCurrent(PrivilegeBits bits) {
+        return bits.version() == current().version;
+    }
+
+    /**
+     * decide from the compiled bits, without allocation.
+     *
+     * @param bits        the bits, must be current.
+     * @param privilegeId the pk of privilege.
+     * @param action      the action, blank for the privilege itself.
+     * @return true if granted.
+     */
+    public boolean decide(PrivilegeBits bits, Long privilegeId, String action) {
+        Snapshot current = current();
+        if (bits.version() != current.version) {
+            return false;
+        }
+        int index = current.indexOf(privilegeId);
+        if (index < 0) {
+            return false;
+        }
+        int base = current.offsets[index];
+        if (action == null || action.isBlank()) {
+            return bits.get(base);
+        }
+        int slot = Arrays.binarySearch(current.actions[index], action);
+        return slot >= 0 && bits.get(base + 1 + slot);
+    }
+
+    /**
+     * mark the snapshot stale once the surrounding transaction commits.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long expected = version.get();
+        if (current != null && current.version == expected) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            expected = version.get();
+            if (current == null || current.version != expected) {
+                current = Snapshot.of(expected, privilegeRepository.findAllByOrderByIdAsc());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private static void pushChildren(Deque<Integer> stack, int[] children) {
+        // reversed, so children are popped in pk order
+        for (int i = children.length - 1; i >= 0; i--) {
+            stack.push(children[i]);
+        }
+    }
+
+    /**
+     * nodes sorted by pk, pk to index by binary search, parent and children by index.
+     * every node owns a bit at its offset, followed by one bit per declared action in sorted order.
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final long[] ids;
+        private final PrivilegeVO[] nodes;
+        private final int[] parent;
+        private final int[][] children;
+        private final String[][] actions;
+        private final int[] offsets;
+        private final int bits;
+
+        private Snapshot(long version, long[] ids, PrivilegeVO[] nodes, int[] parent, int[][] children,
+                         String[][] actions, int[] offsets, int bits) {
+            this.version = version;
+            this.ids = ids;
+            this.nodes = nodes;
+            this.parent = parent;
+            this.children = children;
+            this.actions = actions;
+            this.offsets = offsets;
+            this.bits = bits;
+        }
+
+        private static Snapshot of(long version, List<Privilege> privileges) {
+            int size = privileges.size();
+            long[] ids = new long[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = privileges.get(i).getId();
+            }
+            // ordered by pk already, sort again in case the source is not
+            if (!isSorted(ids)) {
+                privileges = privileges.stream().sorted(Comparator.comparing(Privilege::getId)).toList();
+                for (int i = 0; i < size; i++) {
+                    ids[i] = privileges.get(i).getId();
+                }
+            }
+
+            int[] parent = new int[size];
+            int[] counts = new int[size];
+            for (int i = 0; i < size; i++) {
+                Long superiorId = privileges.get(i).getSuperiorId();
+                parent[i] = superiorId == null ? -1 : Arrays.binarySearch(ids, superiorId);
+                if (parent[i] < 0) {
+                    parent[i] = -1;
+                } else {
+                    counts[parent[i]]++;
+                }
+            }
+
+            int[][] children = new int[size][];
+            for (int i = 0; i < size; i++) {
+                children[i] = counts[i] == 0 ? EMPTY : new int[counts[i]];
+            }
+            int[] filled = new int[size];
+            // children are filled in index order, so they are sorted by pk
+            for (int i = 0; i < size; i++) {
+                if (parent[i] >= 0) {
+                    children[parent[i]][filled[parent[i]]++] = i;
+                }
+            }
+
+            PrivilegeVO[] nodes = new PrivilegeVO[size];
+            String[][] actions = new String[size][];
+            int[] offsets = new int[size];
+            int bits = 0;
+            for (int i = 0; i < size; i++) {
+                Privilege privilege = privileges.get(i);
+                Set<String> declared = privilege.getActions() == null ? Collections.emptySet() : Set.copyOf(privilege.getActions());
+                nodes[i] = new PrivilegeVO(privilege.getId(), privilege.getName(), privilege.getSuperiorId(),
+                        privilege.getPath(), privilege.getRedirect(), privilege.getComponent(), privilege.getIcon(),
+                        declared, privilege.getDescription(), privilege.isEnabled(), children[i].length);
+                actions[i] = declared.stream().sorted().toArray(String[]::new);
+                offsets[i] = bits;
+                bits += 1 + actions[i].length;
+            }
+            return new Snapshot(version, ids, nodes, parent, children, actions, offsets, bits);
+        }
+
+        private int indexOf(Long id) {
+            return id == null ? -1 : Arrays.binarySearch(ids, id);
+        }
+
+        private List<PrivilegeVO> toList(int[] indexes) {
+            PrivilegeVO[] result = new PrivilegeVO[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                result[i] = nodes[indexes[i]];
+            }
+            return List.of(result);
+        }
+
+        private static boolean isSorted(long[] ids) {
+            for (int i = 1; i < ids.length; i++) {
+                if (ids[i - 1] > ids[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * entity listener of privilege, invalidates the hierarchy on any write, imports included.
+ *
+ * @author wq li
+ */
+public class PrivilegeHierarchyListener {
+
+    private final ObjectProvider<PrivilegeHierarchy> privilegeHierarchy;
+
+    /**
+     * Constructor for PrivilegeHierarchyListener.
+     *
+     * @param privilegeHierarchy resolved lazily, the entity manager factory is built before it.
+     */
+    public PrivilegeHierarchyListener(ObjectProvider<PrivilegeHierarchy> privilegeHierarchy) {
+        this.privilegeHierarchy = privilegeHierarchy;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        privilegeHierarchy.ifAvailable(PrivilegeHierarchy::invalidate);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+import top.leafage.common.data.domain.TreeNode;
+import top.leafage.hypervisor.security.UserDetailsNotifier;
+import top.leafage.hypervisor.system.domain.GroupMembers;
+import top.leafage.hypervisor.system.domain.GroupRoles;
+import top.leafage.hypervisor.system.domain.RoleMembers;
+import top.leafage.hypervisor.system.repository.GroupMembersRepository;
+import top.leafage.hypervisor.system.repository.GroupRolesRepository;
+import top.leafage.hypervisor.system.repository.RoleMembersRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * effective privilege cache keyed by username, holding the tree and the compiled {@link PrivilegeBits}.
+ * <p>
+ * evictions are deferred until the surrounding transaction commits, so a concurrent
+ * read can not put the stale tree back before the change is visible. the auth server is told
+ * to drop its cached user details of the same users.
+ *
+ * @author wq li
+ */
+@Component
+public class PrivilegeTreeCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "privilege_tree";
+    private static final String BITS_CACHE_NAME = "privilege_bits";
+
+    private final Cache<String, List<TreeNode<@NonNull Long>>> cache;
+    private final Cache<String, PrivilegeBits> bitsCache;
+    private final GroupMembersRepository groupMembersRepository;
+    private final GroupRolesRepository groupRolesRepository;
+    private final RoleMembersRepository roleMembersRepository;
+    private final UserDetailsNotifier userDetailsNotifier;
+
+    /**
+     * Constructor for PrivilegeTreeCache.
+     *
+     * @param groupMembersRepository a {@link GroupMembersRepository} object
+     * @param groupRolesRepository   a {@link GroupRolesRepository} object
+     * @param roleMembersRepository  a {@link RoleMembersRepository} object
+     * @param userDetailsNotifier    a {@link UserDetailsNotifier} object
+     * @param maximumSize            max cached users
+     * @param expireAfterWrite       ttl of a cached tree
+     */
+    public PrivilegeTreeCache(GroupMembersRepository groupMembersRepository, GroupRolesRepository groupRolesRepository,
+                              RoleMembersRepository roleMembersRepository, UserDetailsNotifier userDetailsNotifier,
+                              @Value("${leafage.cache.privilege-tree.maximum-size:10000}") long maximumSize,
+                              @Value("${leafage.cache.privilege-tree.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        this.groupMembersRepository = groupMembersRepository;
+        this.groupRolesRepository = groupRolesRepository;
+        this.roleMembersRepository = roleMembersRepository;
+        this.userDetailsNotifier = userDetailsNotifier;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.bitsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * get the tree of the user, load it when absent.
+     *
+     * @param username username
+     * @param loader   loader
+     * @return the tree.
+     */
+    public List<TreeNode<@NonNull Long>> get(String username, Function<String, List<TreeNode<@NonNull Long>>> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * get the compiled privileges of the user, compile them when absent.
+     *
+     * @param username username
+     * @param compiler compiler
+     * @return the bits.
+     */
+    public PrivilegeBits getBits(String username, Function<String, PrivilegeBits> compiler) {
+        return bitsCache.get(username, compiler);
+    }
+
+    /**
+     * replace the compiled privileges of the user.
+     *
+     * @param username username
+     * @param bits     the bits.
+     */
+    public void putBits(String username, PrivilegeBits bits) {
+        bitsCache.put(username, bits);
+    }
+
+    /**
+     * evict the given users.
+     *
+     * @param usernames usernames
+     */
+    public void evict(Collection<String> usernames) {
+        if (CollectionUtils.isEmpty(usernames)) {
+            return;
+        }
+        Set<String> keys = Set.copyOf(usernames);
+        userDetailsNotifier.invalidate(keys);
+        afterCommit(() -> {
+            cache.invalidateAll(keys);
+            bitsCache.invalidateAll(keys);
+        });
+    }
+
+    /**
+     * evict the members of a group.
+     *
+     * @param groupId the pk of group.
+     */
+    public void evictGroup(Long groupId) {
+        evict(groupMembersRepository.findAllByGroupId(groupId).stream()
+                .map(GroupMembers::getUsername)
+                .toList());
+    }
+
+    /**
+     * evict the members of a role, both direct and through groups.
+     *
+     * @param roleId the pk of role.
+     */
+    public void evictRole(Long roleId) {
+        Set<String> usernames = new HashSet<>();
+        roleMembersRepository.findAllByRoleId(roleId).stream()
+                .map(RoleMembers::getUsername)
+                .forEach(usernames::add);
+        groupRolesRepository.findAllByRoleId(roleId).stream()
+                .map(GroupRoles::getGroupId)
+                .distinct()
+                .flatMap(groupId -> groupMembersRepository.findAllByGroupId(groupId).stream())
+                .map(GroupMembers::getUsername)
+                .forEach(usernames::add);
+        evict(usernames);
+    }
+
+    /**
+     * evict all, used when the privilege itself changed.
+     */
+    public void evictAll() {
+        userDetailsNotifier.invalidateAll();
+        afterCommit(() -> {
+            cache.invalidateAll();
+            bitsCache.invalidateAll();
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(registry, bitsCache, BITS_CACHE_NAME);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -19,9 +19,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import top.leafage.hypervisor.export.ExportResponse;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.system.domain.vo.AccessLogStatVO;
 import top.leafage.hypervisor.system.domain.vo.AccessLogVO;
 import top.leafage.hypervisor.system.service.AccessLogService;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
  * access log controller.
  *
@@ -61,6 +68,58 @@ public class AccessLogController {
         return ResponseEntity.ok(voPage);
     }
 
+    /**
+     * Retrieves the records after a cursor, the cost does not grow with the depth.
+     *
+     * @param cursor     The cursor of the previous page, empty for the first page.
+     * @param size       The number of records per page.
+     * @param sortBy     The field to sort by.
+     * @param descending Whether sorting should be in descending order.
+     * @param filters    The filters.
+     * @return A page of records with the cursor of the next page.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_access_logs')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<AccessLogVO>> seek(@RequestParam String cursor, @RequestParam int size,
+                                                        String sortBy, boolean descending, String filters) {
+        CursorPage<AccessLogVO> voPage = accessLogService.seek(cursor, size, sortBy, descending, filters);
+        return ResponseEntity.ok(voPage);
+    }
+
+    /**
+     * Streams the records matching the filters as an attachment.
+     *
+     * @param format  The format, csv or ndjson.
+     * @param gzip    Whether the body should be compressed.
+     * @param filters The filters.
+     * @return The streamed records.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_access_logs:export')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        boolean gzip, String filters) {
+        return ExportResponse.of("access_logs", format, gzip, accessLogService, filters);
+    }
+
+    /**
+     * Retrieves the access statistics from the rollups, not the raw records.
+     *
+     * @param resolution Minute or hour.
+     * @param from       Start of the range, inclusive.
+     * @param to         End of the range, exclusive, now if empty.
+     * @param urlPattern The url pattern, all if empty.
+     * @param httpMethod The http method, all if empty.
+     * @return The buckets, ordered by time.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_access_logs')")
+    @GetMapping("/stats")
+    public ResponseEntity<List<AccessLogStatVO>> stats(@RequestParam(defaultValue = "minute") String resolution,
+                                                       @RequestParam Instant from, Instant to,
+                                                       String urlPattern, String httpMethod) {
+        List<AccessLogStatVO> voList = accessLogService.stats(resolution, from, to, urlPattern, httpMethod);
+        return ResponseEntity.ok(voList);
+    }
+
     /**
      * fetch by id.
      *
@@ -89,11 +148,11 @@ public class AccessLogController {
     /**
      * 清空信息
      *
+     * @return rows deleted.
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_access_logs:clear')")
     @DeleteMapping
-    public ResponseEntity<Void> clear() {
-        accessLogService.clear();
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Long> clear() {
+        return ResponseEntity.ok(accessLogService.clear());
     }
 }
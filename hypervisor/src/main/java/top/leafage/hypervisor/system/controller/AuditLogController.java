@@ -19,6 +19,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import top.leafage.hypervisor.export.ExportResponse;
+import top.leafage.hypervisor.paging.CursorPage;
 import top.leafage.hypervisor.system.domain.vo.AuditLogVO;
 import top.leafage.hypervisor.system.service.AuditLogService;
 
@@ -61,6 +64,39 @@ public class AuditLogController {
         return ResponseEntity.ok(voPage);
     }
 
+    /**
+     * Retrieves the records after a cursor, the cost does not grow with the depth.
+     *
+     * @param cursor     The cursor of the previous page, empty for the first page.
+     * @param size       The number of records per page.
+     * @param sortBy     The field to sort by.
+     * @param descending Whether sorting should be in descending order.
+     * @param filters    The filters.
+     * @return A page of records with the cursor of the next page.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_audit_logs')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<AuditLogVO>> seek(@RequestParam String cursor, @RequestParam int size,
+                                                       String sortBy, boolean descending, String filters) {
+        CursorPage<AuditLogVO> voPage = auditLogService.seek(cursor, size, sortBy, descending, filters);
+        return ResponseEntity.ok(voPage);
+    }
+
+    /**
+     * Streams the records matching the filters as an attachment.
+     *
+     * @param format  The format, csv or ndjson.
+     * @param gzip    Whether the body should be compressed.
+     * @param filters The filters.
+     * @return The streamed records.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_audit_logs:export')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        boolean gzip, String filters) {
+        return ExportResponse.of("audit_logs", format, gzip, auditLogService, filters);
+    }
+
     /**
      * fetch by id.
      *
@@ -23,10 +23,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import top.leafage.common.data.domain.TreeNode;
 import top.leafage.common.poi.ExcelReader;
+import top.leafage.hypervisor.logging.OperationLogged;
 import top.leafage.hypervisor.system.domain.GroupMembers;
 import top.leafage.hypervisor.system.domain.GroupPrivileges;
 import top.leafage.hypervisor.system.domain.GroupRoles;
 import top.leafage.hypervisor.system.domain.dto.GroupDTO;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.domain.vo.GroupVO;
 import top.leafage.hypervisor.system.service.GroupMembersService;
 import top.leafage.hypervisor.system.service.GroupPrivilegesService;
@@ -116,6 +118,7 @@ public class GroupController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_groups:create')")
     @PostMapping
+    @OperationLogged(module = "groups", action = "create")
     public ResponseEntity<GroupVO> create(@Valid @RequestBody GroupDTO dto) {
         GroupVO vo = groupService.create(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(vo);
@@ -130,6 +133,7 @@ public class GroupController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_groups:modify')")
     @PutMapping("/{id}")
+    @OperationLogged(module = "groups", action = "modify")
     public ResponseEntity<GroupVO> modify(@PathVariable Long id, @RequestBody GroupDTO dto) {
         GroupVO vo = groupService.modify(id, dto);
         return ResponseEntity.accepted().body(vo);
@@ -142,6 +146,7 @@ public class GroupController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_groups:remove')")
     @DeleteMapping("/{id}")
+    @OperationLogged(module = "groups", action = "remove")
     public ResponseEntity<Void> remove(@PathVariable Long id) {
         groupService.remove(id);
         return ResponseEntity.noContent().build();
@@ -155,6 +160,7 @@ public class GroupController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_groups:enable')")
     @PatchMapping("/{id}")
+    @OperationLogged(module = "groups", action = "enable")
     public ResponseEntity<Boolean> enable(@PathVariable Long id) {
         boolean enabled = groupService.enable(id);
         return ResponseEntity.ok(enabled);
@@ -167,6 +173,7 @@ public class GroupController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_groups:import')")
     @PostMapping("/import")
+    @OperationLogged(module = "groups", action = "import")
     public ResponseEntity<List<GroupVO>> importFromFile(MultipartFile file) throws IOException {
         List<GroupDTO> dtoList = ExcelReader.read(file.getInputStream(), GroupDTO.class);
         List<GroupVO> voList = groupService.createAll(dtoList);
@@ -182,6 +189,7 @@ public class GroupController {
      * @return 操作结果
      */
     @PatchMapping("/{id}/members")
+    @OperationLogged(module = "groups", action = "relation_members")
     public ResponseEntity<List<GroupMembers>> relationMembers(@PathVariable Long id, @RequestBody Set<String> usernames) {
         List<GroupMembers> groupMembers = groupMembersService.relation(id, usernames);
         return ResponseEntity.ok(groupMembers);
@@ -195,6 +203,7 @@ public class GroupController {
      * @return 操作结果
      */
     @DeleteMapping("/{id}/members")
+    @OperationLogged(module = "groups", action = "remove_members")
     public ResponseEntity<Void> removeMembers(@PathVariable Long id, @RequestParam Set<String> usernames) {
         groupMembersService.removeRelation(id, usernames);
         return ResponseEntity.noContent().build();
@@ -220,6 +229,7 @@ public class GroupController {
      * @return 操作结果
      */
     @PatchMapping("/{id}/roles")
+    @OperationLogged(module = "groups", action = "relation_roles")
     public ResponseEntity<List<GroupRoles>> relationRoles(@PathVariable Long id, @RequestBody Set<Long> roleIds) {
         List<GroupRoles> groupRoles = groupRolesService.relation(id, roleIds);
         return ResponseEntity.ok(groupRoles);
@@ -245,6 +255,7 @@ public class GroupController {
      * @return 操作结果
      */
     @DeleteMapping("/{id}/roles")
+    @OperationLogged(module = "groups", action = "remove_roles")
     public ResponseEntity<Void> removeRoles(@PathVariable Long id, @RequestParam Set<Long> roleIds) {
         groupRolesService.removeRelation(id, roleIds);
         return ResponseEntity.noContent().build();
@@ -271,6 +282,7 @@ public class GroupController {
      * @return 操作结果
      */
     @PatchMapping("/{id}/privileges/{privilegeId}")
+    @OperationLogged(module = "groups", action = "relation_privileges")
     public ResponseEntity<GroupPrivileges> relationPrivileges(@PathVariable Long id, @PathVariable Long privilegeId,
                                                               String action) {
         GroupPrivileges groupPrivileges = groupPrivilegesService.relation(id, privilegeId, action);
@@ -286,10 +298,41 @@ public class GroupController {
      * @return 操作结果
      */
     @DeleteMapping("/{id}/privileges/{privilegeId}")
+    @OperationLogged(module = "groups", action = "remove_privileges")
     public ResponseEntity<Void> removePrivileges(@PathVariable Long id, @PathVariable Long privilegeId,
                                                  String action) {
         groupPrivilegesService.removeRelation(id, privilegeId, action);
 
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * 批量保存 group-privilege关联
+     *
+     * @param id     group id
+     * @param grants privilege及操作
+     * @return 操作结果
+     */
+    @PatchMapping("/{id}/privileges")
+    @OperationLogged(module = "groups", action = "relation_privileges")
+    public ResponseEntity<List<GroupPrivileges>> relationPrivileges(@PathVariable Long id,
+                                                       @RequestBody List<@Valid PrivilegeGrantDTO> grants) {
+        List<GroupPrivileges> privileges = groupPrivilegesService.relationAll(id, grants);
+        return ResponseEntity.ok(privileges);
+    }
+
+    /**
+     * 批量删除 group-privilege关联
+     *
+     * @param id     group id
+     * @param grants privilege及操作，操作为空时删除privilege
+     * @return 操作结果
+     */
+    @DeleteMapping("/{id}/privileges")
+    @OperationLogged(module = "groups", action = "remove_privileges")
+    public ResponseEntity<Void> removePrivileges(@PathVariable Long id,
+                                                 @RequestBody List<@Valid PrivilegeGrantDTO> grants) {
+        groupPrivilegesService.removeRelationAll(id, grants);
+        return ResponseEntity.noContent().build();
+    }
 }
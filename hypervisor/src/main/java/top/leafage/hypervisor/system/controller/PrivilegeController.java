@@ -22,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import top.leafage.common.data.domain.TreeNode;
 import top.leafage.common.poi.ExcelReader;
+import top.leafage.hypervisor.logging.OperationLogged;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeCheckDTO;
 import top.leafage.hypervisor.system.domain.dto.PrivilegeDTO;
 import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
 import top.leafage.hypervisor.system.service.PrivilegeService;
@@ -94,6 +96,36 @@ public class PrivilegeController {
         return ResponseEntity.ok(voList);
     }
 
+    /**
+     * 判断用户是否有权限
+     *
+     * @param id       the pk.
+     * @param username username
+     * @param action   操作，为空时判断privilege本身
+     * @return the result.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_privileges')")
+    @GetMapping("/{id}/authorize")
+    public ResponseEntity<Boolean> authorize(@PathVariable Long id, @RequestParam String username, String action) {
+        boolean authorized = privilegeService.authorize(username, id, action);
+        return ResponseEntity.ok(authorized);
+    }
+
+    /**
+     * 批量判断用户是否有权限
+     *
+     * @param username username
+     * @param checks   privilege及操作
+     * @return 与checks顺序一致的结果
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_privileges')")
+    @PostMapping("/authorize")
+    public ResponseEntity<boolean[]> authorize(@RequestParam String username,
+                                               @RequestBody List<@Valid PrivilegeCheckDTO> checks) {
+        boolean[] authorized = privilegeService.authorize(username, checks);
+        return ResponseEntity.ok(authorized);
+    }
+
     /**
      * fetch by id.
      *
@@ -116,6 +148,7 @@ public class PrivilegeController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_privileges:modify')")
     @PutMapping("/{id}")
+    @OperationLogged(module = "privileges", action = "modify")
     public ResponseEntity<PrivilegeVO> modify(@PathVariable Long id, @Valid @RequestBody PrivilegeDTO dto) {
         PrivilegeVO vo = privilegeService.modify(id, dto);
         return ResponseEntity.accepted().body(vo);
@@ -129,6 +162,7 @@ public class PrivilegeController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_privileges:enable')")
     @PatchMapping("/{id}")
+    @OperationLogged(module = "privileges", action = "enable")
     public ResponseEntity<Boolean> enable(@PathVariable Long id) {
         boolean enabled = privilegeService.enable(id);
         return ResponseEntity.ok(enabled);
@@ -141,6 +175,7 @@ public class PrivilegeController {
      */
     @PreAuthorize("hasAuthority('SCOPE_privileges:import')")
     @PostMapping("/import")
+    @OperationLogged(module = "privileges", action = "import")
     public ResponseEntity<List<PrivilegeVO>> importFromFile(MultipartFile file) throws IOException {
         List<PrivilegeDTO> dtoList = ExcelReader.read(file.getInputStream(), PrivilegeDTO.class);
         List<PrivilegeVO> voList = privilegeService.createAll(dtoList);
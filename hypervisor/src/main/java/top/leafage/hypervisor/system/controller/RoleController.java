@@ -22,8 +22,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import top.leafage.common.poi.ExcelReader;
+import top.leafage.hypervisor.logging.OperationLogged;
 import top.leafage.hypervisor.system.domain.RoleMembers;
 import top.leafage.hypervisor.system.domain.RolePrivileges;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.domain.dto.RoleDTO;
 import top.leafage.hypervisor.system.domain.vo.RoleVO;
 import top.leafage.hypervisor.system.service.RoleMembersService;
@@ -100,6 +102,7 @@ public class RoleController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_roles:create')")
     @PostMapping
+    @OperationLogged(module = "roles", action = "create")
     public ResponseEntity<RoleVO> create(@Valid @RequestBody RoleDTO dto) {
         RoleVO vo = roleService.create(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(vo);
@@ -114,6 +117,7 @@ public class RoleController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_roles:modify')")
     @PutMapping("/{id}")
+    @OperationLogged(module = "roles", action = "modify")
     public ResponseEntity<RoleVO> modify(@PathVariable Long id, @Valid @RequestBody RoleDTO dto) {
         RoleVO vo = roleService.modify(id, dto);
         return ResponseEntity.accepted().body(vo);
@@ -126,6 +130,7 @@ public class RoleController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_roles:remove')")
     @DeleteMapping("/{id}")
+    @OperationLogged(module = "roles", action = "remove")
     public ResponseEntity<Void> remove(@PathVariable Long id) {
         roleService.remove(id);
         return ResponseEntity.noContent().build();
@@ -139,6 +144,7 @@ public class RoleController {
      */
     @PreAuthorize("hasAuthority('SCOPE_roles:enable')")
     @PatchMapping("/{id}")
+    @OperationLogged(module = "roles", action = "enable")
     public ResponseEntity<Boolean> enable(@PathVariable Long id) {
         boolean enabled = roleService.enable(id);
         return ResponseEntity.ok(enabled);
@@ -151,6 +157,7 @@ public class RoleController {
      */
     @PreAuthorize("hasAuthority('SCOPE_roles:import')")
     @PostMapping("/import")
+    @OperationLogged(module = "roles", action = "import")
     public ResponseEntity<List<RoleVO>> importFromFile(MultipartFile file) throws IOException {
         List<RoleDTO> dtoList = ExcelReader.read(file.getInputStream(), RoleDTO.class);
         List<RoleVO> voList = roleService.createAll(dtoList);
@@ -166,6 +173,7 @@ public class RoleController {
      * @return 操作结果
      */
     @PatchMapping("/{id}/members")
+    @OperationLogged(module = "roles", action = "relation_members")
     public ResponseEntity<List<RoleMembers>> relationMembers(@PathVariable Long id, @RequestBody Set<String> usernames) {
         List<RoleMembers> roleMembers = roleMembersService.relation(id, usernames);
         return ResponseEntity.ok(roleMembers);
@@ -179,6 +187,7 @@ public class RoleController {
      * @return 操作结果
      */
     @DeleteMapping("/{id}/members")
+    @OperationLogged(module = "roles", action = "remove_members")
     public ResponseEntity<Void> removeMembers(@PathVariable Long id, @RequestParam Set<String> usernames) {
         roleMembersService.removeRelation(id, usernames);
         return ResponseEntity.noContent().build();
@@ -205,6 +214,7 @@ public class RoleController {
      * @return 操作结果
      */
     @PatchMapping("/{id}/privileges/{privilegeId}")
+    @OperationLogged(module = "roles", action = "relation_privileges")
     public ResponseEntity<RolePrivileges> relationPrivileges(@PathVariable Long id, @PathVariable Long privilegeId,
                                                              String action) {
         RolePrivileges rolePrivilege = rolePrivilegesService.relation(id, privilegeId, action);
@@ -232,9 +242,40 @@ public class RoleController {
      * @return 操作结果
      */
     @DeleteMapping("/{id}/privileges/{privilegeId}")
+    @OperationLogged(module = "roles", action = "remove_privileges")
     public ResponseEntity<Void> removePrivileges(@PathVariable Long id, @PathVariable Long privilegeId,
                                                  String action) {
         rolePrivilegesService.removeRelation(id, privilegeId, action);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * 批量保存 role-privilege关联
+     *
+     * @param id     role id
+     * @param grants privilege及操作
+     * @return 操作结果
+     */
+    @PatchMapping("/{id}/privileges")
+    @OperationLogged(module = "roles", action = "relation_privileges")
+    public ResponseEntity<List<RolePrivileges>> relationPrivileges(@PathVariable Long id,
+                                                       @RequestBody List<@Valid PrivilegeGrantDTO> grants) {
+        List<RolePrivileges> privileges = rolePrivilegesService.relationAll(id, grants);
+        return ResponseEntity.ok(privileges);
+    }
+
+    /**
+     * 批量删除 role-privilege关联
+     *
+     * @param id     role id
+     * @param grants privilege及操作，操作为空时删除privilege
+     * @return 操作结果
+     */
+    @DeleteMapping("/{id}/privileges")
+    @OperationLogged(module = "roles", action = "remove_privileges")
+    public ResponseEntity<Void> removePrivileges(@PathVariable Long id,
+                                                 @RequestBody List<@Valid PrivilegeGrantDTO> grants) {
+        rolePrivilegesService.removeRelationAll(id, grants);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -19,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import top.leafage.hypervisor.paging.CursorPage;
 import top.leafage.hypervisor.system.domain.vo.SchedulerLogVO;
 import top.leafage.hypervisor.system.service.SchedulerLogService;
 
@@ -55,6 +56,24 @@ public class SchedulerLogController {
         return ResponseEntity.ok(voPage);
     }
 
+    /**
+     * Retrieves the records after a cursor, the cost does not grow with the depth.
+     *
+     * @param cursor     The cursor of the previous page, empty for the first page.
+     * @param size       The number of records per page.
+     * @param sortBy     The field to sort by.
+     * @param descending Whether sorting should be in descending order.
+     * @param filters    The filters.
+     * @return A page of records with the cursor of the next page.
+     */
+    @PreAuthorize("hasAuthority('SCOPE_scheduler_logs')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<SchedulerLogVO>> seek(@RequestParam String cursor, @RequestParam int size,
+                                                           String sortBy, boolean descending, String filters) {
+        CursorPage<SchedulerLogVO> voPage = schedulerLogService.seek(cursor, size, sortBy, descending, filters);
+        return ResponseEntity.ok(voPage);
+    }
+
     /**
      * Fetches a record by ID.
      *
@@ -84,12 +103,12 @@ public class SchedulerLogController {
     /**
      * 清空信息
      *
+     * @return rows deleted.
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_operation_logs:clear')")
     @DeleteMapping
-    public ResponseEntity<Void> clear() {
-        schedulerLogService.clear();
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Long> clear() {
+        return ResponseEntity.ok(schedulerLogService.clear());
     }
 
 }
@@ -21,7 +21,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import top.leafage.common.poi.ExcelReader;
+import top.leafage.hypervisor.export.ExportResponse;
+import top.leafage.hypervisor.logging.OperationLogged;
+import top.leafage.hypervisor.paging.CursorPage;
 import top.leafage.hypervisor.system.domain.dto.UserDTO;
 import top.leafage.hypervisor.system.domain.vo.UserVO;
 import top.leafage.hypervisor.system.service.UserService;
@@ -67,6 +71,40 @@ public class UserController {
         return ResponseEntity.ok(voPage);
     }
 
+    /**
+     * Retrieves the records after a cursor, the cost does not grow with the depth.
+     *
+     * @param cursor     The cursor of the previous page, empty for the first page.
+     * @param size       The number of records per page.
+     * @param sortBy     The field to sort by.
+     * @param descending Whether sorting should be in descending order.
+     * @param filters    The filters.
+     * @return A page of records with the cursor of the next page.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<UserVO>> seek(@RequestParam String cursor, @RequestParam int size,
+                                                   String sortBy, boolean descending, String filters) {
+        CursorPage<UserVO> voPage = userService.seek(cursor, size, sortBy, descending, filters);
+        return ResponseEntity.ok(voPage);
+    }
+
+    /**
+     * Streams the records matching the filters as an attachment.
+     *
+     * @param format  The format, csv or ndjson.
+     * @param gzip    Whether the body should be compressed.
+     * @param filters The filters.
+     * @return The streamed records.
+     */
+    @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:export')")
+    @GetMapping("/export")
+    @OperationLogged(module = "users", action = "export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        boolean gzip, String filters) {
+        return ExportResponse.of("users", format, gzip, userService, filters);
+    }
+
     /**
      * fetch by id.
      *
@@ -88,6 +126,7 @@ public class UserController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:create')")
     @PostMapping
+    @OperationLogged(module = "users", action = "create")
     public ResponseEntity<UserVO> create(@Valid @RequestBody UserDTO dto) {
         UserVO vo = userService.create(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(vo);
@@ -102,6 +141,7 @@ public class UserController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:modify')")
     @PutMapping("/{id}")
+    @OperationLogged(module = "users", action = "modify")
     public ResponseEntity<UserVO> modify(@PathVariable Long id,
                                          @Valid @RequestBody UserDTO dto) {
         UserVO vo = userService.modify(id, dto);
@@ -116,6 +156,7 @@ public class UserController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:enable')")
     @PatchMapping("/{id}")
+    @OperationLogged(module = "users", action = "enable")
     public ResponseEntity<Boolean> enable(@PathVariable Long id) {
         boolean enabled = userService.enable(id);
         return ResponseEntity.ok(enabled);
@@ -129,6 +170,7 @@ public class UserController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:unlock')")
     @PatchMapping("/{id}/unlock")
+    @OperationLogged(module = "users", action = "unlock")
     public ResponseEntity<Boolean> unlock(@PathVariable Long id) {
         boolean unlock = userService.unlock(id);
         return ResponseEntity.ok(unlock);
@@ -142,6 +184,7 @@ public class UserController {
      */
     @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:remove')")
     @DeleteMapping("/{id}")
+    @OperationLogged(module = "users", action = "remove")
     public ResponseEntity<Void> remove(@PathVariable Long id) {
         userService.remove(id);
         return ResponseEntity.noContent().build();
@@ -155,6 +198,7 @@ public class UserController {
      */
     @PreAuthorize("hasAuthority('SCOPE_users:import')")
     @PostMapping("/import")
+    @OperationLogged(module = "users", action = "import")
     public ResponseEntity<List<UserVO>> importFromFile(MultipartFile file) throws IOException {
         List<UserDTO> dtoList = ExcelReader.read(file.getInputStream(), UserDTO.class);
         List<UserVO> voList = userService.createAll(dtoList);
@@ -38,6 +38,8 @@ public class AccessLog extends JpaAbstractAuditable<@NonNull String, @NonNull Lo
 
     private String url;
 
+    private String urlPattern;
+
     private String httpMethod;
 
     @Column(columnDefinition = "inet")
@@ -62,6 +64,14 @@ public class AccessLog extends JpaAbstractAuditable<@NonNull String, @NonNull Lo
         this.url = url;
     }
 
+    public String getUrlPattern() {
+        return urlPattern;
+    }
+
+    public void setUrlPattern(String urlPattern) {
+        this.urlPattern = urlPattern;
+    }
+
     public String getHttpMethod() {
         return httpMethod;
     }
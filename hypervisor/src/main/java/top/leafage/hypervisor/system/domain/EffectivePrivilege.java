@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.domain;
+
+/**
+ * projection of a privilege resolved for a user, with the merged granted actions.
+ *
+ * @author wq li
+ */
+public interface EffectivePrivilege {
+
+    Long getId();
+
+    Long getSuperiorId();
+
+    String getName();
+
+    String getPath();
+
+    String getRedirect();
+
+    String getComponent();
+
+    String getIcon();
+
+    String getDescription();
+
+    /**
+     * granted actions, comma separated, null for superiors not granted directly.
+     *
+     * @return the actions.
+     */
+    String getActions();
+}
@@ -18,6 +18,7 @@ package top.leafage.hypervisor.system.domain;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
@@ -27,7 +28,7 @@ import org.springframework.data.jpa.domain.AbstractPersistable;
  * @author wq li
  */
 @Entity
-@Table(name = "group_authorities")
+@Table(name = "group_authorities", uniqueConstraints = @UniqueConstraint(name = "ux_group_authorities", columnNames = {"group_id", "authority"}))
 public class GroupAuthorities extends AbstractPersistable<@NonNull Long> {
 
     @Column(nullable = false)
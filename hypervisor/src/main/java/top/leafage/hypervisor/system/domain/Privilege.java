@@ -18,6 +18,7 @@ import jakarta.persistence.*;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import top.leafage.common.data.jpa.domain.JpaAbstractAuditable;
+import top.leafage.hypervisor.system.cache.PrivilegeHierarchyListener;
 
 import java.util.Set;
 
@@ -27,7 +28,7 @@ import java.util.Set;
  * @author wq li
  */
 @Entity
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrivilegeHierarchyListener.class})
 @Table(name = "privileges")
 public class Privilege extends JpaAbstractAuditable<@NonNull String, @NonNull Long> {
 
@@ -67,6 +68,18 @@ public class Privilege extends JpaAbstractAuditable<@NonNull String, @NonNull Lo
         this.description = description;
     }
 
+    public Privilege(Long id, String name, Long superiorId, String path, String redirect, String component, String icon, Set<String> actions, String description) {
+        this.setId(id);
+        this.name = name;
+        this.superiorId = superiorId;
+        this.path = path;
+        this.redirect = redirect;
+        this.component = component;
+        this.icon = icon;
+        this.actions = actions;
+        this.description = description;
+    }
+
     public String getName() {
         return name;
     }
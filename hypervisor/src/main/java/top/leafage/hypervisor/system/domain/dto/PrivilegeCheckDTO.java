@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.domain.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * dto class for privilege check, empty action means the privilege itself.
+ *
+ * @author wq li
+ */
+public class PrivilegeCheckDTO {
+
+    @NotNull
+    private Long privilegeId;
+
+    private String action;
+
+    public PrivilegeCheckDTO() {
+    }
+
+    public PrivilegeCheckDTO(Long privilegeId, String action) {
+        this.privilegeId = privilegeId;
+        this.action = action;
+    }
+
+    public Long getPrivilegeId() {
+        return privilegeId;
+    }
+
+    public void setPrivilegeId(Long privilegeId) {
+        this.privilegeId = privilegeId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.hypervisor.system.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Set;
+
+/**
+ * dto class for privilege grant, empty actions means the privilege itself.
+ *
+ * @author wq li
+ */
+public class PrivilegeGrantDTO {
+
+    @NotNull
+    private Long privilegeId;
+
+    private Set<@NotBlank String> actions;
+
+    public PrivilegeGrantDTO() {
+    }
+
+    public PrivilegeGrantDTO(Long privilegeId, Set<String> actions) {
+        this.privilegeId = privilegeId;
+        this.actions = actions;
+    }
+
+    public Long getPrivilegeId() {
+        return privilegeId;
+    }
+
+    public void setPrivilegeId(Long privilegeId) {
+        this.privilegeId = privilegeId;
+    }
+
+    public Set<String> getActions() {
+        return actions;
+    }
+
+    public void setActions(Set<String> actions) {
+        this.actions = actions;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.domain.vo;
+
+import top.leafage.hypervisor.logging.AccessLogStat;
+import top.leafage.hypervisor.logging.LatencyHistogram;
+
+import java.time.Instant;
+
+/**
+ * vo class for access statistics, durations in milliseconds.
+ *
+ * @author wq li
+ */
+public record AccessLogStatVO(
+        Instant bucket,
+        String urlPattern,
+        String httpMethod,
+        int statusClass,
+        long count,
+        long errorCount,
+        long avg,
+        long max,
+        long p50,
+        long p95,
+        long p99
+) {
+    public static AccessLogStatVO from(AccessLogStat stat) {
+        long[] histogram = stat.histogram();
+        long max = stat.durationMax();
+        return new AccessLogStatVO(
+                stat.bucket(),
+                stat.urlPattern(),
+                stat.httpMethod(),
+                stat.statusClass(),
+                stat.count(),
+                stat.errorCount(),
+                stat.count() == 0 ? 0 : stat.durationSum() / stat.count(),
+                max,
+                LatencyHistogram.percentile(histogram, 0.5, max),
+                LatencyHistogram.percentile(histogram, 0.95, max),
+                LatencyHistogram.percentile(histogram, 0.99, max)
+        );
+    }
+}
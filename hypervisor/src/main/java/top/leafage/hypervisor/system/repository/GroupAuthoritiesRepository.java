@@ -16,9 +16,14 @@
 package top.leafage.hypervisor.system.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import top.leafage.hypervisor.system.domain.GroupAuthorities;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,6 +34,34 @@ import java.util.Optional;
 @Repository
 public interface GroupAuthoritiesRepository extends JpaRepository<GroupAuthorities, Long> {
 
+    /**
+     * expected authorities of the groups, from group privileges and the privileges of group roles.
+     */
+    String EXPECTED_AUTHORITIES = """
+            WITH granted (group_id, privilege_id, action) AS (
+                SELECT gp.group_id, gp.privilege_id, gpa.actions
+                FROM group_privileges gp
+                         LEFT JOIN group_privilege_actions gpa ON gpa.group_privilege_id = gp.id
+                WHERE gp.group_id = ANY(CAST(:groupIds AS bigint[]))
+                UNION ALL
+                SELECT gr.group_id, rp.privilege_id, rpa.actions
+                FROM group_roles gr
+                         JOIN role_privileges rp ON rp.role_id = gr.role_id
+                         LEFT JOIN role_privilege_actions rpa ON rpa.role_privilege_id = rp.id
+                WHERE gr.group_id = ANY(CAST(:groupIds AS bigint[]))
+            ),
+            expected (group_id, authority) AS (
+                SELECT g.group_id, p.name
+                FROM granted g
+                         JOIN privileges p ON p.id = g.privilege_id
+                UNION
+                SELECT g.group_id, p.name || ':' || g.action
+                FROM granted g
+                         JOIN privileges p ON p.id = g.privilege_id
+                WHERE g.action IS NOT NULL
+            )
+            """;
+
     /**
      * find by group id and authority.
      *
@@ -47,10 +80,107 @@ public interface GroupAuthoritiesRepository extends JpaRepository<GroupAuthoriti
     void deleteByGroupIdAndAuthority(Long groupId, String authority);
 
     /**
-     * delete by group id and authority start with.
+     * insert every group and authority pair in one statement, skip existing ones.
      *
-     * @param groupId   the pk of group.
-     * @param authority the authority.
+     * @param groupIds    the pks of group.
+     * @param authorities the authorities.
+     * @return inserted rows.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO group_authorities (group_id, authority)
+            SELECT g.id, a.authority
+            FROM unnest(CAST(:groupIds AS bigint[])) AS g(id)
+                     CROSS JOIN unnest(CAST(:authorities AS varchar[])) AS a(authority)
+            ON CONFLICT (group_id, authority) DO NOTHING
+            """, nativeQuery = true)
+    int insertAllIgnoreConflicts(Long[] groupIds, String[] authorities);
+
+    /**
+     * delete every group and authority pair in one statement, keep the ones still granted by another
+     * group privilege or group role.
+     *
+     * @param groupIds    the pks of group.
+     * @param authorities the authorities.
+     * @return deleted rows.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = EXPECTED_AUTHORITIES + """
+            DELETE FROM group_authorities ga
+            WHERE ga.group_id = ANY(CAST(:groupIds AS bigint[]))
+              AND ga.authority = ANY(CAST(:authorities AS varchar[]))
+              AND NOT EXISTS (SELECT 1
+                              FROM expected e
+                              WHERE e.group_id = ga.group_id
+                                AND e.authority = ga.authority)
+            """, nativeQuery = true)
+    int deleteAllByGroupIdInAndAuthorityIn(Long[] groupIds, String[] authorities);
+
+    /**
+     * grant the authorities to the groups.
+     *
+     * @param groupIds    the pks of group.
+     * @param authorities the authorities.
+     * @return inserted rows.
+     */
+    default int grant(Collection<Long> groupIds, Collection<String> authorities) {
+        if (groupIds.isEmpty() || authorities.isEmpty()) {
+            return 0;
+        }
+        return insertAllIgnoreConflicts(groupIds.toArray(Long[]::new), authorities.toArray(String[]::new));
+    }
+
+    /**
+     * revoke the authorities from the groups, the grant they came from must be removed first.
+     * <p>
+     * an authority a group also gets from another privilege grant or role is kept.
+     *
+     * @param groupIds    the pks of group.
+     * @param authorities the authorities.
+     * @return deleted rows.
+     */
+    default int revoke(Collection<Long> groupIds, Collection<String> authorities) {
+        if (groupIds.isEmpty() || authorities.isEmpty()) {
+            return 0;
+        }
+        return deleteAllByGroupIdInAndAuthorityIn(groupIds.toArray(Long[]::new), authorities.toArray(String[]::new));
+    }
+
+    /**
+     * insert the expected authorities missing for the groups.
+     *
+     * @param groupIds the pks of group.
+     * @return the pk of group of every inserted row.
+     */
+    @Transactional
+    @Query(value = EXPECTED_AUTHORITIES + """
+            INSERT INTO group_authorities (group_id, authority)
+            SELECT e.group_id, e.authority
+            FROM expected e
+            WHERE NOT EXISTS (SELECT 1
+                              FROM group_authorities ga
+                              WHERE ga.group_id = e.group_id
+                                AND ga.authority = e.authority)
+            ON CONFLICT (group_id, authority) DO NOTHING
+            RETURNING group_id
+            """, nativeQuery = true)
+    List<Long> insertMissingByGroupIdIn(Long[] groupIds);
+
+    /**
+     * delete the authorities of the groups which are no longer expected.
+     *
+     * @param groupIds the pks of group.
+     * @return the pk of group of every deleted row.
      */
-    void deleteByGroupIdAndAuthorityStartingWith(Long groupId, String authority);
+    @Transactional
+    @Query(value = EXPECTED_AUTHORITIES + """
+            DELETE FROM group_authorities ga
+            WHERE ga.group_id = ANY(CAST(:groupIds AS bigint[]))
+              AND NOT EXISTS (SELECT 1
+                              FROM expected e
+                              WHERE e.group_id = ga.group_id
+                                AND e.authority = ga.authority)
+            RETURNING ga.group_id
+            """, nativeQuery = true)
+    List<Long> deleteUnexpectedByGroupIdIn(Long[] groupIds);
 }
@@ -14,10 +14,12 @@
  */
 package top.leafage.hypervisor.system.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import top.leafage.hypervisor.system.domain.GroupPrivileges;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +55,14 @@ public interface GroupPrivilegesRepository extends JpaRepository<GroupPrivileges
      */
     List<GroupPrivileges> findAllByPrivilegeId(Long privilegeId);
 
+    /**
+     * find by group id and privilege ids, with actions fetched.
+     *
+     * @param groupId      the pk of group.
+     * @param privilegeIds the pks of privilege.
+     * @return the result.
+     */
+    @EntityGraph(attributePaths = "actions")
+    List<GroupPrivileges> findAllByGroupIdAndPrivilegeIdIn(Long groupId, Collection<Long> privilegeIds);
+
 }
@@ -14,13 +14,15 @@
  */
 package top.leafage.hypervisor.system.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import top.leafage.hypervisor.system.domain.Group;
 
+import java.util.List;
+
 /**
  * group repository.
  *
@@ -38,12 +40,12 @@ public interface GroupRepository extends JpaRepository<Group, Long>, JpaSpecific
     boolean existsByName(String name);
 
     /**
-     * enable a record by pk.
+     * find the pks after the given one, in ascending order.
      *
-     * @param id the pk.
-     * @return result.
+     * @param id    the last pk of the previous chunk.
+     * @param limit chunk size.
+     * @return the pks.
      */
-    @Modifying
-    @Query("UPDATE Group t SET t.enabled = CASE WHEN t.enabled = true THEN false ELSE true END WHERE t.id = :id")
-    int updateEnabledById(Long id);
+    @Query("SELECT t.id FROM Group t WHERE t.id > :id ORDER BY t.id")
+    List<Long> findIdByIdGreaterThan(Long id, Limit limit);
 }
@@ -14,14 +14,16 @@
  */
 package top.leafage.hypervisor.system.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import top.leafage.hypervisor.system.domain.EffectivePrivilege;
 import top.leafage.hypervisor.system.domain.Privilege;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * privilege repository.
@@ -47,6 +49,14 @@ public interface PrivilegeRepository extends JpaRepository<Privilege, Long>, Jpa
      */
     List<Privilege> findAllBySuperiorId(Long superiorId);
 
+    /**
+     * Finds all privileges with actions in one query, ordered by ID.
+     *
+     * @return A list of privileges.
+     */
+    @EntityGraph(attributePaths = "actions")
+    List<Privilege> findAllByOrderByIdAsc();
+
     /**
      * Counts the number of records by superior ID.
      *
@@ -56,12 +66,148 @@ public interface PrivilegeRepository extends JpaRepository<Privilege, Long>, Jpa
     long countBySuperiorId(Long superiorId);
 
     /**
-     * enable a record by pk.
+     * Counts the number of records of each superior ID in one statement.
+     *
+     * @param superiorIds The superior IDs.
+     * @return rows of superior ID and count.
+     */
+    @Query("SELECT t.superiorId, COUNT(t) FROM Privilege t WHERE t.superiorId IN :superiorIds GROUP BY t.superiorId")
+    List<Object[]> countGroupBySuperiorIdIn(Collection<Long> superiorIds);
+
+    /**
+     * Counts the number of records by superior IDs.
+     *
+     * @param superiorIds The superior IDs.
+     * @return The count of records keyed by superior ID, absent when zero.
+     */
+    default Map<Long, Long> countBySuperiorIdIn(Collection<Long> superiorIds) {
+        if (superiorIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return countGroupBySuperiorIdIn(superiorIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
+    /**
+     * find the privileges and actions granted to a user, through groups, group roles and roles.
+     *
+     * @param username username.
+     * @return rows of privilege ID and action, action is null for the privilege itself.
+     */
+    @Query(value = """
+            SELECT gp.privilege_id, gpa.actions
+            FROM group_members gm
+                     JOIN group_privileges gp ON gp.group_id = gm.group_id
+                     LEFT JOIN group_privilege_actions gpa ON gpa.group_privilege_id = gp.id
+            WHERE gm.username = :username
+            UNION
+            SELECT rp.privilege_id, rpa.actions
+            FROM group_members gm
+                     JOIN group_roles gr ON gr.group_id = gm.group_id
+                     JOIN role_privileges rp ON rp.role_id = gr.role_id
+                     LEFT JOIN role_privilege_actions rpa ON rpa.role_privilege_id = rp.id
+            WHERE gm.username = :username
+            UNION
+            SELECT rp.privilege_id, rpa.actions
+            FROM role_members rm
+                     JOIN role_privileges rp ON rp.role_id = rm.role_id
+                     LEFT JOIN role_privilege_actions rpa ON rpa.role_privilege_id = rp.id
+            WHERE rm.username = :username
+            """, nativeQuery = true)
+    List<Object[]> findGrantedRowsByUsername(String username);
+
+    /**
+     * find the privileges and actions granted to a user.
+     *
+     * @param username username.
+     * @return granted actions keyed by privilege ID, empty when only the privilege itself is granted.
+     */
+    default Map<Long, Set<String>> findGrantedByUsername(String username) {
+        Map<Long, Set<String>> granted = new HashMap<>();
+        findGrantedRowsByUsername(username).forEach(row -> {
+            Set<String> actions = granted.computeIfAbsent(((Number) row[0]).longValue(), k -> new HashSet<>());
+            if (row[1] != null) {
+                actions.add((String) row[1]);
+            }
+        });
+        return granted;
+    }
+
+    /**
+     * resolve the enabled privileges granted to a user, through groups, group roles and roles,
+     * together with all of their enabled superiors, in one round trip.
+     *
+     * @param username username.
+     * @return the privileges with merged actions.
+     */
+    @Query(value = """
+            WITH RECURSIVE granted (privilege_id, action) AS (
+                SELECT gp.privilege_id, gpa.actions
+                FROM group_members gm
+                         JOIN group_privileges gp ON gp.group_id = gm.group_id
+                         LEFT JOIN group_privilege_actions gpa ON gpa.group_privilege_id = gp.id
+                WHERE gm.username = :username
+                UNION ALL
+                SELECT rp.privilege_id, rpa.actions
+                FROM group_members gm
+                         JOIN group_roles gr ON gr.group_id = gm.group_id
+                         JOIN role_privileges rp ON rp.role_id = gr.role_id
+                         LEFT JOIN role_privilege_actions rpa ON rpa.role_privilege_id = rp.id
+                WHERE gm.username = :username
+                UNION ALL
+                SELECT rp.privilege_id, rpa.actions
+                FROM role_members rm
+                         JOIN role_privileges rp ON rp.role_id = rm.role_id
+                         LEFT JOIN role_privilege_actions rpa ON rpa.role_privilege_id = rp.id
+                WHERE rm.username = :username
+            ),
+            tree (id, superior_id) AS (
+                SELECT p.id, p.superior_id
+                FROM privileges p
+                WHERE p.enabled
+                  AND p.id IN (SELECT privilege_id FROM granted)
+                UNION
+                SELECT p.id, p.superior_id
+                FROM privileges p
+                         JOIN tree t ON p.id = t.superior_id
+                WHERE p.enabled
+            )
+            SELECT p.id                                AS "id",
+                   p.superior_id                       AS "superiorId",
+                   p.name                              AS "name",
+                   p.path                              AS "path",
+                   p.redirect                          AS "redirect",
+                   p.component                         AS "component",
+                   p.icon                              AS "icon",
+                   p.description                       AS "description",
+                   string_agg(DISTINCT g.action, ',') AS "actions"
+            FROM tree t
+                     JOIN privileges p ON p.id = t.id
+                     LEFT JOIN granted g ON g.privilege_id = p.id
+            GROUP BY p.id
+            """, nativeQuery = true)
+    List<EffectivePrivilege> findAllEffectiveByUsername(String username);
+
+    /**
+     * Finds the names of the given IDs, without loading the actions.
+     *
+     * @param ids The IDs.
+     * @return rows of ID and name.
+     */
+    @Query("SELECT t.id, t.name FROM Privilege t WHERE t.id IN :ids")
+    List<Object[]> findIdAndNameByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds the names of the given IDs.
      *
-     * @param id the pk.
-     * @return result.
+     * @param ids The IDs.
+     * @return The names keyed by ID, absent when not found.
      */
-    @Modifying
-    @Query("UPDATE Privilege t SET t.enabled = CASE WHEN t.enabled = true THEN false ELSE true END WHERE t.id = :id")
-    int updateEnabledById(Long id);
+    default Map<Long, String> findNamesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return findIdAndNameByIdIn(ids).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (String) row[1]));
+    }
 }
@@ -14,10 +14,12 @@
  */
 package top.leafage.hypervisor.system.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import top.leafage.hypervisor.system.domain.RolePrivileges;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +55,14 @@ public interface RolePrivilegesRepository extends JpaRepository<RolePrivileges,
      */
     List<RolePrivileges> findAllByPrivilegeId(Long privilegeId);
 
+    /**
+     * find by role id and privilege ids, with actions fetched.
+     *
+     * @param roleId       the pk of role.
+     * @param privilegeIds the pks of privilege.
+     * @return the result.
+     */
+    @EntityGraph(attributePaths = "actions")
+    List<RolePrivileges> findAllByRoleIdAndPrivilegeIdIn(Long roleId, Collection<Long> privilegeIds);
+
 }
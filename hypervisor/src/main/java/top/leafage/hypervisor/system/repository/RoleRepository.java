@@ -16,8 +16,6 @@ package top.leafage.hypervisor.system.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import top.leafage.hypervisor.system.domain.Role;
 
@@ -36,14 +34,4 @@ public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificat
      * @return if exists return true or false.
      */
     boolean existsByName(String name);
-
-    /**
-     * enable a record by pk.
-     *
-     * @param id the pk.
-     * @return result.
-     */
-    @Modifying
-    @Query("UPDATE Role t SET t.enabled = CASE WHEN t.enabled = true THEN false ELSE true END WHERE t.id = :id")
-    int updateEnabledById(Long id);
 }
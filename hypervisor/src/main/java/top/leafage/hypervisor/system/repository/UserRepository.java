@@ -16,8 +16,6 @@ package top.leafage.hypervisor.system.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import top.leafage.hypervisor.system.domain.User;
 
@@ -44,24 +42,4 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      * @return if exists return true or false.
      */
     boolean existsByEmail(String email);
-
-    /**
-     * enable a record by pk.
-     *
-     * @param id the pk.
-     * @return result.
-     */
-    @Modifying
-    @Query("UPDATE User t SET t.enabled = CASE WHEN t.enabled = true THEN false ELSE true END WHERE t.id = :id")
-    int updateEnabledById(Long id);
-
-    /**
-     * update the accountNonLocked to true by pk.
-     *
-     * @param id the pk.
-     * @return result.
-     */
-    @Modifying
-    @Query("UPDATE User t SET t.accountNonLocked = true WHERE t.id = :id")
-    int updateAccountNonLockedById(Long id);
 }
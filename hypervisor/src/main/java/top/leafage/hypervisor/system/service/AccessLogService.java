@@ -16,17 +16,38 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.export.ExportableService;
+import top.leafage.hypervisor.paging.SeekableService;
+import top.leafage.hypervisor.system.domain.vo.AccessLogStatVO;
 import top.leafage.hypervisor.system.domain.vo.AccessLogVO;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
  * access log service.
  *
  * @author wq li
  */
-public interface AccessLogService extends JpaCrudService<Object, AccessLogVO> {
+public interface AccessLogService extends JpaCrudService<Object, AccessLogVO>, SeekableService<AccessLogVO>,
+        ExportableService {
 
     /**
      * 清空日志
+     *
+     * @return rows deleted.
+     */
+    long clear();
+
+    /**
+     * 查询访问统计
+     *
+     * @param resolution minute or hour.
+     * @param from       start of the range, inclusive.
+     * @param to         end of the range, exclusive.
+     * @param urlPattern the url pattern, all if empty.
+     * @param httpMethod the http method, all if empty.
+     * @return the buckets, ordered by time.
      */
-    void clear();
+    List<AccessLogStatVO> stats(String resolution, Instant from, Instant to, String urlPattern, String httpMethod);
 }
@@ -16,6 +16,8 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.export.ExportableService;
+import top.leafage.hypervisor.paging.SeekableService;
 import top.leafage.hypervisor.system.domain.vo.AuditLogVO;
 
 /**
@@ -23,6 +25,7 @@ import top.leafage.hypervisor.system.domain.vo.AuditLogVO;
  *
  * @author wq li
  */
-public interface AuditLogService extends JpaCrudService<Object, AuditLogVO> {
+public interface AuditLogService extends JpaCrudService<Object, AuditLogVO>, SeekableService<AuditLogVO>,
+        ExportableService {
 
 }
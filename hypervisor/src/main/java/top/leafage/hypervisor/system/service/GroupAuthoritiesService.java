@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.service;
+
+import top.leafage.hypervisor.system.domain.vo.ReconcileVO;
+
+/**
+ * group authorities service.
+ *
+ * @author wq li
+ */
+public interface GroupAuthoritiesService {
+
+    /**
+     * 根据group-role、role-privilege、group-privilege关系重新计算group authorities，只写入差异
+     *
+     * @return 处理的group数、新增及删除的行数和耗时
+     */
+    ReconcileVO reconcile();
+}
@@ -16,6 +16,7 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.hypervisor.system.domain.GroupPrivileges;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 
 import java.util.List;
 
@@ -60,4 +61,21 @@ public interface GroupPrivilegesService {
      * @param action      操作
      */
     void removeRelation(Long groupId, Long privilegeId, String action);
+
+    /**
+     * 批量保存group-privilege关系
+     *
+     * @param groupId  the pk of group.
+     * @param grants privilege及操作
+     * @return 结果集
+     */
+    List<GroupPrivileges> relationAll(Long groupId, List<PrivilegeGrantDTO> grants);
+
+    /**
+     * 批量移除group-privilege关系
+     *
+     * @param groupId  the pk of group.
+     * @param grants privilege及操作，操作为空时移除privilege
+     */
+    void removeRelationAll(Long groupId, List<PrivilegeGrantDTO> grants);
 }
@@ -16,6 +16,8 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.export.ExportableService;
+import top.leafage.hypervisor.paging.SeekableService;
 import top.leafage.hypervisor.system.domain.vo.OperationLogVO;
 
 /**
@@ -23,10 +25,13 @@ import top.leafage.hypervisor.system.domain.vo.OperationLogVO;
  *
  * @author wq li
  */
-public interface OperationLogService extends JpaCrudService<Object, OperationLogVO> {
+public interface OperationLogService extends JpaCrudService<Object, OperationLogVO>, SeekableService<OperationLogVO>,
+        ExportableService {
 
     /**
      * 清空日志
+     *
+     * @return rows deleted.
      */
-    void clear();
+    long clear();
 }
@@ -17,6 +17,7 @@ package top.leafage.hypervisor.system.service;
 import org.jspecify.annotations.NonNull;
 import top.leafage.common.data.domain.TreeNode;
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeCheckDTO;
 import top.leafage.hypervisor.system.domain.dto.PrivilegeDTO;
 import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
 
@@ -44,4 +45,23 @@ public interface PrivilegeService extends JpaCrudService<PrivilegeDTO, Privilege
      * @return the result.
      */
     List<PrivilegeVO> subset(Long superiorId);
+
+    /**
+     * 判断用户是否有权限
+     *
+     * @param username    username
+     * @param privilegeId privilege主键
+     * @param action      操作，为空时判断privilege本身
+     * @return true if granted.
+     */
+    boolean authorize(String username, Long privilegeId, String action);
+
+    /**
+     * 批量判断用户是否有权限
+     *
+     * @param username username
+     * @param checks   privilege及操作
+     * @return 与checks顺序一致的结果
+     */
+    boolean[] authorize(String username, List<PrivilegeCheckDTO> checks);
 }
@@ -16,6 +16,7 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.hypervisor.system.domain.RolePrivileges;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 
 import java.util.List;
 
@@ -60,4 +61,21 @@ public interface RolePrivilegesService {
      * @param action      操作
      */
     void removeRelation(Long roleId, Long privilegeId, String action);
+
+    /**
+     * 批量保存role-privilege关系
+     *
+     * @param roleId the pk of role.
+     * @param grants privilege及操作
+     * @return 结果集
+     */
+    List<RolePrivileges> relationAll(Long roleId, List<PrivilegeGrantDTO> grants);
+
+    /**
+     * 批量移除role-privilege关系
+     *
+     * @param roleId the pk of role.
+     * @param grants privilege及操作，操作为空时移除privilege
+     */
+    void removeRelationAll(Long roleId, List<PrivilegeGrantDTO> grants);
 }
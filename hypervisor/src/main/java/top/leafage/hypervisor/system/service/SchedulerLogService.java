@@ -16,6 +16,7 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.paging.SeekableService;
 import top.leafage.hypervisor.system.domain.vo.SchedulerLogVO;
 
 /**
@@ -23,10 +24,12 @@ import top.leafage.hypervisor.system.domain.vo.SchedulerLogVO;
  *
  * @author wq li
  */
-public interface SchedulerLogService extends JpaCrudService<Object, SchedulerLogVO> {
+public interface SchedulerLogService extends JpaCrudService<Object, SchedulerLogVO>, SeekableService<SchedulerLogVO> {
 
     /**
      * 清空日志
+     *
+     * @return rows deleted.
      */
-    void clear();
+    long clear();
 }
@@ -15,6 +15,8 @@
 package top.leafage.hypervisor.system.service;
 
 import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.hypervisor.export.ExportableService;
+import top.leafage.hypervisor.paging.SeekableService;
 import top.leafage.hypervisor.system.domain.dto.UserDTO;
 import top.leafage.hypervisor.system.domain.vo.UserVO;
 
@@ -23,7 +25,8 @@ import top.leafage.hypervisor.system.domain.vo.UserVO;
  *
  * @author wq li
  */
-public interface UserService extends JpaCrudService<UserDTO, UserVO> {
+public interface UserService extends JpaCrudService<UserDTO, UserVO>, SeekableService<UserVO>,
+        ExportableService {
 
     /**
      * Update accountNonLocked.
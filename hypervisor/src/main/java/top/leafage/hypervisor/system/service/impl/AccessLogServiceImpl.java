@@ -23,11 +23,26 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.export.ExportFormat;
+import top.leafage.hypervisor.export.RowExporter;
+import top.leafage.hypervisor.logging.AccessLogRollup;
+import top.leafage.hypervisor.logging.AccessLogStat;
+import top.leafage.hypervisor.logging.LogPurger;
+import top.leafage.hypervisor.logging.RollupResolution;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.paging.Keyset;
 import top.leafage.hypervisor.system.domain.AccessLog;
+import top.leafage.hypervisor.system.domain.vo.AccessLogStatVO;
 import top.leafage.hypervisor.system.domain.vo.AccessLogVO;
 import top.leafage.hypervisor.system.repository.AccessLogRepository;
 import top.leafage.hypervisor.system.service.AccessLogService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
 /**
  * access log service impl.
  *
@@ -36,15 +51,29 @@ import top.leafage.hypervisor.system.service.AccessLogService;
 @Service
 public class AccessLogServiceImpl implements AccessLogService {
 
+    private static final Set<String> SORTABLE = Set.of("url", "urlPattern", "httpMethod", "statusCode", "duration", "createdDate");
+
+    private static final String TABLE_NAME = "access_logs";
+
     private final AccessLogRepository accessLogRepository;
+    private final LogPurger logPurger;
+    private final RowExporter rowExporter;
+    private final AccessLogRollup accessLogRollup;
 
     /**
      * Constructor for AccessLogServiceImpl.
      *
      * @param accessLogRepository a {@link AccessLogRepository} object
+     * @param logPurger           a {@link LogPurger} object
+     * @param rowExporter         a {@link RowExporter} object
+     * @param accessLogRollup     a {@link AccessLogRollup} object
      */
-    public AccessLogServiceImpl(AccessLogRepository accessLogRepository) {
+    public AccessLogServiceImpl(AccessLogRepository accessLogRepository, LogPurger logPurger, RowExporter rowExporter,
+                                AccessLogRollup accessLogRollup) {
         this.accessLogRepository = accessLogRepository;
+        this.logPurger = logPurger;
+        this.rowExporter = rowExporter;
+        this.accessLogRollup = accessLogRollup;
     }
 
     /**
@@ -60,6 +89,29 @@ public class AccessLogServiceImpl implements AccessLogService {
         return accessLogRepository.findAll(spec, pageable).map(AccessLogVO::from);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<AccessLogVO> seek(String cursor, int size, String sortBy, boolean descending, String filters) {
+        Specification<@NonNull AccessLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        return Keyset.seek(accessLogRepository, spec, cursor, size, sortBy, descending, SORTABLE)
+                .map(AccessLogVO::from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void export(String filters, ExportFormat format, OutputStream out) throws IOException {
+        Specification<@NonNull AccessLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        rowExporter.export(AccessLog.class, spec, AccessLogVO.class, AccessLogVO::from, format, out);
+    }
+
     @Override
     public AccessLogVO fetch(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
@@ -79,9 +131,19 @@ public class AccessLogServiceImpl implements AccessLogService {
         accessLogRepository.deleteById(id);
     }
 
-    @Transactional
     @Override
-    public void clear() {
-        accessLogRepository.deleteAll();
+    public long clear() {
+        return logPurger.purgeAll(TABLE_NAME, Instant.now());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<AccessLogStatVO> stats(String resolution, Instant from, Instant to, String urlPattern,
+                                       String httpMethod) {
+        List<AccessLogStat> stats = accessLogRollup.stats(RollupResolution.parse(resolution), from,
+                to == null ? Instant.now() : to, urlPattern, httpMethod);
+        return stats.stream().map(AccessLogStatVO::from).toList();
     }
 }
@@ -23,11 +23,19 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.export.ExportFormat;
+import top.leafage.hypervisor.export.RowExporter;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.paging.Keyset;
 import top.leafage.hypervisor.system.domain.AuditLog;
 import top.leafage.hypervisor.system.domain.vo.AuditLogVO;
 import top.leafage.hypervisor.system.repository.AuditLogRepository;
 import top.leafage.hypervisor.system.service.AuditLogService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
 /**
  * audit log service impl.
  *
@@ -36,15 +44,20 @@ import top.leafage.hypervisor.system.service.AuditLogService;
 @Service
 public class AuditLogServiceImpl implements AuditLogService {
 
+    private static final Set<String> SORTABLE = Set.of("resource", "action", "targetId", "statusCode", "duration", "createdDate");
+
     private final AuditLogRepository auditLogRepository;
+    private final RowExporter rowExporter;
 
     /**
      * Constructor for AuditLogServiceImpl.
      *
      * @param auditLogRepository a {@link AuditLogRepository} object
+     * @param rowExporter        a {@link RowExporter} object
      */
-    public AuditLogServiceImpl(AuditLogRepository auditLogRepository) {
+    public AuditLogServiceImpl(AuditLogRepository auditLogRepository, RowExporter rowExporter) {
         this.auditLogRepository = auditLogRepository;
+        this.rowExporter = rowExporter;
     }
 
     /**
@@ -61,6 +74,29 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .map(AuditLogVO::from);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<AuditLogVO> seek(String cursor, int size, String sortBy, boolean descending, String filters) {
+        Specification<@NonNull AuditLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        return Keyset.seek(auditLogRepository, spec, cursor, size, sortBy, descending, SORTABLE)
+                .map(AuditLogVO::from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void export(String filters, ExportFormat format, OutputStream out) throws IOException {
+        Specification<@NonNull AuditLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        rowExporter.export(AuditLog.class, spec, AuditLogVO.class, AuditLogVO::from, format, out);
+    }
+
     @Override
     public AuditLogVO fetch(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
+import top.leafage.hypervisor.system.domain.vo.ReconcileVO;
+import top.leafage.hypervisor.system.repository.GroupAuthoritiesRepository;
+import top.leafage.hypervisor.system.repository.GroupRepository;
+import top.leafage.hypervisor.system.service.GroupAuthoritiesService;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * group authorities service impl.
+ * <p>
+ * groups are walked in chunks by pk, every chunk is diffed and applied in its own statements,
+ * so a long run never holds locks on the whole table. members of the groups whose rows changed are
+ * evicted from the privilege tree cache, which tells the auth server as well.
+ *
+ * @author wq li
+ */
+@Service
+public class GroupAuthoritiesServiceImpl implements GroupAuthoritiesService {
+
+    private final GroupRepository groupRepository;
+    private final GroupAuthoritiesRepository groupAuthoritiesRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
+    private final int chunkSize;
+
+    /**
+     * Constructor for GroupAuthoritiesServiceImpl.
+     *
+     * @param groupRepository            a {@link GroupRepository} object
+     * @param groupAuthoritiesRepository a {@link GroupAuthoritiesRepository} object
+     * @param privilegeTreeCache         a {@link PrivilegeTreeCache} object
+     * @param chunkSize                  groups per chunk
+     */
+    public GroupAuthoritiesServiceImpl(GroupRepository groupRepository, GroupAuthoritiesRepository groupAuthoritiesRepository,
+                                       PrivilegeTreeCache privilegeTreeCache,
+                                       @Value("${leafage.reconcile.group-authorities.chunk-size:500}") int chunkSize) {
+        this.groupRepository = groupRepository;
+        this.groupAuthoritiesRepository = groupAuthoritiesRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ReconcileVO reconcile() {
+        long start = System.nanoTime();
+        int groups = 0;
+        long inserted = 0;
+        long deleted = 0;
+
+        Long lastId = 0L;
+        List<Long> groupIds;
+        do {
+            groupIds = groupRepository.findIdByIdGreaterThan(lastId, Limit.of(chunkSize));
+            if (groupIds.isEmpty()) {
+                break;
+            }
+            Long[] ids = groupIds.toArray(Long[]::new);
+            // 先删除多余的，再补齐缺失的
+            List<Long> deletedGroupIds = groupAuthoritiesRepository.deleteUnexpectedByGroupIdIn(ids);
+            List<Long> insertedGroupIds = groupAuthoritiesRepository.insertMissingByGroupIdIn(ids);
+            deleted += deletedGroupIds.size();
+            inserted += insertedGroupIds.size();
+
+            Set<Long> changed = new LinkedHashSet<>(deletedGroupIds);
+            changed.addAll(insertedGroupIds);
+            changed.forEach(privilegeTreeCache::evictGroup);
+            groups += groupIds.size();
+            lastId = groupIds.getLast();
+        } while (groupIds.size() == chunkSize);
+
+        return new ReconcileVO(groups, inserted, deleted, (System.nanoTime() - start) / 1_000_000);
+    }
+}
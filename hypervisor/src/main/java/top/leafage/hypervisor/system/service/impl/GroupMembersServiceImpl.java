@@ -18,6 +18,7 @@ package top.leafage.hypervisor.system.service.impl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupMembers;
 import top.leafage.hypervisor.system.repository.GroupMembersRepository;
 import top.leafage.hypervisor.system.service.GroupMembersService;
@@ -38,14 +39,17 @@ import static top.leafage.common.data.Service._MUST_NOT_BE_NULL;
 public class GroupMembersServiceImpl implements GroupMembersService {
 
     private final GroupMembersRepository groupMembersRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
 
     /**
      * Constructor for GroupMembersServiceImpl.
      *
      * @param groupMembersRepository a {@link GroupMembersRepository} object
+     * @param privilegeTreeCache     a {@link PrivilegeTreeCache} object
      */
-    public GroupMembersServiceImpl(GroupMembersRepository groupMembersRepository) {
+    public GroupMembersServiceImpl(GroupMembersRepository groupMembersRepository, PrivilegeTreeCache privilegeTreeCache) {
         this.groupMembersRepository = groupMembersRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
     }
 
     /**
@@ -83,6 +87,7 @@ public class GroupMembersServiceImpl implements GroupMembersService {
             groupMember.setUsername(username);
             return groupMember;
         }).toList();
+        privilegeTreeCache.evict(usernames);
         return groupMembersRepository.saveAllAndFlush(groupMembers);
     }
 
@@ -97,5 +102,6 @@ public class GroupMembersServiceImpl implements GroupMembersService {
                 .filter(roleMember -> usernames.contains(roleMember.getUsername()))
                 .map(GroupMembers::getId).toList();
         groupMembersRepository.deleteAllByIdInBatch(filteredIds);
+        privilegeTreeCache.evict(usernames);
     }
 }
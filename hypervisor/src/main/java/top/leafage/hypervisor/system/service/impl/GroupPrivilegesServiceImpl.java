@@ -19,18 +19,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
-import top.leafage.hypervisor.system.domain.GroupAuthorities;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupPrivileges;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.repository.GroupAuthoritiesRepository;
 import top.leafage.hypervisor.system.repository.GroupPrivilegesRepository;
 import top.leafage.hypervisor.system.repository.PrivilegeRepository;
 import top.leafage.hypervisor.system.service.GroupPrivilegesService;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static top.leafage.common.data.Service._MUST_NOT_BE_EMPTY;
 import static top.leafage.common.data.Service._MUST_NOT_BE_NULL;
 
 @Service
@@ -39,12 +40,14 @@ public class GroupPrivilegesServiceImpl implements GroupPrivilegesService {
     private final GroupPrivilegesRepository groupPrivilegesRepository;
     private final PrivilegeRepository privilegeRepository;
     private final GroupAuthoritiesRepository groupAuthoritiesRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
 
     public GroupPrivilegesServiceImpl(GroupPrivilegesRepository groupPrivilegesRepository, PrivilegeRepository privilegeRepository,
-                                      GroupAuthoritiesRepository groupAuthoritiesRepository) {
+                                      GroupAuthoritiesRepository groupAuthoritiesRepository, PrivilegeTreeCache privilegeTreeCache) {
         this.groupPrivilegesRepository = groupPrivilegesRepository;
         this.privilegeRepository = privilegeRepository;
         this.groupAuthoritiesRepository = groupAuthoritiesRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
     }
 
     @Override
@@ -66,8 +69,9 @@ public class GroupPrivilegesServiceImpl implements GroupPrivilegesService {
                 StringUtils.hasText(action) ? Set.of(action) : Collections.emptySet());
 
         privilegeRepository.findById(privilegeId).ifPresent(privilege ->
-                addGroupAuthority(groupId, privilege.getName(),
-                        StringUtils.hasText(action) ? Set.of("", action) : Set.of("")));
+                groupAuthoritiesRepository.grant(List.of(groupId), PrivilegeGrants.authorities(privilege.getName(),
+                        groupPrivilege.getActions())));
+        privilegeTreeCache.evictGroup(groupId);
         // 保存并立即刷新
         return groupPrivilegesRepository.saveAndFlush(groupPrivilege);
     }
@@ -77,33 +81,99 @@ public class GroupPrivilegesServiceImpl implements GroupPrivilegesService {
     public void removeRelation(Long groupId, Long privilegeId, String action) {
         groupPrivilegesRepository.findByGroupIdAndPrivilegeId(groupId, privilegeId)
                 .ifPresent(groupPrivilege -> {
+                    Set<String> actions = groupPrivilege.getActions();
                     // actions为空，删除菜单
                     if (!StringUtils.hasText(action)) {
                         groupPrivilegesRepository.deleteById(groupPrivilege.getId());
+                    } else {
+                        Set<String> retained = new HashSet<>(actions);
+                        retained.remove(action);
+                        groupPrivilege.setActions(retained);
+                        groupPrivilegesRepository.save(groupPrivilege);
                     }
                     privilegeRepository.findById(privilegeId).ifPresent(privilege ->
-                            removeGroupAuthority(groupId, privilege.getName(), action));
+                            groupAuthoritiesRepository.revoke(List.of(groupId), StringUtils.hasText(action)
+                                    ? Set.of(privilege.getName() + ":" + action)
+                                    : PrivilegeGrants.authorities(privilege.getName(), actions)));
+                    privilegeTreeCache.evictGroup(groupId);
                 });
     }
 
-    private void addGroupAuthority(Long groupId, String privilegeName, Set<String> actions) {
-        List<GroupAuthorities> groupAuthorities = actions.stream().map(action -> {
-                    String authority = action.isBlank() ? privilegeName : privilegeName + ":" + action;
-                    // 检查是否已存在
-                    Optional<GroupAuthorities> optional = groupAuthoritiesRepository.findByGroupIdAndAuthority(groupId, authority);
-                    return optional.orElseGet(() -> new GroupAuthorities(groupId, authority));
-                })
-                .toList();
-        groupAuthoritiesRepository.saveAll(groupAuthorities);
+    @Transactional
+    @Override
+    public List<GroupPrivileges> relationAll(Long groupId, List<PrivilegeGrantDTO> grants) {
+        Assert.notNull(groupId, String.format(_MUST_NOT_BE_NULL, "groupId"));
+        Assert.notEmpty(grants, String.format(_MUST_NOT_BE_EMPTY, "grants"));
+
+        Map<Long, Set<String>> requested = PrivilegeGrants.merge(grants);
+        // 不存在的privilege直接忽略
+        Map<Long, String> names = privilegeRepository.findNamesByIdIn(requested.keySet());
+        Map<Long, GroupPrivileges> existing = groupPrivilegesRepository.findAllByGroupIdAndPrivilegeIdIn(groupId, names.keySet())
+                .stream().collect(Collectors.toMap(GroupPrivileges::getPrivilegeId, Function.identity(), (a, b) -> a));
+
+        List<GroupPrivileges> groupPrivileges = new ArrayList<>(names.size());
+        Set<String> authorities = new HashSet<>();
+        names.forEach((privilegeId, name) -> {
+            Set<String> actions = requested.get(privilegeId);
+            GroupPrivileges groupPrivilege = existing.get(privilegeId);
+            if (groupPrivilege == null) {
+                groupPrivilege = new GroupPrivileges(groupId, privilegeId, new HashSet<>(actions));
+            } else {
+                Set<String> merged = new HashSet<>(groupPrivilege.getActions());
+                merged.addAll(actions);
+                groupPrivilege.setActions(merged);
+            }
+            groupPrivileges.add(groupPrivilege);
+            authorities.addAll(PrivilegeGrants.authorities(name, actions));
+        });
+        if (groupPrivileges.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        groupAuthoritiesRepository.grant(List.of(groupId), authorities);
+        privilegeTreeCache.evictGroup(groupId);
+        return groupPrivilegesRepository.saveAllAndFlush(groupPrivileges);
     }
 
-    private void removeGroupAuthority(Long groupId, String name, String action) {
-        // 移除授权actions
-        if (StringUtils.hasText(action)) {
-            groupAuthoritiesRepository.deleteByGroupIdAndAuthority(groupId, name + ":" + action);
-        } else {
-            groupAuthoritiesRepository.deleteByGroupIdAndAuthorityStartingWith(groupId, name);
+    @Transactional
+    @Override
+    public void removeRelationAll(Long groupId, List<PrivilegeGrantDTO> grants) {
+        Assert.notNull(groupId, String.format(_MUST_NOT_BE_NULL, "groupId"));
+        Assert.notEmpty(grants, String.format(_MUST_NOT_BE_EMPTY, "grants"));
+
+        Map<Long, Set<String>> requested = PrivilegeGrants.merge(grants);
+        List<GroupPrivileges> existing = groupPrivilegesRepository.findAllByGroupIdAndPrivilegeIdIn(groupId, requested.keySet());
+        if (existing.isEmpty()) {
+            return;
         }
+        Map<Long, String> names = privilegeRepository.findNamesByIdIn(requested.keySet());
+
+        List<GroupPrivileges> removed = new ArrayList<>();
+        List<GroupPrivileges> modified = new ArrayList<>();
+        Set<String> authorities = new HashSet<>();
+        existing.forEach(groupPrivilege -> {
+            Set<String> actions = requested.get(groupPrivilege.getPrivilegeId());
+            String name = names.get(groupPrivilege.getPrivilegeId());
+            // actions为空，删除菜单
+            if (actions.isEmpty()) {
+                removed.add(groupPrivilege);
+                if (name != null) {
+                    authorities.addAll(PrivilegeGrants.authorities(name, groupPrivilege.getActions()));
+                }
+            } else {
+                Set<String> retained = new HashSet<>(groupPrivilege.getActions());
+                retained.removeAll(actions);
+                groupPrivilege.setActions(retained);
+                modified.add(groupPrivilege);
+                if (name != null) {
+                    actions.forEach(action -> authorities.add(name + ":" + action));
+                }
+            }
+        });
+
+        groupPrivilegesRepository.deleteAll(removed);
+        groupPrivilegesRepository.saveAll(modified);
+        groupAuthoritiesRepository.revoke(List.of(groupId), authorities);
+        privilegeTreeCache.evictGroup(groupId);
     }
-
 }
@@ -18,6 +18,7 @@ package top.leafage.hypervisor.system.service.impl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupRoles;
 import top.leafage.hypervisor.system.repository.GroupRolesRepository;
 import top.leafage.hypervisor.system.service.GroupRolesService;
@@ -38,14 +39,17 @@ import static top.leafage.common.data.Service._MUST_NOT_BE_NULL;
 public class GroupRolesServiceImpl implements GroupRolesService {
 
     private final GroupRolesRepository groupRolesRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
 
     /**
      * Constructor for GroupMembersServiceImpl.
      *
      * @param groupRolesRepository a {@link GroupRolesRepository} object
+     * @param privilegeTreeCache   a {@link PrivilegeTreeCache} object
      */
-    public GroupRolesServiceImpl(GroupRolesRepository groupRolesRepository) {
+    public GroupRolesServiceImpl(GroupRolesRepository groupRolesRepository, PrivilegeTreeCache privilegeTreeCache) {
         this.groupRolesRepository = groupRolesRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
     }
 
     @Override
@@ -72,6 +76,7 @@ public class GroupRolesServiceImpl implements GroupRolesService {
             groupRole.setRoleId(roleId);
             return groupRole;
         }).toList();
+        privilegeTreeCache.evictGroup(groupId);
         return groupRolesRepository.saveAllAndFlush(groupRoles);
     }
 
@@ -86,5 +91,6 @@ public class GroupRolesServiceImpl implements GroupRolesService {
                 .filter(groupRole -> roleIds.contains(groupRole.getRoleId()))
                 .map(GroupRoles::getId).toList();
         groupRolesRepository.deleteAllByIdInBatch(filteredIds);
+        privilegeTreeCache.evictGroup(groupId);
     }
 }
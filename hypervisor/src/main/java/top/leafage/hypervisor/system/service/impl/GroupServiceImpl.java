@@ -99,10 +99,11 @@ public class GroupServiceImpl implements GroupService {
     @Override
     public boolean enable(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
-        if (!groupRepository.existsById(id)) {
-            throw new EntityNotFoundException("group not found: " + id);
-        }
-        return groupRepository.updateEnabledById(id) > 0;
+        Group group = groupRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("group not found: " + id));
+        // 经持久化上下文修改，提交后由审计监听记录
+        group.setEnabled(!group.isEnabled());
+        return true;
     }
 
     /**
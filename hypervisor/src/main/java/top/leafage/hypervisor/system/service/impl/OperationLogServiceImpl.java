@@ -23,11 +23,21 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.export.ExportFormat;
+import top.leafage.hypervisor.export.RowExporter;
+import top.leafage.hypervisor.logging.LogPurger;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.paging.Keyset;
 import top.leafage.hypervisor.system.domain.OperationLog;
 import top.leafage.hypervisor.system.domain.vo.OperationLogVO;
 import top.leafage.hypervisor.system.repository.OperationLogRepository;
 import top.leafage.hypervisor.system.service.OperationLogService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Set;
+
 /**
  * operation log service impl.
  *
@@ -36,15 +46,26 @@ import top.leafage.hypervisor.system.service.OperationLogService;
 @Service
 public class OperationLogServiceImpl implements OperationLogService {
 
+    private static final Set<String> SORTABLE = Set.of("module", "action", "statusCode", "createdDate");
+
+    private static final String TABLE_NAME = "operation_logs";
+
     private final OperationLogRepository operationLogRepository;
+    private final LogPurger logPurger;
+    private final RowExporter rowExporter;
 
     /**
      * Constructor for AccessLogServiceImpl.
      *
      * @param operationLogRepository a {@link OperationLogRepository} object
+     * @param logPurger              a {@link LogPurger} object
+     * @param rowExporter            a {@link RowExporter} object
      */
-    public OperationLogServiceImpl(OperationLogRepository operationLogRepository) {
+    public OperationLogServiceImpl(OperationLogRepository operationLogRepository, LogPurger logPurger,
+                                   RowExporter rowExporter) {
         this.operationLogRepository = operationLogRepository;
+        this.logPurger = logPurger;
+        this.rowExporter = rowExporter;
     }
 
     /**
@@ -61,6 +82,29 @@ public class OperationLogServiceImpl implements OperationLogService {
                 .map(OperationLogVO::from);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<OperationLogVO> seek(String cursor, int size, String sortBy, boolean descending, String filters) {
+        Specification<@NonNull OperationLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        return Keyset.seek(operationLogRepository, spec, cursor, size, sortBy, descending, SORTABLE)
+                .map(OperationLogVO::from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void export(String filters, ExportFormat format, OutputStream out) throws IOException {
+        Specification<@NonNull OperationLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        rowExporter.export(OperationLog.class, spec, OperationLogVO.class, OperationLogVO::from, format, out);
+    }
+
     @Override
     public OperationLogVO fetch(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
@@ -86,9 +130,8 @@ public class OperationLogServiceImpl implements OperationLogService {
     /**
      * {@inheritDoc}
      */
-    @Transactional
     @Override
-    public void clear() {
-        operationLogRepository.deleteAll();
+    public long clear() {
+        return logPurger.purgeAll(TABLE_NAME, Instant.now());
     }
 }
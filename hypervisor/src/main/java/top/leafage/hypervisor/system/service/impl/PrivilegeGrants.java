@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.service.impl;
+
+import org.springframework.util.StringUtils;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * shared helpers of the role and group privilege grants.
+ *
+ * @author wq li
+ */
+final class PrivilegeGrants {
+
+    private PrivilegeGrants() {
+    }
+
+    /**
+     * merge the grants by privilege, blank actions are skipped.
+     *
+     * @param grants the grants.
+     * @return actions by privilege id, in request order.
+     */
+    static Map<Long, Set<String>> merge(List<PrivilegeGrantDTO> grants) {
+        Map<Long, Set<String>> merged = new LinkedHashMap<>();
+        grants.forEach(grant -> {
+            Set<String> actions = merged.computeIfAbsent(grant.getPrivilegeId(), k -> new HashSet<>());
+            if (grant.getActions() != null) {
+                grant.getActions().stream().filter(StringUtils::hasText).forEach(actions::add);
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * the authorities of a privilege, its name and name:action of each action.
+     *
+     * @param privilegeName the name of privilege.
+     * @param actions       the actions.
+     * @return the authorities.
+     */
+    static Set<String> authorities(String privilegeName, Set<String> actions) {
+        Set<String> authorities = new HashSet<>();
+        authorities.add(privilegeName);
+        actions.forEach(action -> authorities.add(privilegeName + ":" + action));
+        return authorities;
+    }
+}
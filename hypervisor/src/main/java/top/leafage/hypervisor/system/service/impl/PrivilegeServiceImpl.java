@@ -23,16 +23,24 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import top.leafage.common.data.domain.TreeNode;
+import top.leafage.hypervisor.system.cache.PrivilegeBits;
+import top.leafage.hypervisor.system.cache.PrivilegeHierarchy;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
+import top.leafage.hypervisor.system.domain.EffectivePrivilege;
 import top.leafage.hypervisor.system.domain.Privilege;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeCheckDTO;
 import top.leafage.hypervisor.system.domain.dto.PrivilegeDTO;
 import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
-import top.leafage.hypervisor.system.repository.*;
+import top.leafage.hypervisor.system.repository.PrivilegeRepository;
 import top.leafage.hypervisor.system.service.PrivilegeService;
 
-import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import static top.leafage.common.data.converter.ModelToTreeNodeConverter.toTree;
 
@@ -45,27 +53,22 @@ import static top.leafage.common.data.converter.ModelToTreeNodeConverter.toTree;
 public class PrivilegeServiceImpl implements PrivilegeService {
 
     private static final BeanCopier copier = BeanCopier.create(PrivilegeDTO.class, Privilege.class, false);
-    public final RoleMembersRepository roleMembersRepository;
-    public final RolePrivilegesRepository rolePrivilegesRepository;
     private final PrivilegeRepository privilegeRepository;
-    private final GroupMembersRepository groupMembersRepository;
-    private final GroupRolesRepository groupRolesRepository;
-    private final GroupPrivilegesRepository groupPrivilegesRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
+    private final PrivilegeHierarchy privilegeHierarchy;
 
     /**
      * Constructor for PrivilegeServiceImpl.
      *
-     * @param rolePrivilegesRepository a {@link RolePrivilegesRepository} object
-     * @param privilegeRepository      a {@link PrivilegeRepository} object
+     * @param privilegeRepository a {@link PrivilegeRepository} object
+     * @param privilegeTreeCache  a {@link PrivilegeTreeCache} object
+     * @param privilegeHierarchy  a {@link PrivilegeHierarchy} object
      */
-    public PrivilegeServiceImpl(RoleMembersRepository roleMembersRepository, RolePrivilegesRepository rolePrivilegesRepository,
-                                PrivilegeRepository privilegeRepository, GroupMembersRepository groupMembersRepository, GroupRolesRepository groupRolesRepository, GroupPrivilegesRepository groupPrivilegesRepository) {
-        this.roleMembersRepository = roleMembersRepository;
-        this.rolePrivilegesRepository = rolePrivilegesRepository;
+    public PrivilegeServiceImpl(PrivilegeRepository privilegeRepository, PrivilegeTreeCache privilegeTreeCache,
+                                PrivilegeHierarchy privilegeHierarchy) {
         this.privilegeRepository = privilegeRepository;
-        this.groupMembersRepository = groupMembersRepository;
-        this.groupRolesRepository = groupRolesRepository;
-        this.groupPrivilegesRepository = groupPrivilegesRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
+        this.privilegeHierarchy = privilegeHierarchy;
     }
 
     /**
@@ -79,14 +82,12 @@ public class PrivilegeServiceImpl implements PrivilegeService {
                 buildPredicate(filters, cb, root).orElse(null);
         spec = spec.and((root, query, cb) -> cb.isNull(root.get("superiorId")));
 
-        return privilegeRepository.findAll(spec, pageable)
-                .map(entity -> {
-                    if (entity.getId() != null) {
-                        long count = privilegeRepository.countBySuperiorId(entity.getId());
-                        return PrivilegeVO.from(entity, count);
-                    }
-                    return PrivilegeVO.from(entity);
-                });
+        Page<@NonNull Privilege> entityPage = privilegeRepository.findAll(spec, pageable);
+        Map<Long, Long> counts = privilegeRepository.countBySuperiorIdIn(entityPage.stream()
+                .map(Privilege::getId)
+                .filter(Objects::nonNull)
+                .toList());
+        return entityPage.map(entity -> PrivilegeVO.from(entity, counts.getOrDefault(entity.getId(), 0L)));
     }
 
     /**
@@ -96,46 +97,7 @@ public class PrivilegeServiceImpl implements PrivilegeService {
     public List<TreeNode<@NonNull Long>> tree(String username) {
         Assert.hasText(username, String.format(_MUST_NOT_BE_EMPTY, "username"));
 
-        Map<Long, Set<String>> privilegeActionsMap = new HashMap<>();
-        // Group
-        groupMembersRepository.findAllByUsername(username).forEach(gm ->
-                groupRolesRepository.findAllByGroupId(gm.getGroupId()).forEach(gr -> {
-                    // GroupPrivileges
-                    groupPrivilegesRepository.findAllByGroupId(gr.getGroupId())
-                            .forEach(gp -> mergeActions(gp.getPrivilegeId(), gp.getActions(), privilegeActionsMap));
-                    // RolePrivileges (from GroupRole)
-                    rolePrivilegesRepository.findAllByRoleId(gr.getRoleId())
-                            .forEach(rp -> mergeActions(rp.getPrivilegeId(), rp.getActions(), privilegeActionsMap));
-                })
-        );
-
-        // Role
-        roleMembersRepository.findAllByUsername(username).forEach(rm ->
-                rolePrivilegesRepository.findAllByRoleId(rm.getRoleId())
-                        .forEach(rp -> mergeActions(rp.getPrivilegeId(), rp.getActions(), privilegeActionsMap))
-        );
-
-        if (privilegeActionsMap.isEmpty()) {
-            return Collections.emptyList();
-        }
-        List<Privilege> directPrivileges = privilegeRepository.findAllById(privilegeActionsMap.keySet());
-        Map<Long, Privilege> privilegeMap = directPrivileges.stream()
-                .filter(Privilege::isEnabled)
-                .collect(Collectors.toMap(Privilege::getId, Function.identity(), (a, b) -> a));
-
-        // 设置 actions
-        privilegeActionsMap.forEach((id, actions) -> {
-            Privilege p = privilegeMap.get(id);
-            if (p != null) {
-                p.setActions(actions);
-            }
-        });
-
-        expandPrivileges(privilegeMap);
-
-        List<Privilege> allPrivileges = new ArrayList<>(privilegeMap.values());
-        Set<String> meta = Set.of("path", "redirect", "component", "icon", "actions");
-        return toTree(allPrivileges, meta);
+        return privilegeTreeCache.get(username, this::loadTree);
     }
 
     /**
@@ -145,9 +107,7 @@ public class PrivilegeServiceImpl implements PrivilegeService {
     public List<PrivilegeVO> subset(Long superiorId) {
         Assert.notNull(superiorId, String.format(_MUST_NOT_BE_NULL, "superiorId"));
 
-        return privilegeRepository.findAllBySuperiorId(superiorId)
-                .stream().map(PrivilegeVO::from)
-                .toList();
+        return privilegeHierarchy.subset(superiorId);
     }
 
     /**
@@ -169,10 +129,12 @@ public class PrivilegeServiceImpl implements PrivilegeService {
     @Override
     public boolean enable(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
-        if (!privilegeRepository.existsById(id)) {
-            throw new EntityNotFoundException("privilege not found: " + id);
-        }
-        return privilegeRepository.updateEnabledById(id) > 0;
+        Privilege privilege = privilegeRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("privilege not found: " + id));
+        privilegeTreeCache.evictAll();
+        // 经持久化上下文修改，提交后由审计监听记录，层级由实体监听失效
+        privilege.setEnabled(!privilege.isEnabled());
+        return true;
     }
 
     /**
@@ -191,32 +153,68 @@ public class PrivilegeServiceImpl implements PrivilegeService {
         }
         copier.copy(dto, existing, null);
         Privilege entity = privilegeRepository.save(existing);
+        privilegeTreeCache.evictAll();
         return PrivilegeVO.from(entity);
     }
 
-    private void mergeActions(Long privilegeId, Set<String> actions, Map<Long, Set<String>> map) {
-        map.computeIfAbsent(privilegeId, k -> new HashSet<>()).addAll(actions);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean authorize(String username, Long privilegeId, String action) {
+        Assert.hasText(username, String.format(_MUST_NOT_BE_EMPTY, "username"));
+        Assert.notNull(privilegeId, String.format(_MUST_NOT_BE_NULL, "privilegeId"));
+
+        return privilegeHierarchy.decide(bits(username), privilegeId, action);
     }
 
-    private Set<Long> collectMissingSuperiorIds(Map<Long, Privilege> privilegeMap) {
-        return privilegeMap.values().stream()
-                .map(Privilege::getSuperiorId)
-                .filter(Objects::nonNull)
-                .filter(id -> !privilegeMap.containsKey(id))
-                .collect(Collectors.toSet());
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean[] authorize(String username, List<PrivilegeCheckDTO> checks) {
+        Assert.hasText(username, String.format(_MUST_NOT_BE_EMPTY, "username"));
+        Assert.notNull(checks, String.format(_MUST_NOT_BE_NULL, "checks"));
+
+        PrivilegeBits bits = bits(username);
+        boolean[] decisions = new boolean[checks.size()];
+        for (int i = 0; i < decisions.length; i++) {
+            PrivilegeCheckDTO check = checks.get(i);
+            decisions[i] = privilegeHierarchy.decide(bits, check.getPrivilegeId(), check.getAction());
+        }
+        return decisions;
     }
 
-    private void expandPrivileges(Map<Long, Privilege> privilegeMap) {
-        Set<Long> toLoad;
-        do {
-            toLoad = collectMissingSuperiorIds(privilegeMap);
-            if (toLoad.isEmpty()) break;
+    private PrivilegeBits bits(String username) {
+        PrivilegeBits bits = privilegeTreeCache.getBits(username, this::compile);
+        // 权限目录变化后重新编译
+        if (!privilegeHierarchy.isCurrent(bits)) {
+            bits = compile(username);
+            privilegeTreeCache.putBits(username, bits);
+        }
+        return bits;
+    }
 
-            privilegeRepository.findAllById(toLoad).stream()
-                    .filter(Privilege::isEnabled)
-                    .forEach(sup -> privilegeMap.putIfAbsent(sup.getId(), sup));
+    private PrivilegeBits compile(String username) {
+        return privilegeHierarchy.compile(privilegeRepository.findGrantedByUsername(username));
+    }
+
+    private List<TreeNode<@NonNull Long>> loadTree(String username) {
+        List<Privilege> privileges = privilegeRepository.findAllEffectiveByUsername(username)
+                .stream().map(this::toEntity)
+                .toList();
+        if (privileges.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> meta = Set.of("path", "redirect", "component", "icon", "actions");
+        return toTree(privileges, meta);
+    }
 
-        } while (true);
+    private Privilege toEntity(EffectivePrivilege effective) {
+        Set<String> actions = StringUtils.hasText(effective.getActions()) ?
+                StringUtils.commaDelimitedListToSet(effective.getActions()) : Collections.emptySet();
+        return new Privilege(effective.getId(), effective.getName(), effective.getSuperiorId(), effective.getPath(),
+                effective.getRedirect(), effective.getComponent(), effective.getIcon(), actions, effective.getDescription());
     }
 
 }
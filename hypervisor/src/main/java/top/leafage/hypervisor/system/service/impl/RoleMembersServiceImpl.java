@@ -18,6 +18,7 @@ package top.leafage.hypervisor.system.service.impl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.RoleMembers;
 import top.leafage.hypervisor.system.repository.RoleMembersRepository;
 import top.leafage.hypervisor.system.service.RoleMembersService;
@@ -38,14 +39,17 @@ import static top.leafage.common.data.Service._MUST_NOT_BE_NULL;
 public class RoleMembersServiceImpl implements RoleMembersService {
 
     private final RoleMembersRepository roleMembersRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
 
     /**
      * Constructor for RoleMembersServiceImpl.
      *
      * @param roleMembersRepository a {@link RoleMembersRepository} object
+     * @param privilegeTreeCache    a {@link PrivilegeTreeCache} object
      */
-    public RoleMembersServiceImpl(RoleMembersRepository roleMembersRepository) {
+    public RoleMembersServiceImpl(RoleMembersRepository roleMembersRepository, PrivilegeTreeCache privilegeTreeCache) {
         this.roleMembersRepository = roleMembersRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
     }
 
     /**
@@ -83,6 +87,7 @@ public class RoleMembersServiceImpl implements RoleMembersService {
             roleMember.setUsername(username);
             return roleMember;
         }).toList();
+        privilegeTreeCache.evict(usernames);
         return roleMembersRepository.saveAllAndFlush(roleMembers);
     }
 
@@ -97,5 +102,6 @@ public class RoleMembersServiceImpl implements RoleMembersService {
                 .filter(roleMember -> usernames.contains(roleMember.getUsername()))
                 .map(RoleMembers::getId).toList();
         roleMembersRepository.deleteAllByIdInBatch(filteredIds);
+        privilegeTreeCache.evict(usernames);
     }
 }
@@ -19,19 +19,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
-import top.leafage.hypervisor.system.domain.GroupAuthorities;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
+import top.leafage.hypervisor.system.domain.GroupRoles;
 import top.leafage.hypervisor.system.domain.RolePrivileges;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.repository.GroupAuthoritiesRepository;
 import top.leafage.hypervisor.system.repository.GroupRolesRepository;
 import top.leafage.hypervisor.system.repository.PrivilegeRepository;
 import top.leafage.hypervisor.system.repository.RolePrivilegesRepository;
 import top.leafage.hypervisor.system.service.RolePrivilegesService;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static top.leafage.common.data.Service._MUST_NOT_BE_EMPTY;
 import static top.leafage.common.data.Service._MUST_NOT_BE_NULL;
 
 /**
@@ -46,18 +48,22 @@ public class RolePrivilegesServiceImpl implements RolePrivilegesService {
     private final GroupRolesRepository groupRolesRepository;
     private final PrivilegeRepository privilegeRepository;
     private final GroupAuthoritiesRepository groupAuthoritiesRepository;
+    private final PrivilegeTreeCache privilegeTreeCache;
 
     /**
      * Constructor for RolePrivilegesServiceImpl.
      *
      * @param rolePrivilegesRepository a {@link RolePrivilegesRepository} object
+     * @param privilegeTreeCache       a {@link PrivilegeTreeCache} object
      */
     public RolePrivilegesServiceImpl(RolePrivilegesRepository rolePrivilegesRepository, GroupRolesRepository groupRolesRepository,
-                                     PrivilegeRepository privilegeRepository, GroupAuthoritiesRepository groupAuthoritiesRepository) {
+                                     PrivilegeRepository privilegeRepository, GroupAuthoritiesRepository groupAuthoritiesRepository,
+                                     PrivilegeTreeCache privilegeTreeCache) {
         this.rolePrivilegesRepository = rolePrivilegesRepository;
         this.groupRolesRepository = groupRolesRepository;
         this.privilegeRepository = privilegeRepository;
         this.groupAuthoritiesRepository = groupAuthoritiesRepository;
+        this.privilegeTreeCache = privilegeTreeCache;
     }
 
     /**
@@ -93,8 +99,9 @@ public class RolePrivilegesServiceImpl implements RolePrivilegesService {
                 StringUtils.hasText(action) ? Set.of(action) : Collections.emptySet());
 
         privilegeRepository.findById(privilegeId).ifPresent(privilege ->
-                addGroupAuthority(roleId, privilege.getName(),
-                        StringUtils.hasText(action) ? Set.of("", action) : Set.of("")));
+                groupAuthoritiesRepository.grant(groupIds(roleId), PrivilegeGrants.authorities(privilege.getName(),
+                        rolePrivilege.getActions())));
+        privilegeTreeCache.evictRole(roleId);
         // 保存并立即刷新
         return rolePrivilegesRepository.saveAndFlush(rolePrivilege);
     }
@@ -107,37 +114,112 @@ public class RolePrivilegesServiceImpl implements RolePrivilegesService {
 
         rolePrivilegesRepository.findByRoleIdAndPrivilegeId(roleId, privilegeId)
                 .ifPresent(rolePrivilege -> {
+                    Set<String> actions = rolePrivilege.getActions();
                     // actions为空，删除菜单
                     if (!StringUtils.hasText(action)) {
                         rolePrivilegesRepository.deleteById(rolePrivilege.getId());
+                    } else {
+                        Set<String> retained = new HashSet<>(actions);
+                        retained.remove(action);
+                        rolePrivilege.setActions(retained);
+                        rolePrivilegesRepository.save(rolePrivilege);
                     }
                     privilegeRepository.findById(privilegeId).ifPresent(privilege ->
-                            removeGroupAuthority(roleId, privilege.getName(), action));
+                            groupAuthoritiesRepository.revoke(groupIds(roleId), StringUtils.hasText(action)
+                                    ? Set.of(privilege.getName() + ":" + action)
+                                    : PrivilegeGrants.authorities(privilege.getName(), actions)));
+                    privilegeTreeCache.evictRole(roleId);
                 });
     }
 
-    private void addGroupAuthority(Long roleId, String privilegeName, Set<String> actions) {
-        List<GroupAuthorities> groupAuthorities = groupRolesRepository.findAllByRoleId(roleId)
-                .stream().flatMap(groupRole -> actions.stream().map(action -> {
-                    String authority = action.isBlank() ? privilegeName : privilegeName + ":" + action;
-                    // 检查是否已存在
-                    Optional<GroupAuthorities> optional = groupAuthoritiesRepository.findByGroupIdAndAuthority(groupRole.getGroupId(), authority);
-                    return optional.orElseGet(() -> new GroupAuthorities(groupRole.getGroupId(), authority));
-                }))
-                .toList();
-        groupAuthoritiesRepository.saveAll(groupAuthorities);
+    /**
+     * {@inheritDoc}
+     */
+    @Transactional
+    @Override
+    public List<RolePrivileges> relationAll(Long roleId, List<PrivilegeGrantDTO> grants) {
+        Assert.notNull(roleId, String.format(_MUST_NOT_BE_NULL, "roleId"));
+        Assert.notEmpty(grants, String.format(_MUST_NOT_BE_EMPTY, "grants"));
+
+        Map<Long, Set<String>> requested = PrivilegeGrants.merge(grants);
+        // 不存在的privilege直接忽略
+        Map<Long, String> names = privilegeRepository.findNamesByIdIn(requested.keySet());
+        Map<Long, RolePrivileges> existing = rolePrivilegesRepository.findAllByRoleIdAndPrivilegeIdIn(roleId, names.keySet())
+                .stream().collect(Collectors.toMap(RolePrivileges::getPrivilegeId, Function.identity(), (a, b) -> a));
+
+        List<RolePrivileges> rolePrivileges = new ArrayList<>(names.size());
+        Set<String> authorities = new HashSet<>();
+        names.forEach((privilegeId, name) -> {
+            Set<String> actions = requested.get(privilegeId);
+            RolePrivileges rolePrivilege = existing.get(privilegeId);
+            if (rolePrivilege == null) {
+                rolePrivilege = new RolePrivileges(roleId, privilegeId, new HashSet<>(actions));
+            } else {
+                Set<String> merged = new HashSet<>(rolePrivilege.getActions());
+                merged.addAll(actions);
+                rolePrivilege.setActions(merged);
+            }
+            rolePrivileges.add(rolePrivilege);
+            authorities.addAll(PrivilegeGrants.authorities(name, actions));
+        });
+        if (rolePrivileges.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        groupAuthoritiesRepository.grant(groupIds(roleId), authorities);
+        privilegeTreeCache.evictRole(roleId);
+        return rolePrivilegesRepository.saveAllAndFlush(rolePrivileges);
     }
 
-    private void removeGroupAuthority(Long roleId, String name, String action) {
-        groupRolesRepository.findAllByRoleId(roleId).forEach(groupRole -> {
-                    // 移除授权actions
-                    if (StringUtils.hasText(action)) {
-                        groupAuthoritiesRepository.deleteByGroupIdAndAuthority(groupRole.getGroupId(), name + ":" + action);
-                    } else {
-                        groupAuthoritiesRepository.deleteByGroupIdAndAuthorityStartingWith(groupRole.getGroupId(), name);
-                    }
+    /**
+     * {@inheritDoc}
+     */
+    @Transactional
+    @Override
+    public void removeRelationAll(Long roleId, List<PrivilegeGrantDTO> grants) {
+        Assert.notNull(roleId, String.format(_MUST_NOT_BE_NULL, "roleId"));
+        Assert.notEmpty(grants, String.format(_MUST_NOT_BE_EMPTY, "grants"));
+
+        Map<Long, Set<String>> requested = PrivilegeGrants.merge(grants);
+        List<RolePrivileges> existing = rolePrivilegesRepository.findAllByRoleIdAndPrivilegeIdIn(roleId, requested.keySet());
+        if (existing.isEmpty()) {
+            return;
+        }
+        Map<Long, String> names = privilegeRepository.findNamesByIdIn(requested.keySet());
+
+        List<RolePrivileges> removed = new ArrayList<>();
+        List<RolePrivileges> modified = new ArrayList<>();
+        Set<String> authorities = new HashSet<>();
+        existing.forEach(rolePrivilege -> {
+            Set<String> actions = requested.get(rolePrivilege.getPrivilegeId());
+            String name = names.get(rolePrivilege.getPrivilegeId());
+            // actions为空，删除菜单
+            if (actions.isEmpty()) {
+                removed.add(rolePrivilege);
+                if (name != null) {
+                    authorities.addAll(PrivilegeGrants.authorities(name, rolePrivilege.getActions()));
+                }
+            } else {
+                Set<String> retained = new HashSet<>(rolePrivilege.getActions());
+                retained.removeAll(actions);
+                rolePrivilege.setActions(retained);
+                modified.add(rolePrivilege);
+                if (name != null) {
+                    actions.forEach(action -> authorities.add(name + ":" + action));
                 }
-        );
+            }
+        });
+
+        rolePrivilegesRepository.deleteAll(removed);
+        rolePrivilegesRepository.saveAll(modified);
+        groupAuthoritiesRepository.revoke(groupIds(roleId), authorities);
+        privilegeTreeCache.evictRole(roleId);
     }
 
+    private List<Long> groupIds(Long roleId) {
+        return groupRolesRepository.findAllByRoleId(roleId).stream()
+                .map(GroupRoles::getGroupId)
+                .distinct()
+                .toList();
+    }
 }
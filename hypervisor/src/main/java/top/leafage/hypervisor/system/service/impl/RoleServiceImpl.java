@@ -79,10 +79,11 @@ public class RoleServiceImpl implements RoleService {
     @Override
     public boolean enable(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
-        if (!roleRepository.existsById(id)) {
-            throw new EntityNotFoundException("role not found: " + id);
-        }
-        return roleRepository.updateEnabledById(id) > 0;
+        Role role = roleRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("role not found: " + id));
+        // 经持久化上下文修改，提交后由审计监听记录
+        role.setEnabled(!role.isEnabled());
+        return true;
     }
 
     /**
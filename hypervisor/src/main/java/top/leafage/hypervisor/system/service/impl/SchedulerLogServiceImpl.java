@@ -23,11 +23,17 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.logging.LogPurger;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.paging.Keyset;
 import top.leafage.hypervisor.system.domain.SchedulerLog;
 import top.leafage.hypervisor.system.domain.vo.SchedulerLogVO;
 import top.leafage.hypervisor.system.repository.SchedulerLogRepository;
 import top.leafage.hypervisor.system.service.SchedulerLogService;
 
+import java.time.Instant;
+import java.util.Set;
+
 /**
  * service for scheduler_logs.
  *
@@ -36,10 +42,16 @@ import top.leafage.hypervisor.system.service.SchedulerLogService;
 @Service
 public class SchedulerLogServiceImpl implements SchedulerLogService {
 
+    private static final Set<String> SORTABLE = Set.of("name", "startTime", "duration", "status", "createdDate");
+
+    private static final String TABLE_NAME = "scheduler_logs";
+
     private final SchedulerLogRepository schedulerLogRepository;
+    private final LogPurger logPurger;
 
-    public SchedulerLogServiceImpl(SchedulerLogRepository schedulerLogRepository) {
+    public SchedulerLogServiceImpl(SchedulerLogRepository schedulerLogRepository, LogPurger logPurger) {
         this.schedulerLogRepository = schedulerLogRepository;
+        this.logPurger = logPurger;
     }
 
     @Override
@@ -53,6 +65,18 @@ public class SchedulerLogServiceImpl implements SchedulerLogService {
                 .map(SchedulerLogVO::from);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<SchedulerLogVO> seek(String cursor, int size, String sortBy, boolean descending, String filters) {
+        Specification<@NonNull SchedulerLog> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        return Keyset.seek(schedulerLogRepository, spec, cursor, size, sortBy, descending, SORTABLE)
+                .map(SchedulerLogVO::from);
+    }
+
     @Override
     public SchedulerLogVO fetch(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
@@ -72,9 +96,8 @@ public class SchedulerLogServiceImpl implements SchedulerLogService {
         schedulerLogRepository.deleteById(id);
     }
 
-    @Transactional
     @Override
-    public void clear() {
-        schedulerLogRepository.deleteAll();
+    public long clear() {
+        return logPurger.purgeAll(TABLE_NAME, Instant.now());
     }
 }
@@ -23,12 +23,20 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import top.leafage.hypervisor.export.ExportFormat;
+import top.leafage.hypervisor.export.RowExporter;
+import top.leafage.hypervisor.paging.CursorPage;
+import top.leafage.hypervisor.paging.Keyset;
 import top.leafage.hypervisor.system.domain.User;
 import top.leafage.hypervisor.system.domain.dto.UserDTO;
 import top.leafage.hypervisor.system.domain.vo.UserVO;
 import top.leafage.hypervisor.system.repository.UserRepository;
 import top.leafage.hypervisor.system.service.UserService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
 /**
  * user service impl.
  *
@@ -37,16 +45,21 @@ import top.leafage.hypervisor.system.service.UserService;
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Set<String> SORTABLE = Set.of("username", "fullName", "email", "createdDate", "lastModifiedDate");
+
     private static final BeanCopier copier = BeanCopier.create(UserDTO.class, User.class, false);
     private final UserRepository userRepository;
+    private final RowExporter rowExporter;
 
     /**
      * Constructor for UserServiceImpl.
      *
      * @param userRepository a {@link UserRepository} object
+     * @param rowExporter    a {@link RowExporter} object
      */
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, RowExporter rowExporter) {
         this.userRepository = userRepository;
+        this.rowExporter = rowExporter;
     }
 
     /**
@@ -63,6 +76,29 @@ public class UserServiceImpl implements UserService {
                 .map(UserVO::from);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<UserVO> seek(String cursor, int size, String sortBy, boolean descending, String filters) {
+        Specification<@NonNull User> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        return Keyset.seek(userRepository, spec, cursor, size, sortBy, descending, SORTABLE)
+                .map(UserVO::from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void export(String filters, ExportFormat format, OutputStream out) throws IOException {
+        Specification<@NonNull User> spec = (root, query, cb) ->
+                buildPredicate(filters, cb, root).orElse(null);
+
+        rowExporter.export(User.class, spec, UserVO.class, UserVO::from, format, out);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -79,20 +115,21 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean enable(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
-        if (!userRepository.existsById(id)) {
-            throw new EntityNotFoundException("user not found: " + id);
-        }
-        return userRepository.updateEnabledById(id) > 0;
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("user not found: " + id));
+        // 经持久化上下文修改，提交后由审计监听记录
+        user.setEnabled(!user.isEnabled());
+        return true;
     }
 
     @Transactional
     @Override
     public boolean unlock(Long id) {
         Assert.notNull(id, ID_MUST_NOT_BE_NULL);
-        if (!userRepository.existsById(id)) {
-            throw new EntityNotFoundException("user not found: " + id);
-        }
-        return userRepository.updateAccountNonLockedById(id) > 0;
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("user not found: " + id));
+        user.setAccountNonLocked(true);
+        return true;
     }
 
     /**
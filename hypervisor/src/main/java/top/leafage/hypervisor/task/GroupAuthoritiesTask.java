@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.leafage.hypervisor.system.domain.vo.ReconcileVO;
+import top.leafage.hypervisor.system.service.GroupAuthoritiesService;
+
+/**
+ * reconcile group authorities periodically, to repair the drift of incremental updates.
+ *
+ * @author wq li
+ */
+@Component
+public class GroupAuthoritiesTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupAuthoritiesTask.class);
+
+    private final GroupAuthoritiesService groupAuthoritiesService;
+
+    public GroupAuthoritiesTask(GroupAuthoritiesService groupAuthoritiesService) {
+        this.groupAuthoritiesService = groupAuthoritiesService;
+    }
+
+    @Scheduled(cron = "${leafage.reconcile.group-authorities.cron:0 30 3 * * *}")
+    public void reconcile() {
+        ReconcileVO result = groupAuthoritiesService.reconcile();
+        logger.info("group authorities reconciled, groups: {}, inserted: {}, deleted: {}, duration: {}ms",
+                result.groups(), result.inserted(), result.deleted(), result.duration());
+    }
+}
@@ -16,25 +16,68 @@
 package top.leafage.hypervisor.task;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import top.leafage.hypervisor.system.service.OperationLogService;
-import top.leafage.hypervisor.system.service.SchedulerLogService;
+import top.leafage.hypervisor.logging.AccessLogRollup;
+import top.leafage.hypervisor.logging.LogPartitionManager;
+import top.leafage.hypervisor.logging.LogPurger;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * apply the retention of the log tables, partitions are created ahead and dropped once expired,
+ * rows left past the retention, in the default partition or in tables not partitioned, are purged in batches.
+ * new access logs are rolled up into the access statistics every interval.
+ *
+ * @author wq li
+ */
 @Component
 public class LoggingTask {
 
-    private final OperationLogService operationLogService;
-    private final SchedulerLogService schedulerLogService;
+    private static final Logger logger = LoggerFactory.getLogger(LoggingTask.class);
 
-    public LoggingTask(OperationLogService operationLogService, SchedulerLogService schedulerLogService) {
-        this.operationLogService = operationLogService;
-        this.schedulerLogService = schedulerLogService;
+    private final LogPartitionManager logPartitionManager;
+    private final LogPurger logPurger;
+    private final AccessLogRollup accessLogRollup;
+    private final Map<String, Duration> retentions;
+
+    public LoggingTask(LogPartitionManager logPartitionManager, LogPurger logPurger, AccessLogRollup accessLogRollup,
+                       @Value("${leafage.logging.retention.access-logs:P30D}") Duration accessLogs,
+                       @Value("${leafage.logging.retention.operation-logs:P180D}") Duration operationLogs,
+                       @Value("${leafage.logging.retention.audit-logs:P365D}") Duration auditLogs,
+                       @Value("${leafage.logging.retention.scheduler-logs:P30D}") Duration schedulerLogs) {
+        this.logPartitionManager = logPartitionManager;
+        this.logPurger = logPurger;
+        this.accessLogRollup = accessLogRollup;
+        this.retentions = Map.of("access_logs", accessLogs, "operation_logs", operationLogs,
+                "audit_logs", auditLogs, "scheduler_logs", schedulerLogs);
     }
 
     @Scheduled(initialDelay = 10000, fixedDelay = 1000 * 60 * 60 * 24)
     public void clear() {
-        operationLogService.clear();
-        schedulerLogService.clear();
+        LocalDate today = LocalDate.now();
+        Instant now = Instant.now();
+        retentions.forEach((table, retention) -> {
+            if (logPartitionManager.isPartitioned(table)) {
+                LogPartitionManager.PartitionResult result = logPartitionManager.maintain(table, retention, today);
+                logger.info("{} partitions maintained, created: {}, dropped: {}", table, result.created(), result.dropped());
+                // 按天分区整体删除，只清理 default 分区，避免逐行删除 cutoff 当天的分区
+                logPurger.purgeDefaultPartition(table, now.minus(retention));
+            } else {
+                logPurger.purge(table, now.minus(retention));
+            }
+        });
+        accessLogRollup.expire(now);
+    }
+
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${leafage.logging.rollup.interval:PT1M}")
+    public void rollup() {
+        accessLogRollup.rollup();
     }
 }
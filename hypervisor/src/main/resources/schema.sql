@@ -15,9 +15,9 @@
 
 create table access_logs
 (
-    id                 bigint generated always as identity
-        primary key,
+    id                 bigint generated always as identity,
     url                varchar(255),
+    url_pattern        varchar(255),
     http_method        varchar(255),
     params             varchar(255),
     body               varchar(255),
@@ -29,8 +29,10 @@ create table access_logs
     created_by         varchar(255),
     created_date       timestamp(6) default CURRENT_TIMESTAMP not null,
     last_modified_by   varchar(255),
-    last_modified_date timestamp(6)
-);
+    last_modified_date timestamp(6),
+    constraint access_logs_pkey
+        primary key (id, created_date)
+) partition by range (created_date);
 
 comment on table access_logs is '访问日志表';
 
@@ -38,6 +40,8 @@ comment on column access_logs.id is '主键';
 
 comment on column access_logs.url is '接口';
 
+comment on column access_logs.url_pattern is '接口模式';
+
 comment on column access_logs.http_method is 'http方法';
 
 comment on column access_logs.params is '参数';
@@ -63,29 +67,107 @@ comment on column access_logs.last_modified_date is '最后修改时间';
 alter table access_logs
     owner to postgres;
 
+-- daily partitions are created ahead and dropped past the retention by the logging task,
+-- rows outside of them fall into the default one.
+create table access_logs_default
+    partition of access_logs default;
+
+create index ix_access_logs_created_date
+    on access_logs (created_date);
+
+-- filled incrementally from access_logs by the logging task, histogram holds the counts per
+-- latency slot of LatencyHistogram and is merged by element-wise sum.
+create table access_log_rollups
+(
+    resolution   varchar(8)   not null,
+    bucket       timestamp(6) not null,
+    url_pattern  varchar(255) not null,
+    http_method  varchar(16)  not null,
+    status_class smallint     not null,
+    count        bigint       not null,
+    error_count  bigint       not null,
+    duration_sum bigint       not null,
+    duration_max bigint       not null,
+    histogram    bigint[]     not null,
+    constraint access_log_rollups_pkey
+        primary key (resolution, bucket, url_pattern, http_method, status_class)
+);
+
+comment on table access_log_rollups is '访问统计表';
+
+comment on column access_log_rollups.resolution is '粒度';
+
+comment on column access_log_rollups.bucket is '时间段';
+
+comment on column access_log_rollups.url_pattern is '接口模式';
+
+comment on column access_log_rollups.http_method is 'http方法';
+
+comment on column access_log_rollups.status_class is '状态码类别';
+
+comment on column access_log_rollups.count is '请求数';
+
+comment on column access_log_rollups.error_count is '错误数';
+
+comment on column access_log_rollups.duration_sum is '总耗时';
+
+comment on column access_log_rollups.duration_max is '最大耗时';
+
+comment on column access_log_rollups.histogram is '耗时分布';
+
+alter table access_log_rollups
+    owner to postgres;
+
+create table rollup_watermarks
+(
+    name               varchar(64)                            not null,
+    last_id            bigint       default 0                 not null,
+    horizon_id         bigint       default 0                 not null,
+    last_modified_date timestamp(6) default CURRENT_TIMESTAMP not null,
+    constraint rollup_watermarks_pkey
+        primary key (name)
+);
+
+comment on table rollup_watermarks is '统计进度表';
+
+comment on column rollup_watermarks.name is '名称';
+
+comment on column rollup_watermarks.last_id is '已统计的最大主键';
+
+comment on column rollup_watermarks.horizon_id is '下次统计的主键上限';
+
+comment on column rollup_watermarks.last_modified_date is '最后修改时间';
+
+alter table rollup_watermarks
+    owner to postgres;
+
 create table audit_logs
 (
-    id                 bigint generated always as identity
-        primary key,
-    operation          varchar(255)                           not null,
+    id                 bigint generated always as identity,
+    action             varchar(255)                           not null,
     resource           varchar(255)                           not null,
-    old_value          varchar(255),
-    new_value          varchar(255),
-    ip                 inet                                   not null,
-    status_code        integer                                not null,
+    target_id          bigint,
+    old_value          text,
+    new_value          text,
+    ip                 inet,
+    status_code        integer,
     enabled            boolean      default true              not null,
     created_by         varchar(255),
     created_date       timestamp(6) default CURRENT_TIMESTAMP not null,
     last_modified_by   varchar(255),
     last_modified_date timestamp(6),
-    duration           bigint                                 not null
-);
+    duration           bigint,
+    constraint audit_logs_pkey
+        primary key (id, created_date)
+) partition by range (created_date);
 
 comment on table audit_logs is '审计日志表';
 
 comment on column audit_logs.id is '主键，自增';
 
-comment on column audit_logs.operation is '操作类型';
+comment on column audit_logs.action is '操作类型';
+
+comment on column audit_logs.target_id is '操作对象主键';
 
 comment on column audit_logs.resource is '操作资源';
 
@@ -110,6 +192,12 @@ comment on column audit_logs.last_modified_date is '最后修改时间';
 alter table audit_logs
     owner to postgres;
 
+create table audit_logs_default
+    partition of audit_logs default;
+
+create index ix_audit_logs_created_date
+    on audit_logs (created_date);
+
 create table authorities
 (
     id        bigint generated always as identity
@@ -350,6 +438,9 @@ comment on column group_authorities.authority is '权限';
 alter table group_authorities
     owner to postgres;
 
+create unique index ux_group_authorities
+    on group_authorities (group_id, authority);
+
 create table groups
 (
     id                 bigint generated always as identity
@@ -524,6 +615,36 @@ comment on column oauth2_authorization.refresh_token_metadata is 'refresh token
 alter table oauth2_authorization
     owner to postgres;
 
+create index ix_oauth2_authorization_state
+    on oauth2_authorization using hash (state);
+
+create index ix_oauth2_authorization_authorization_code_value
+    on oauth2_authorization using hash (authorization_code_value);
+
+create index ix_oauth2_authorization_access_token_value
+    on oauth2_authorization using hash (access_token_value);
+
+create index ix_oauth2_authorization_oidc_id_token_value
+    on oauth2_authorization using hash (oidc_id_token_value);
+
+create index ix_oauth2_authorization_refresh_token_value
+    on oauth2_authorization using hash (refresh_token_value);
+
+create index ix_oauth2_authorization_user_code_value
+    on oauth2_authorization using hash (user_code_value);
+
+create index ix_oauth2_authorization_device_code_value
+    on oauth2_authorization using hash (device_code_value);
+
+create index ix_oauth2_authorization_expires_at
+    on oauth2_authorization (greatest(authorization_code_expires_at, access_token_expires_at, refresh_token_expires_at,
+                                      oidc_id_token_expires_at, user_code_expires_at, device_code_expires_at));
+
+create index ix_oauth2_authorization_revoked
+    on oauth2_authorization (id)
+    where (refresh_token_value is not null and refresh_token_metadata like '%"metadata.token.invalidated":true%')
+       or (refresh_token_value is null and access_token_metadata like '%"metadata.token.invalidated":true%');
+
 create table oauth2_authorization_consent
 (
     registered_client_id varchar(100)  not null,
@@ -594,8 +715,7 @@ alter table oauth2_registered_client
 
 create table operation_logs
 (
-    id                 bigint generated always as identity
-        primary key,
+    id                 bigint generated always as identity,
     module             varchar(255),
     params             varchar(255),
     ip                 inet,
@@ -608,8 +728,10 @@ create table operation_logs
     created_date       timestamp(6) default CURRENT_TIMESTAMP not null,
     last_modified_by   varchar(255),
     last_modified_date timestamp(6),
-    status_code        integer
-);
+    status_code        integer,
+    constraint operation_logs_pkey
+        primary key (id, created_date)
+) partition by range (created_date);
 
 comment on table operation_logs is '访问日志表';
 
@@ -644,6 +766,12 @@ comment on column operation_logs.status_code is '状态码';
 alter table operation_logs
     owner to postgres;
 
+create table operation_logs_default
+    partition of operation_logs default;
+
+create index ix_operation_logs_created_date
+    on operation_logs (created_date);
+
 create table persistent_logins
 (
     username  varchar(64)  not null,
@@ -974,9 +1102,7 @@ alter table samples
 
 create table scheduler_logs
 (
-    id                 bigint generated always as identity
-        constraint scheduler_log_pkey
-            primary key,
+    id                 bigint generated always as identity,
     name               varchar(255)                           not null,
     start_time         timestamp(6) with time zone,
     duration           integer      default 0,
@@ -990,8 +1116,10 @@ create table scheduler_logs
     created_by         varchar(255),
     created_date       timestamp(6) default CURRENT_TIMESTAMP not null,
     last_modified_by   varchar(255),
-    last_modified_date timestamp(6)
-);
+    last_modified_date timestamp(6),
+    constraint scheduler_log_pkey
+        primary key (id, created_date)
+) partition by range (created_date);
 
 comment on table scheduler_logs is '定时任务日志表';
 
@@ -1020,6 +1148,12 @@ comment on column scheduler_logs.last_modified_date is '最后修改时间';
 alter table scheduler_logs
     owner to postgres;
 
+create table scheduler_logs_default
+    partition of scheduler_logs default;
+
+create index ix_scheduler_logs_created_date
+    on scheduler_logs (created_date);
+
 create table schemas
 (
     id                 bigint generated always as identity
@@ -34,14 +34,16 @@ import top.leafage.hypervisor.assets.service.impl.CommentServiceImpl;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.when;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 /**
  * comment 接口测试
@@ -77,6 +79,27 @@ class CommentServiceImplTest {
         verify(commentRepository).findAll(ArgumentMatchers.<Specification<Comment>>any(), any(Pageable.class));
     }
 
+    @Test
+    void retrieve_count_statements_constant() {
+        when(commentRepository.countByReplierIn(anyCollection())).thenReturn(Map.of(1L, 2L));
+
+        for (int size : new int[]{1, 20, 200}) {
+            List<Comment> comments = LongStream.rangeClosed(1, size).mapToObj(id -> {
+                Comment comment = mock(Comment.class);
+                when(comment.getId()).thenReturn(id);
+                return comment;
+            }).toList();
+            when(commentRepository.findAll(ArgumentMatchers.<Specification<Comment>>any(),
+                    any(Pageable.class))).thenReturn(new PageImpl<>(comments));
+
+            Page<CommentVO> voPage = commentService.retrieve(0, size, "id", true, null);
+            assertEquals(size, voPage.getContent().size());
+            assertEquals(2L, voPage.getContent().getFirst().count());
+        }
+        verify(commentRepository, times(3)).countByReplierIn(anyCollection());
+        verify(commentRepository, never()).countByReplier(anyLong());
+    }
+
     @Test
     void relation() {
         when(commentRepository.findAllByPostIdAndReplierIsNull(anyLong())).thenReturn(List.of(entity));
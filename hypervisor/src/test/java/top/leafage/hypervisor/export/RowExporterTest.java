@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.leafage.hypervisor.export;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * row exporter test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class RowExporterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CriteriaBuilder cb;
+
+    @Mock
+    private TypedQuery<Row> query;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RowExporter rowExporter;
+
+    private final Specification<Row> spec = (root, criteriaQuery, builder) -> null;
+
+    @BeforeEach
+    void setUp() {
+        rowExporter = new RowExporter(entityManager, transactionManager, JsonMapper.builder().build(), 100);
+    }
+
+    @Test
+    void export_csv() throws IOException {
+        rows(new Row(1L, "a,b", 1), new Row(2L, "say \"hi\"", null), new Row(3L, "line\nbreak", 3));
+
+        assertEquals("id,name,count\r\n" +
+                "1,\"a,b\",1\r\n" +
+                "2,\"say \"\"hi\"\"\",\r\n" +
+                "3,\"line\nbreak\",3\r\n", export(ExportFormat.CSV));
+    }
+
+    @Test
+    void export_csv_formula() throws IOException {
+        rows(new Row(1L, "=1+1", -1), new Row(2L, "+1", null), new Row(3L, "-1", null),
+                new Row(4L, "@SUM(A1)", null), new Row(5L, "\tx", null), new Row(6L, "\rx", null));
+
+        // 文本单元格以公式字符开头时加单引号，数字不变
+        assertEquals("id,name,count\r\n" +
+                "1,'=1+1,-1\r\n" +
+                "2,'+1,\r\n" +
+                "3,'-1,\r\n" +
+                "4,'@SUM(A1),\r\n" +
+                "5,'\tx,\r\n" +
+                "6,\"'\rx\",\r\n", export(ExportFormat.CSV));
+    }
+
+    @Test
+    void export_csv_empty() throws IOException {
+        rows();
+
+        assertEquals("id,name,count\r\n", export(ExportFormat.CSV));
+    }
+
+    @Test
+    void export_ndjson() throws IOException {
+        rows(new Row(1L, "a", 2), new Row(2L, "line\nbreak", 3));
+
+        assertEquals("{\"id\":1,\"name\":\"a\",\"count\":2}\n" +
+                "{\"id\":2,\"name\":\"line\\nbreak\",\"count\":3}\n", export(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void export_gzip() throws IOException {
+        rows(new Row(1L, "a", 2));
+
+        ResponseEntity<StreamingResponseBody> response = ExportResponse.of("rows", "csv", true,
+                (filters, format, out) -> rowExporter.export(Row.class, spec, Row.class, Function.identity(), format, out),
+                null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResponseBody body = response.getBody();
+        assertNotNull(body);
+        body.writeTo(out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("id,name,count\r\n1,a,2\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void rows(Row... rows) {
+        given(entityManager.getCriteriaBuilder()).willReturn(cb);
+        given(entityManager.createQuery(ArgumentMatchers.<CriteriaQuery<Row>>any())).willReturn(query);
+        given(query.setHint(anyString(), any())).willReturn(query);
+        given(query.getResultStream()).willReturn(List.of(rows).stream());
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rowExporter.export(Row.class, spec, Row.class, Function.identity(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    record Row(Long id, String name, Integer count) {
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * access log filter test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class AccessLogFilterTest {
+
+    @Mock
+    private AccessLogWriter accessLogWriter;
+
+    @Test
+    void doFilter() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 1.0, 8);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.setQueryString("page=0&size=10");
+        request.setRemoteAddr("127.0.0.1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/*");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        ArgumentCaptor<AccessLogRecord> captor = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLogWriter).submit(captor.capture());
+        AccessLogRecord record = captor.getValue();
+        assertEquals("/users/1", record.url());
+        assertEquals("/users/*", record.urlPattern());
+        assertEquals("GET", record.httpMethod());
+        assertEquals("127.0.0.1", record.ip());
+        assertEquals("page=0&s", record.params());
+        assertEquals(200, record.statusCode());
+    }
+
+    @Test
+    void doFilter_long_uri() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 1.0, 8);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/" + "a".repeat(300));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/files/{*path}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        ArgumentCaptor<AccessLogRecord> captor = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLogWriter).submit(captor.capture());
+        assertEquals("/files/a", captor.getValue().url());
+        assertEquals("/files/{", captor.getValue().urlPattern());
+    }
+
+    @Test
+    void doFilter_username() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 1.0, 255);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        // 模拟安全过滤链：认证结果保存在请求属性中，返回前清空 SecurityContextHolder
+        FilterChain chain = (req, res) -> {
+            SecurityContext context = new SecurityContextImpl(
+                    UsernamePasswordAuthenticationToken.authenticated("test", null, List.of()));
+            req.setAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME, context);
+            ((HttpServletResponse) res).setStatus(403);
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ArgumentCaptor<AccessLogRecord> captor = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLogWriter).submit(captor.capture());
+        assertEquals("test", captor.getValue().createdBy());
+        assertEquals(403, captor.getValue().statusCode());
+    }
+
+    @Test
+    void doFilter_async() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 1.0, 255);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        verify(accessLogWriter, never()).submit(any());
+        response.setStatus(500);
+        request.getAsyncContext().complete();
+
+        ArgumentCaptor<AccessLogRecord> captor = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLogWriter).submit(captor.capture());
+        assertEquals(500, captor.getValue().statusCode());
+    }
+
+    @Test
+    void doFilter_sampled() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 0, 255);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(accessLogWriter, never()).submit(any());
+    }
+
+    @Test
+    void doFilter_error_kept() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 0, 255);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(500);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), response, new MockFilterChain());
+
+        verify(accessLogWriter).submit(any());
+    }
+
+    @Test
+    void doFilter_actuator() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLogWriter, true, 1.0, 255);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        verifyNoInteractions(accessLogWriter);
+    }
+}
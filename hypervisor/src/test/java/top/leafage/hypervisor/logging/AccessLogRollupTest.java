@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * access log rollup test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class AccessLogRollupTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccessLogRollup accessLogRollup;
+
+    @BeforeEach
+    void setUp() {
+        accessLogRollup = new AccessLogRollup(jdbcTemplate, transactionManager, 100, Duration.ofMinutes(1),
+                Duration.ofDays(7), Duration.ofDays(400));
+    }
+
+    @Test
+    void rollup() throws SQLException {
+        ResultSet pending = watermark(0, 10);
+        ResultSet caughtUp = watermark(10, 10);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), eq("access_logs")))
+                .thenAnswer(invocation -> invocation.<RowMapper<?>>getArgument(1).mapRow(pending, 0))
+                .thenAnswer(invocation -> invocation.<RowMapper<?>>getArgument(1).mapRow(caughtUp, 0));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(0L), eq(10L), eq(100))).thenReturn(10L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(25L);
+        ResultSet rs = aggregate();
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq("unmatched"),
+                eq(LatencyHistogram.BOUNDS_LITERAL), eq(0L), eq(10L));
+
+        assertEquals(3, accessLogRollup.rollup());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).update(anyString(), eq(10L), eq(10L), eq("access_logs"));
+        verify(jdbcTemplate).update(anyString(), eq(10L), eq(25L), eq("access_logs"));
+    }
+
+    @Test
+    void rollup_caught_up() throws SQLException {
+        ResultSet caughtUp = watermark(25, 25);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), eq("access_logs")))
+                .thenAnswer(invocation -> invocation.<RowMapper<?>>getArgument(1).mapRow(caughtUp, 0));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(25L);
+
+        assertEquals(0, accessLogRollup.rollup());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).update(anyString(), eq(25L), eq(25L), eq("access_logs"));
+    }
+
+    @Test
+    void stats() {
+        Instant to = Instant.now();
+        accessLogRollup.stats(RollupResolution.MINUTE, to.minus(Duration.ofHours(1)), to, "/users/{id}", null);
+
+        verify(jdbcTemplate).query(contains("AND url_pattern = ?"), any(RowMapper.class), eq("MINUTE"),
+                any(Timestamp.class), any(Timestamp.class), eq("/users/{id}"));
+    }
+
+    @Test
+    void stats_range_exceeded() {
+        Instant to = Instant.now();
+        assertThrows(IllegalArgumentException.class, () -> accessLogRollup.stats(RollupResolution.MINUTE,
+                to.minus(Duration.ofDays(2)), to, null, null));
+        assertThrows(IllegalArgumentException.class, () -> accessLogRollup.stats(RollupResolution.HOUR,
+                to, to, null, null));
+    }
+
+    private ResultSet watermark(long lastId, long horizonId) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("last_id")).thenReturn(lastId);
+        when(rs.getLong("horizon_id")).thenReturn(horizonId);
+        return rs;
+    }
+
+    private ResultSet aggregate() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getTimestamp("bucket")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 10, 5)));
+        when(rs.getString("url_pattern")).thenReturn("/users/{id}");
+        when(rs.getString("http_method")).thenReturn("GET");
+        when(rs.getInt("status_class")).thenReturn(2);
+        when(rs.getInt("slot")).thenReturn(LatencyHistogram.slot(12));
+        when(rs.getLong("hits")).thenReturn(3L);
+        when(rs.getLong("errors")).thenReturn(0L);
+        when(rs.getLong("duration_sum")).thenReturn(36L);
+        when(rs.getLong("duration_max")).thenReturn(14L);
+        return rs;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * access log writer test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class AccessLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AccessLogWriter accessLogWriter;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        accessLogWriter = new AccessLogWriter(jdbcTemplate, 4, 2, Duration.ofSeconds(1), OverflowPolicy.DROP,
+                Duration.ZERO);
+        accessLogWriter.bindTo(registry);
+    }
+
+    @Test
+    void flush() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(accessLogWriter.submit(record()));
+        }
+
+        assertEquals(3, accessLogWriter.flush());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, registry.get("log.writer.written").functionCounter().count());
+    }
+
+    @Test
+    void submit_full() {
+        for (int i = 0; i < 4; i++) {
+            accessLogWriter.submit(record());
+        }
+
+        assertFalse(accessLogWriter.submit(record()));
+        assertEquals(1, registry.get("log.writer.dropped").functionCounter().count());
+    }
+
+    @Test
+    void flush_failed() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("down"));
+        accessLogWriter.submit(record());
+
+        assertEquals(1, accessLogWriter.flush());
+        assertEquals(1, registry.get("log.writer.failed").functionCounter().count());
+    }
+
+    private AccessLogRecord record() {
+        return new AccessLogRecord("/users", "/users", "GET", "127.0.0.1", null, null, 200, 3, "test", Instant.now());
+    }
+}
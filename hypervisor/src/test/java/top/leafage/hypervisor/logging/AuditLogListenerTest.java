@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import top.leafage.hypervisor.system.domain.Dictionary;
+import top.leafage.hypervisor.system.domain.User;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * audit log listener test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class AuditLogListenerTest {
+
+    private static final String[] NAMES = {"username", "password", "email", "lastModifiedDate"};
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private EventListenerRegistry eventListenerRegistry;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private EntityPersister persister;
+
+    private AuditLogListener auditLogListener;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getEventListenerRegistry()).thenReturn(eventListenerRegistry);
+        auditLogListener = new AuditLogListener(entityManagerFactory, auditLogWriter);
+    }
+
+    @Test
+    void register() {
+        verify(eventListenerRegistry).appendListeners(EventType.POST_COMMIT_UPDATE, auditLogListener);
+    }
+
+    @Test
+    void requiresPostCommitHandling() {
+        doReturn(User.class).when(persister).getMappedClass();
+        assertTrue(auditLogListener.requiresPostCommitHandling(persister));
+
+        doReturn(Dictionary.class).when(persister).getMappedClass();
+        assertFalse(auditLogListener.requiresPostCommitHandling(persister));
+    }
+
+    @Test
+    void onPostUpdate() {
+        mockPersister();
+        doReturn(User.class).when(persister).getMappedClass();
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(1L);
+        when(event.getOldState()).thenReturn(new Object[]{"test", "old", "test@test.com", null});
+        when(event.getState()).thenReturn(new Object[]{"test", "new", "test@test.com", "now"});
+        when(event.getDirtyProperties()).thenReturn(new int[]{1, 3});
+
+        auditLogListener.onPostUpdate(event);
+
+        AuditLogRecord record = captured();
+        assertEquals("users", record.resource());
+        assertEquals("modify", record.action());
+        assertEquals(1L, record.targetId());
+        assertEquals(Map.of("password", "******"), record.oldValue());
+        assertEquals(Map.of("password", "******"), record.newValue());
+    }
+
+    @Test
+    void onPostUpdate_unchanged() {
+        mockPersister();
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getOldState()).thenReturn(new Object[]{"test", "old", "test@test.com", null});
+        when(event.getState()).thenReturn(new Object[]{"test", "old", "test@test.com", "now"});
+        when(event.getDirtyProperties()).thenReturn(new int[]{3});
+
+        auditLogListener.onPostUpdate(event);
+
+        verify(auditLogWriter, never()).submit(any());
+    }
+
+    @Test
+    void onPostDelete() {
+        mockPersister();
+        doReturn(User.class).when(persister).getMappedClass();
+        PostDeleteEvent event = mock(PostDeleteEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(1L);
+        when(event.getDeletedState()).thenReturn(new Object[]{"test", "secret", null, null});
+
+        auditLogListener.onPostDelete(event);
+
+        AuditLogRecord record = captured();
+        assertEquals("remove", record.action());
+        assertEquals(Map.of("username", "test", "password", "******"), record.oldValue());
+        assertTrue(record.newValue().isEmpty());
+    }
+
+    private void mockPersister() {
+        when(persister.getPropertyNames()).thenReturn(NAMES);
+        when(persister.getPropertyTypes()).thenReturn(new Type[]{mock(Type.class), mock(Type.class),
+                mock(Type.class), mock(Type.class)});
+    }
+
+    private AuditLogRecord captured() {
+        ArgumentCaptor<AuditLogRecord> captor = ArgumentCaptor.forClass(AuditLogRecord.class);
+        verify(auditLogWriter).submit(captor.capture());
+        return captor.getValue();
+    }
+}
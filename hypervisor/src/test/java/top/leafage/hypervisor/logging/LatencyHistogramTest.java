@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * latency histogram test
+ *
+ * @author wq li
+ **/
+class LatencyHistogramTest {
+
+    @Test
+    void slot() {
+        assertEquals(0, LatencyHistogram.slot(0));
+        assertEquals(0, LatencyHistogram.slot(-1));
+        assertEquals(7, LatencyHistogram.slot(8));
+        assertEquals(7, LatencyHistogram.slot(9));
+        assertEquals(LatencyHistogram.BOUNDS.length - 1, LatencyHistogram.slot(120000));
+    }
+
+    @Test
+    void merge() {
+        long[] target = LatencyHistogram.empty();
+        target[1] = 2;
+        long[] source = LatencyHistogram.empty();
+        source[1] = 3;
+        source[4] = 1;
+
+        LatencyHistogram.merge(target, source);
+
+        long[] expected = LatencyHistogram.empty();
+        expected[1] = 5;
+        expected[4] = 1;
+        assertArrayEquals(expected, target);
+    }
+
+    @Test
+    void merge_layout_mismatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LatencyHistogram.merge(new long[2], LatencyHistogram.empty()));
+    }
+
+    @Test
+    void percentile() {
+        long[] counts = LatencyHistogram.empty();
+        counts[LatencyHistogram.slot(10)] = 90;
+        counts[LatencyHistogram.slot(500)] = 9;
+        counts[LatencyHistogram.slot(2600)] = 1;
+
+        assertEquals(12, LatencyHistogram.percentile(counts, 0.5, 2600));
+        assertEquals(600, LatencyHistogram.percentile(counts, 0.95, 2600));
+        assertEquals(2600, LatencyHistogram.percentile(counts, 1, 2600));
+        assertEquals(0, LatencyHistogram.percentile(LatencyHistogram.empty(), 0.5, 0));
+    }
+
+    @Test
+    void boundsLiteral() {
+        assertEquals("{0,1,2,", LatencyHistogram.BOUNDS_LITERAL.substring(0, 7));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * log partition manager test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class LogPartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LogPartitionManager logPartitionManager;
+
+    @BeforeEach
+    void setUp() {
+        logPartitionManager = new LogPartitionManager(jdbcTemplate, transactionManager, 2, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void maintain() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("access_logs"))).thenReturn(List.of(
+                "access_logs_default", "access_logs_p20260916", "access_logs_p20260917", "access_logs_p20261017"));
+
+        LogPartitionManager.PartitionResult result = logPartitionManager.maintain("access_logs", Duration.ofDays(30), TODAY);
+
+        assertEquals(2, result.created());
+        assertEquals(1, result.dropped());
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS access_logs_p20261018 PARTITION OF access_logs " +
+                "FOR VALUES FROM ('2026-10-18') TO ('2026-10-19')");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS access_logs_p20260916");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS access_logs_p20260917");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS access_logs_default");
+    }
+
+    @Test
+    void maintain_rows_in_default() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("access_logs"))).thenReturn(List.of(
+                "access_logs_default", "access_logs_p20261017", "access_logs_p20261019"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class)))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).contains("'2026-10-18'"));
+
+        LogPartitionManager.PartitionResult result = logPartitionManager.maintain("access_logs", Duration.ofDays(30), TODAY);
+
+        assertEquals(1, result.created());
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE access_logs DETACH PARTITION access_logs_default");
+        inOrder.verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS access_logs_p20261018 PARTITION OF access_logs " +
+                "FOR VALUES FROM ('2026-10-18') TO ('2026-10-19')");
+        inOrder.verify(jdbcTemplate).execute("WITH moved AS (DELETE FROM access_logs_default " +
+                "WHERE created_date >= '2026-10-18' AND created_date < '2026-10-19' RETURNING *) " +
+                "INSERT INTO access_logs_p20261018 SELECT * FROM moved");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE access_logs ATTACH PARTITION access_logs_default DEFAULT");
+    }
+
+    @Test
+    void maintain_lock_timeout() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_logs"))).thenReturn(List.of(
+                "audit_logs_p20261017", "audit_logs_p20261018", "audit_logs_p20261019", "audit_logs_p20250101"));
+        doThrow(new CannotAcquireLockException("lock timeout")).when(jdbcTemplate)
+                .execute("DROP TABLE IF EXISTS audit_logs_p20250101");
+
+        LogPartitionManager.PartitionResult result = logPartitionManager.maintain("audit_logs", Duration.ofDays(365), TODAY);
+
+        assertEquals(0, result.created());
+        assertEquals(0, result.dropped());
+    }
+
+    @Test
+    void maintain_unknown_table() {
+        assertThrows(IllegalArgumentException.class,
+                () -> logPartitionManager.maintain("users", Duration.ofDays(30), TODAY));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * log purger test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class LogPurgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LogPurger logPurger;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        logPurger = new LogPurger(jdbcTemplate, transactionManager, 100, Duration.ZERO, Duration.ofSeconds(2),
+                Duration.ofMinutes(1));
+        logPurger.bindTo(registry);
+    }
+
+    @Test
+    void purge() {
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100))).thenReturn(100, 100, 30);
+
+        assertEquals(230, logPurger.purge("access_logs", Instant.now()));
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Timestamp.class), eq(100));
+        assertEquals(230, registry.get("log.retention.purged").tag("table", "access_logs").counter().count());
+    }
+
+    @Test
+    void purge_lock_timeout() {
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100)))
+                .thenReturn(100)
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertEquals(100, logPurger.purge("operation_logs", Instant.now()));
+    }
+
+    @Test
+    void purgeDefaultPartition() {
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100))).thenReturn(20);
+
+        assertEquals(20, logPurger.purgeDefaultPartition("access_logs", Instant.now()));
+        verify(jdbcTemplate).update(contains("DELETE FROM access_logs_default"), any(Timestamp.class), eq(100));
+        assertEquals(20, registry.get("log.retention.purged").tag("table", "access_logs").counter().count());
+    }
+
+    @Test
+    void purgeAll() {
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100))).thenReturn(100, 30, 5, 0);
+
+        assertEquals(135, logPurger.purgeAll("access_logs", Instant.now()));
+        verify(jdbcTemplate, times(4)).update(anyString(), any(Timestamp.class), eq(100));
+    }
+
+    @Test
+    void purgeAll_lock_timeout() {
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), eq(100)))
+                .thenReturn(100)
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertThrows(CannotAcquireLockException.class, () -> logPurger.purgeAll("operation_logs", Instant.now()));
+    }
+
+    @Test
+    void purge_unknown_table() {
+        assertThrows(IllegalArgumentException.class, () -> logPurger.purge("users", Instant.now()));
+    }
+}
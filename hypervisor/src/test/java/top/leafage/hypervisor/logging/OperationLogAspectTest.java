@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.logging;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+
+/**
+ * operation log aspect test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class OperationLogAspectTest {
+
+    @Mock
+    private OperationLogWriter operationLogWriter;
+
+    private Operations operations;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Operations());
+        factory.addAspect(new OperationLogAspect(operationLogWriter));
+        operations = factory.getProxy();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("127.0.0.1");
+        request.addHeader(HttpHeaders.USER_AGENT, "junit");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("test", null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void around() {
+        operations.modify(1L, Map.of("name", "test"));
+
+        OperationLogRecord record = captured();
+        assertEquals("users", record.module());
+        assertEquals("modify", record.action());
+        assertEquals(Map.of("id", 1L), record.params());
+        assertEquals(Map.of("name", "test"), record.body());
+        assertEquals("127.0.0.1", record.ip());
+        assertEquals("junit", record.userAgent());
+        assertEquals(HttpStatus.ACCEPTED.value(), record.statusCode());
+        assertEquals("test", record.createdBy());
+    }
+
+    @Test
+    void around_not_found() {
+        assertThrows(EntityNotFoundException.class, () -> operations.remove(2L));
+
+        OperationLogRecord record = captured();
+        assertEquals("remove", record.action());
+        assertEquals(HttpStatus.NOT_FOUND.value(), record.statusCode());
+    }
+
+    private OperationLogRecord captured() {
+        ArgumentCaptor<OperationLogRecord> captor = ArgumentCaptor.forClass(OperationLogRecord.class);
+        verify(operationLogWriter).submit(captor.capture());
+        return captor.getValue();
+    }
+
+    static class Operations {
+
+        @OperationLogged(module = "users", action = "modify")
+        public ResponseEntity<Void> modify(@PathVariable Long id, @RequestBody Map<String, String> dto) {
+            return ResponseEntity.accepted().build();
+        }
+
+        @OperationLogged(module = "users", action = "remove")
+        public ResponseEntity<Void> remove(@PathVariable Long id) {
+            throw new EntityNotFoundException("not found");
+        }
+    }
+}
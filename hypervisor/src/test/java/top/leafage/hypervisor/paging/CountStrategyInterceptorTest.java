@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * count strategy interceptor test
+ *
+ * @author wq li
+ **/
+class CountStrategyInterceptorTest {
+
+    private final CountStrategyInterceptor interceptor = new CountStrategyInterceptor();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        CountStrategy.clear();
+    }
+
+    @Test
+    void preHandle() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(CountStrategyInterceptor.PARAMETER, "Estimated");
+
+        interceptor.preHandle(request, response, new Object());
+        assertEquals(CountStrategy.ESTIMATED, CountStrategy.current());
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertEquals(CountStrategy.EXACT, CountStrategy.current());
+    }
+
+    @Test
+    void preHandle_default() {
+        interceptor.preHandle(new MockHttpServletRequest(), response, new Object());
+
+        assertEquals(CountStrategy.EXACT, CountStrategy.current());
+    }
+
+    @Test
+    void preHandle_invalid() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(CountStrategyInterceptor.PARAMETER, "approximate");
+
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preHandle(request, response, new Object()));
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * counting jpa repository test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class CountingJpaRepositoryTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private JpaEntityInformation<Row, Long> entityInformation;
+
+    @Mock
+    private TypedQuery<Row> query;
+
+    @Mock
+    private Query estimateQuery;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CriteriaBuilder cb;
+
+    private TestRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManager.getDelegate()).thenReturn(new Object());
+        lenient().when(entityInformation.getJavaType()).thenReturn(Row.class);
+        repository = new TestRepository(entityInformation, entityManager, query);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CountStrategy.clear();
+    }
+
+    @Test
+    void findAll_none() {
+        CountStrategy.set(CountStrategy.NONE);
+        given(query.getResultList()).willReturn(rows(3));
+
+        Page<Row> page = repository.findAll((Specification<Row>) null, PageRequest.of(0, 2));
+
+        // 多取一行判断是否有下一页，total 只比已读多一
+        verify(query).setFirstResult(0);
+        verify(query).setMaxResults(3);
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        assertTrue(page.hasNext());
+        assertEquals(0, repository.counted);
+    }
+
+    @Test
+    void findAll_none_last_page() {
+        CountStrategy.set(CountStrategy.NONE);
+        given(query.getResultList()).willReturn(rows(1));
+
+        Page<Row> page = repository.findAll((Specification<Row>) null, PageRequest.of(1, 2));
+
+        verify(query).setFirstResult(2);
+        assertEquals(1, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        assertFalse(page.hasNext());
+        assertEquals(0, repository.counted);
+    }
+
+    @Test
+    void findAll_estimated() {
+        CountStrategy.set(CountStrategy.ESTIMATED);
+        given(query.getResultList()).willReturn(rows(3));
+        estimate(5000L);
+
+        Page<Row> page = repository.findAll((Specification<Row>) null, PageRequest.of(0, 2));
+
+        assertEquals(5000, page.getTotalElements());
+        verify(estimateQuery).setParameter(1, "rows");
+        assertEquals(0, repository.counted);
+    }
+
+    @Test
+    void findAll_estimated_never_analyzed() {
+        CountStrategy.set(CountStrategy.ESTIMATED);
+        given(query.getResultList()).willReturn(rows(3));
+        estimate(0L);
+        repository.count = 42;
+
+        Page<Row> page = repository.findAll((Specification<Row>) null, PageRequest.of(0, 2));
+
+        assertEquals(42, page.getTotalElements());
+        assertEquals(1, repository.counted);
+    }
+
+    @Test
+    void findAll_estimated_filtered() {
+        CountStrategy.set(CountStrategy.ESTIMATED);
+        given(query.getResultList()).willReturn(rows(3));
+        given(entityManager.getCriteriaBuilder()).willReturn(cb);
+        Predicate predicate = mock(Predicate.class);
+        repository.count = 7;
+
+        Page<Row> page = repository.findAll((root, criteriaQuery, builder) -> predicate, PageRequest.of(0, 2));
+
+        // 过滤后的估算没有意义，改用精确计数
+        assertEquals(7, page.getTotalElements());
+        assertEquals(1, repository.counted);
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    void findAll_short_page() {
+        CountStrategy.set(CountStrategy.ESTIMATED);
+        given(query.getResultList()).willReturn(rows(2));
+
+        Page<Row> page = repository.findAll((Specification<Row>) null, PageRequest.of(0, 5));
+
+        // 不足一页时不需要计数
+        assertEquals(2, page.getTotalElements());
+        assertFalse(page.hasNext());
+        assertEquals(0, repository.counted);
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    private void estimate(long estimate) {
+        given(entityManager.createNativeQuery(anyString())).willReturn(estimateQuery);
+        given(estimateQuery.setParameter(1, "rows")).willReturn(estimateQuery);
+        given(estimateQuery.getSingleResult()).willReturn(estimate);
+    }
+
+    private static List<Row> rows(int size) {
+        return IntStream.range(0, size).mapToObj(i -> new Row()).toList();
+    }
+
+    @Table(name = "rows")
+    static class Row {
+    }
+
+    /**
+     * stubs the page query and the exact count, the rest is the repository under test.
+     */
+    static class TestRepository extends CountingJpaRepository<Row, Long> {
+
+        private final TypedQuery<Row> query;
+        private long count;
+        private int counted;
+
+        TestRepository(JpaEntityInformation<Row, Long> entityInformation, EntityManager entityManager,
+                       TypedQuery<Row> query) {
+            super(entityInformation, entityManager);
+            this.query = query;
+        }
+
+        @Override
+        protected TypedQuery<Row> getQuery(Specification<Row> spec, Pageable pageable) {
+            return query;
+        }
+
+        @Override
+        public long count(Specification<Row> spec) {
+            counted++;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.paging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * keyset test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class KeysetTest {
+
+    @Mock
+    private JpaSpecificationExecutor<Row> repository;
+
+    private static final Set<String> SORTABLE = Set.of("name");
+
+    private final Specification<Row> spec = (root, query, cb) -> null;
+
+    @Test
+    void cursor() {
+        Cursor cursor = Cursor.of("createdDate", Instant.parse("2026-10-17T08:00:00Z"), 42L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+        assertNull(Cursor.decode(""));
+    }
+
+    @Test
+    void cursor_null_value() {
+        Cursor cursor = Cursor.of("name", null, 1L);
+
+        Cursor decoded = Cursor.decode(cursor.encode());
+        assertNull(decoded.value());
+        assertEquals(1L, decoded.id());
+    }
+
+    @Test
+    void cursor_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not a cursor"));
+    }
+
+    @Test
+    void seek() {
+        doReturn(List.of(new Row(1L, "a"), new Row(2L, "b"), new Row(3L, "c"))).when(repository).findBy(any(), any());
+
+        CursorPage<Row> page = Keyset.seek(repository, spec, "", 2, "name", false, SORTABLE);
+
+        assertEquals(2, page.content().size());
+        assertTrue(page.hasNext());
+        assertEquals(new Cursor("name", "b", 2L), Cursor.decode(page.next()));
+    }
+
+    @Test
+    void seek_last() {
+        doReturn(List.of(new Row(3L, "c"))).when(repository).findBy(any(), any());
+
+        CursorPage<Row> page = Keyset.seek(repository, spec, Cursor.of("name", "b", 2L).encode(), 2, "name", false, SORTABLE);
+
+        assertEquals(1, page.content().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void seek_sort_mismatch() {
+        String cursor = Cursor.of("name", "b", 2L).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> Keyset.seek(repository, spec, cursor, 2, "id", false, SORTABLE));
+    }
+
+    @Test
+    void seek_sort_not_allowed() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> Keyset.seek(repository, spec, "", 1, "password", false, SORTABLE));
+
+        assertEquals("sort property not allowed: password", exception.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void convert() {
+        assertEquals(1L, Keyset.convert(Long.class, "1"));
+        assertEquals(Instant.parse("2026-10-17T08:00:00Z"), Keyset.convert(Instant.class, "2026-10-17T08:00:00Z"));
+        assertThrows(IllegalArgumentException.class, () -> Keyset.convert(Instant.class, "yesterday"));
+    }
+
+    public static class Row {
+
+        private final Long id;
+        private final String name;
+        private final String password = "secret";
+
+        Row(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+
+/**
+ * parse time of the {@code scope} claim against the compact authorities claim.
+ * <p>
+ * the claim sizes are asserted by the auth module {@code CompactAuthoritiesTest}. {@code *Decode} covers
+ * signature verification and claim parsing, {@code *Authorities} only the authority conversion.
+ * run with the main method, not part of the test suite.
+ *
+ * @author wq li
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactAuthoritiesBenchmark {
+
+    private static final List<String> ACTIONS = List.of("create", "modify", "remove", "enable", "import", "export");
+
+    @Param({"50", "500"})
+    public int size;
+
+    private JwtDecoder decoder;
+    private String scopeToken;
+    private String compactToken;
+    private Jwt scopeJwt;
+    private Jwt compactJwt;
+
+    private final JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
+    private final CompactAuthoritiesConverter compactConverter = new CompactAuthoritiesConverter();
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).generate();
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+        decoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+        Set<String> authorities = IntStream.range(0, size)
+                .mapToObj(i -> "privilege" + (i / ACTIONS.size()) + ":" + ACTIONS.get(i % ACTIONS.size()))
+                .collect(Collectors.toSet());
+
+        scopeToken = encode(encoder, "scope", authorities);
+        compactToken = encode(encoder, CompactAuthorities.CLAIM, compact(size));
+        scopeJwt = decoder.decode(scopeToken);
+        compactJwt = decoder.decode(compactToken);
+    }
+
+    @Benchmark
+    public Jwt scopeDecode() {
+        return decoder.decode(scopeToken);
+    }
+
+    @Benchmark
+    public Jwt compactDecode() {
+        return decoder.decode(compactToken);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> scopeAuthorities() {
+        return scopeConverter.convert(scopeJwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> compactAuthorities() {
+        return compactConverter.convert(compactJwt);
+    }
+
+    private static String encode(JwtEncoder encoder, String claim, Object value) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("test")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim(claim, value)
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+    }
+
+    /**
+     * the claim value the auth server writes for the same authorities, the encoder lives in the auth module.
+     */
+    private static String compact(int size) {
+        StringJoiner text = new StringJoiner(" ");
+        for (int p = 0; p * ACTIONS.size() < size; p++) {
+            List<String> actions = ACTIONS.subList(0, Math.min(ACTIONS.size(), size - p * ACTIONS.size()));
+            text.add("privilege" + p + ":" + String.join(",", new TreeSet<>(actions)));
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setInput(text.toString().getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[512];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return "1." + Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CompactAuthoritiesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * compact authorities test
+ *
+ * @author wq li
+ **/
+class CompactAuthoritiesTest {
+
+    /**
+     * {@code ROLE_ADMIN roles:remove users:,create,modify} as written by the auth server,
+     * the auth module asserts its encoder against the same text.
+     */
+    static final String GOLDEN = "1.C_L3cY13dPH19FMoys9JLbYqSs3NL0tVKC1OLSq20kkuSk0sSdXJzU_JTKsEAA";
+
+    private final CompactAuthoritiesConverter converter = new CompactAuthoritiesConverter();
+
+    @Test
+    void decode() {
+        assertEquals(Set.of("users", "users:create", "users:modify", "roles:remove", "ROLE_ADMIN"),
+                CompactAuthorities.decode(GOLDEN));
+    }
+
+    @Test
+    void decode_empty() {
+        assertTrue(CompactAuthorities.decode("1.AwA").isEmpty());
+    }
+
+    @Test
+    void decode_unsupported_version() {
+        assertThrows(IllegalArgumentException.class, () -> CompactAuthorities.decode("2.abc"));
+        assertThrows(IllegalArgumentException.class, () -> CompactAuthorities.decode("1.abc"));
+    }
+
+    @Test
+    void convert() {
+        Jwt jwt = jwt().claim("scope", "openid")
+                .claim(CompactAuthorities.CLAIM, GOLDEN)
+                .build();
+
+        Set<String> authorities = converter.convert(jwt).stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("SCOPE_openid", "SCOPE_users", "SCOPE_users:create", "SCOPE_users:modify",
+                "SCOPE_roles:remove", "SCOPE_ROLE_ADMIN"), authorities);
+    }
+
+    @Test
+    void convert_scope_only() {
+        Jwt jwt = jwt().claim("scope", "users users:create").build();
+
+        assertEquals(2, converter.convert(jwt).size());
+    }
+
+    @Test
+    void convert_malformed() {
+        Jwt jwt = jwt().claim(CompactAuthorities.CLAIM, "1.abc").build();
+
+        assertThrows(InvalidBearerTokenException.class, () -> converter.convert(jwt));
+    }
+
+    private Jwt.Builder jwt() {
+        return Jwt.withTokenValue("token").header("alg", "none").subject("test");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * compare the compiled checks with SpEL evaluation, on a jwt carrying hundreds of scopes, with a new
+ * token per call as each request gets one.
+ * <p>
+ * run with the main method, not part of the test suite.
+ *
+ * @author wq li
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledAuthorizationManagerBenchmark {
+
+    @Param({"50", "500"})
+    public int scopes;
+
+    private Jwt jwt;
+    private List<GrantedAuthority> authorities;
+    private Set<String> authorityNames;
+    private SimpleMethodInvocation invocation;
+    private PreAuthorizeAuthorizationManager spel;
+    private CompiledAuthorizationManager compiled;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        // 需要的scope放在最后，模拟最差情况
+        String scope = IntStream.range(0, scopes)
+                .mapToObj(i -> "resource" + i + ":read")
+                .collect(Collectors.joining(" ")) + " users:create";
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("test")
+                .claim("scope", scope)
+                .build();
+        authorities = List.copyOf(new JwtAuthenticationConverter().convert(jwt).getAuthorities());
+        authorityNames = authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toUnmodifiableSet());
+        invocation = new SimpleMethodInvocation(new Controller(), Controller.class.getMethod("create"));
+        spel = new PreAuthorizeAuthorizationManager();
+        compiled = new CompiledAuthorizationManager();
+    }
+
+    @Benchmark
+    public boolean spel() {
+        Authentication authentication = new JwtAuthenticationToken(jwt, authorities, "test");
+        return spel.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        Authentication authentication = new HashedJwtAuthenticationToken(jwt, authorities, "test", authorityNames);
+        return compiled.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    @Benchmark
+    public boolean compiledUnhashed() {
+        Authentication authentication = new JwtAuthenticationToken(jwt, authorities, "test");
+        return compiled.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CompiledAuthorizationManagerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    public static class Controller {
+
+        @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:create')")
+        public void create() {
+        }
+    }
+}
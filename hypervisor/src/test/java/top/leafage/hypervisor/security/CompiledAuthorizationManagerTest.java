@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * compiled authorization manager test
+ *
+ * @author wq li
+ **/
+class CompiledAuthorizationManagerTest {
+
+    private final CompiledAuthorizationManager manager = new CompiledAuthorizationManager();
+
+    @Test
+    void compile() {
+        assertArrayEquals(new String[]{"ROLE_ADMIN", "SCOPE_users:create"},
+                CompiledAuthorizationManager.compile("hasRole('ADMIN') || hasAuthority('SCOPE_users:create')"));
+        assertArrayEquals(new String[]{"SCOPE_users"}, CompiledAuthorizationManager.compile("hasAuthority('SCOPE_users')"));
+        assertNull(CompiledAuthorizationManager.compile("hasRole('ADMIN') && hasAuthority('SCOPE_users')"));
+        assertNull(CompiledAuthorizationManager.compile("#id == principal.name"));
+    }
+
+    @Test
+    void authorize_scope() throws NoSuchMethodException {
+        Authentication authentication = new TestingAuthenticationToken("test", null, "SCOPE_users:create");
+
+        assertTrue(decide(authentication, "create"));
+        assertFalse(decide(authentication, "remove"));
+    }
+
+    @Test
+    void authorize_role() throws NoSuchMethodException {
+        Authentication authentication = new TestingAuthenticationToken("test", null, "ROLE_ADMIN");
+
+        assertTrue(decide(authentication, "create"));
+        assertFalse(decide(authentication, "imports"));
+    }
+
+    @Test
+    void authorize_fallback() throws NoSuchMethodException {
+        Authentication authentication = new TestingAuthenticationToken("test", null, "ROLE_ADMIN", "SCOPE_users");
+
+        assertTrue(decide(authentication, "both"));
+        assertFalse(decide(new TestingAuthenticationToken("test", null, "ROLE_ADMIN"), "both"));
+    }
+
+    @Test
+    void authorize_hashed() throws NoSuchMethodException {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("test").build();
+        // 使用已哈希的名称而不是重新遍历 authorities
+        Authentication authentication = new HashedJwtAuthenticationToken(jwt, AuthorityUtils.NO_AUTHORITIES, "test",
+                Set.of("SCOPE_users:create"));
+
+        assertTrue(decide(authentication, "create"));
+        assertFalse(decide(authentication, "remove"));
+    }
+
+    @Test
+    void authorize_fallback_expression_handler() throws NoSuchMethodException {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setRoleHierarchy(RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+        CompiledAuthorizationManager withHierarchy = new CompiledAuthorizationManager(expressionHandler);
+        Authentication authentication = new TestingAuthenticationToken("test", null, "ROLE_ADMIN", "SCOPE_users");
+
+        assertTrue(decide(withHierarchy, authentication, "user"));
+        assertFalse(decide(manager, authentication, "user"));
+    }
+
+    private boolean decide(Authentication authentication, String method) throws NoSuchMethodException {
+        return decide(manager, authentication, method);
+    }
+
+    private boolean decide(CompiledAuthorizationManager authorizationManager, Authentication authentication,
+                           String method) throws NoSuchMethodException {
+        Controller target = new Controller();
+        SimpleMethodInvocation invocation = new SimpleMethodInvocation(target, Controller.class.getMethod(method));
+        return authorizationManager.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    static class Controller {
+
+        @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:create')")
+        public void create() {
+        }
+
+        @PreAuthorize("hasRole('ADMIN') || hasAuthority('SCOPE_users:remove')")
+        public void remove() {
+        }
+
+        @PreAuthorize("hasAuthority('SCOPE_users:import')")
+        public void imports() {
+        }
+
+        @PreAuthorize("hasRole('ADMIN') && hasAuthority('SCOPE_users')")
+        public void both() {
+        }
+
+        @PreAuthorize("hasRole('USER') && hasAuthority('SCOPE_users')")
+        public void user() {
+        }
+    }
+}
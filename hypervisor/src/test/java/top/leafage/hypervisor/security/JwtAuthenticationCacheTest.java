@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * jwt authentication cache test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtAuthenticationCache = new JwtAuthenticationCache(delegate, 100, Duration.ofMinutes(10),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void authenticate() {
+        JwtAuthenticationToken authenticated = authenticated(NOW.plusSeconds(3600));
+        when(delegate.authenticate(any(BearerTokenAuthenticationToken.class))).thenReturn(authenticated);
+
+        Authentication first = jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        Authentication second = jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        assertNotSame(first, second);
+        assertSame(authenticated.getToken(), ((JwtAuthenticationToken) second).getToken());
+        assertEquals("test", second.getName());
+        assertTrue(second.isAuthenticated());
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_hashed() {
+        JwtAuthenticationToken authenticated = new JwtAuthenticationToken(authenticated(NOW.plusSeconds(3600)).getToken(),
+                AuthorityUtils.createAuthorityList("SCOPE_users:read", "ROLE_ADMIN"));
+        when(delegate.authenticate(any(BearerTokenAuthenticationToken.class))).thenReturn(authenticated);
+
+        Authentication first = jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        Authentication second = jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        HashedJwtAuthenticationToken hashed = assertInstanceOf(HashedJwtAuthenticationToken.class, second);
+        assertEquals(Set.of("SCOPE_users:read", "ROLE_ADMIN"), hashed.getAuthorityNames());
+        assertSame(((HashedJwtAuthenticationToken) first).getAuthorityNames(), hashed.getAuthorityNames());
+    }
+
+    @Test
+    void authenticate_details() {
+        when(delegate.authenticate(any(BearerTokenAuthenticationToken.class))).thenReturn(authenticated(NOW.plusSeconds(3600)));
+        BearerTokenAuthenticationToken first = new BearerTokenAuthenticationToken("token");
+        first.setDetails("first");
+        BearerTokenAuthenticationToken second = new BearerTokenAuthenticationToken("token");
+        second.setDetails("second");
+
+        assertEquals("first", jwtAuthenticationCache.authenticate(first).getDetails());
+        assertEquals("second", jwtAuthenticationCache.authenticate(second).getDetails());
+    }
+
+    @Test
+    void authenticate_other_token() {
+        when(delegate.authenticate(any(BearerTokenAuthenticationToken.class))).thenReturn(authenticated(NOW.plusSeconds(3600)));
+
+        jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("other"));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_expired() {
+        when(delegate.authenticate(any(BearerTokenAuthenticationToken.class))).thenReturn(authenticated(NOW.minusSeconds(1)));
+
+        jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token"));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_error() {
+        when(delegate.authenticate(any(BearerTokenAuthenticationToken.class))).thenThrow(new InvalidBearerTokenException("invalid"));
+
+        assertThrows(InvalidBearerTokenException.class,
+                () -> jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token")));
+        assertThrows(InvalidBearerTokenException.class,
+                () -> jwtAuthenticationCache.authenticate(new BearerTokenAuthenticationToken("token")));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void bindTo() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtAuthenticationCache.bindTo(registry);
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "jwt_authentication").meter());
+    }
+
+    private JwtAuthenticationToken authenticated(Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("test")
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * user details notifier test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class UserDetailsNotifierTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private UserDetailsNotifier userDetailsNotifier;
+
+    @Test
+    void invalidate() {
+        userDetailsNotifier.invalidate(List.of("test", "other"));
+
+        verify(jdbcTemplate).queryForList(anyString(), eq(UserDetailsNotifier.CHANNEL), eq("test,other"));
+    }
+
+    @Test
+    void invalidate_chunked() {
+        List<String> usernames = IntStream.range(0, 1000).mapToObj(i -> "username" + i).toList();
+
+        userDetailsNotifier.invalidate(usernames);
+
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(UserDetailsNotifier.CHANNEL), anyString());
+    }
+
+    @Test
+    void invalidate_empty() {
+        userDetailsNotifier.invalidate(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void invalidateAll() {
+        userDetailsNotifier.invalidateAll();
+
+        verify(jdbcTemplate).queryForList(anyString(), eq(UserDetailsNotifier.CHANNEL), eq(UserDetailsNotifier.ALL));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import top.leafage.hypervisor.system.domain.Privilege;
+import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
+import top.leafage.hypervisor.system.repository.PrivilegeRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * privilege hierarchy test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class PrivilegeHierarchyTest {
+
+    @Mock
+    private PrivilegeRepository privilegeRepository;
+
+    @InjectMocks
+    private PrivilegeHierarchy privilegeHierarchy;
+
+    private List<Privilege> privileges;
+
+    @BeforeEach
+    void setUp() {
+        //  1
+        //  ├── 2
+        //  │   └── 4
+        //  └── 3
+        //  5
+        privileges = List.of(
+                privilege(1L, null),
+                privilege(2L, 1L),
+                privilege(3L, 1L),
+                privilege(4L, 2L),
+                privilege(5L, null)
+        );
+    }
+
+    @Test
+    void subset() {
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(privileges);
+
+        List<PrivilegeVO> subset = privilegeHierarchy.subset(1L);
+        assertEquals(List.of(2L, 3L), subset.stream().map(PrivilegeVO::id).toList());
+        assertEquals(1, subset.getFirst().count());
+        assertEquals(0, subset.getLast().count());
+        assertTrue(privilegeHierarchy.subset(4L).isEmpty());
+        assertTrue(privilegeHierarchy.subset(9L).isEmpty());
+        // 只加载一次
+        verify(privilegeRepository, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void ancestors() {
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(privileges);
+
+        assertEquals(List.of(1L, 2L), privilegeHierarchy.ancestors(4L).stream().map(PrivilegeVO::id).toList());
+        assertTrue(privilegeHierarchy.ancestors(5L).isEmpty());
+    }
+
+    @Test
+    void descendants() {
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(privileges);
+
+        assertEquals(List.of(2L, 4L, 3L), privilegeHierarchy.descendants(1L).stream().map(PrivilegeVO::id).toList());
+        assertTrue(privilegeHierarchy.descendants(5L).isEmpty());
+    }
+
+    @Test
+    void invalidate() {
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(privileges,
+                List.of(privilege(1L, null), privilege(2L, 1L)));
+
+        assertEquals(2, privilegeHierarchy.subset(1L).size());
+        privilegeHierarchy.invalidate();
+        assertEquals(1, privilegeHierarchy.subset(1L).size());
+        verify(privilegeRepository, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void decide() {
+        Privilege disabled = privilege(3L, 1L);
+        disabled.setEnabled(false);
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(List.of(
+                new Privilege(1L, "privilege1", null, "/1", null, null, null, Set.of("read", "create", "remove"), null),
+                privilege(2L, 1L),
+                disabled));
+
+        PrivilegeBits bits = privilegeHierarchy.compile(Map.of(
+                1L, Set.of("create", "unknown"),
+                2L, Set.of(),
+                3L, Set.of("read"),
+                9L, Set.of("read")));
+        assertTrue(privilegeHierarchy.isCurrent(bits));
+        assertTrue(privilegeHierarchy.decide(bits, 1L, null));
+        assertTrue(privilegeHierarchy.decide(bits, 1L, "create"));
+        assertFalse(privilegeHierarchy.decide(bits, 1L, "read"));
+        assertFalse(privilegeHierarchy.decide(bits, 1L, "unknown"));
+        assertTrue(privilegeHierarchy.decide(bits, 2L, ""));
+        assertFalse(privilegeHierarchy.decide(bits, 2L, "read"));
+        assertFalse(privilegeHierarchy.decide(bits, 3L, null));
+        assertFalse(privilegeHierarchy.decide(bits, 9L, null));
+    }
+
+    @Test
+    void decide_wide() {
+        List<Privilege> many = LongStream.rangeClosed(1, 200).mapToObj(id -> privilege(id, null)).toList();
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(many);
+
+        PrivilegeBits bits = privilegeHierarchy.compile(Map.of(150L, Set.of("read")));
+        assertTrue(privilegeHierarchy.decide(bits, 150L, "read"));
+        assertFalse(privilegeHierarchy.decide(bits, 149L, "read"));
+        assertFalse(privilegeHierarchy.decide(bits, 151L, null));
+    }
+
+    @Test
+    void decide_stale() {
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(privileges);
+
+        PrivilegeBits bits = privilegeHierarchy.compile(Map.of(1L, Set.of()));
+        privilegeHierarchy.invalidate();
+        assertFalse(privilegeHierarchy.isCurrent(bits));
+        assertFalse(privilegeHierarchy.decide(bits, 1L, null));
+    }
+
+    @Test
+    void cycle() {
+        when(privilegeRepository.findAllByOrderByIdAsc()).thenReturn(List.of(privilege(1L, 2L), privilege(2L, 1L)));
+
+        assertEquals(List.of(2L), privilegeHierarchy.descendants(1L).stream().map(PrivilegeVO::id).toList());
+        assertEquals(2, privilegeHierarchy.ancestors(1L).size());
+    }
+
+    private Privilege privilege(Long id, Long superiorId) {
+        return new Privilege(id, "privilege" + id, superiorId, "/" + id, null, null, null, Set.of("read"), null);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import top.leafage.common.data.domain.TreeNode;
+import top.leafage.hypervisor.security.UserDetailsNotifier;
+import top.leafage.hypervisor.system.domain.GroupMembers;
+import top.leafage.hypervisor.system.domain.GroupRoles;
+import top.leafage.hypervisor.system.domain.RoleMembers;
+import top.leafage.hypervisor.system.repository.GroupMembersRepository;
+import top.leafage.hypervisor.system.repository.GroupRolesRepository;
+import top.leafage.hypervisor.system.repository.RoleMembersRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.verify;
+
+/**
+ * privilege tree cache test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class PrivilegeTreeCacheTest {
+
+    @Mock
+    private GroupMembersRepository groupMembersRepository;
+
+    @Mock
+    private GroupRolesRepository groupRolesRepository;
+
+    @Mock
+    private RoleMembersRepository roleMembersRepository;
+
+    @Mock
+    private UserDetailsNotifier userDetailsNotifier;
+
+    private PrivilegeTreeCache privilegeTreeCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        privilegeTreeCache = new PrivilegeTreeCache(groupMembersRepository, groupRolesRepository,
+                roleMembersRepository, userDetailsNotifier, 100, Duration.ofMinutes(5));
+        loads.set(0);
+    }
+
+    @Test
+    void get() {
+        privilegeTreeCache.get("test", this::load);
+        privilegeTreeCache.get("test", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict() {
+        privilegeTreeCache.get("test", this::load);
+        privilegeTreeCache.get("other", this::load);
+
+        privilegeTreeCache.evict(Set.of("test"));
+        privilegeTreeCache.get("test", this::load);
+        privilegeTreeCache.get("other", this::load);
+        assertEquals(3, loads.get());
+        verify(userDetailsNotifier).invalidate(Set.of("test"));
+    }
+
+    @Test
+    void evictRole() {
+        when(roleMembersRepository.findAllByRoleId(anyLong())).thenReturn(List.of(new RoleMembers(1L, "test")));
+        when(groupRolesRepository.findAllByRoleId(anyLong())).thenReturn(List.of(new GroupRoles(2L, 1L)));
+        when(groupMembersRepository.findAllByGroupId(anyLong())).thenReturn(List.of(new GroupMembers(2L, "member")));
+        privilegeTreeCache.get("test", this::load);
+        privilegeTreeCache.get("member", this::load);
+        privilegeTreeCache.get("other", this::load);
+
+        privilegeTreeCache.evictRole(1L);
+        privilegeTreeCache.get("test", this::load);
+        privilegeTreeCache.get("member", this::load);
+        privilegeTreeCache.get("other", this::load);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evictAll() {
+        privilegeTreeCache.get("test", this::load);
+
+        privilegeTreeCache.evictAll();
+        privilegeTreeCache.get("test", this::load);
+        assertEquals(2, loads.get());
+        verify(userDetailsNotifier).invalidateAll();
+    }
+
+    @Test
+    void evictAll_bits() {
+        PrivilegeBits bits = new PrivilegeBits(0, new long[1]);
+        privilegeTreeCache.getBits("test", username -> {
+            loads.incrementAndGet();
+            return bits;
+        });
+        assertSame(bits, privilegeTreeCache.getBits("test", username -> null));
+
+        privilegeTreeCache.evictAll();
+        assertNull(privilegeTreeCache.getBits("test", username -> null));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void bindTo() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        privilegeTreeCache.bindTo(registry);
+        privilegeTreeCache.get("test", this::load);
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "privilege_tree").meter());
+    }
+
+    private List<TreeNode<Long>> load(String username) {
+        loads.incrementAndGet();
+        return List.of(TreeNode.withId(1L).name(username).build());
+    }
+}
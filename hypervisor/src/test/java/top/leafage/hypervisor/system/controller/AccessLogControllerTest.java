@@ -25,15 +25,24 @@ import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import top.leafage.hypervisor.export.ExportFormat;
 import top.leafage.hypervisor.system.controller.AccessLogController;
+import top.leafage.hypervisor.system.domain.vo.AccessLogStatVO;
 import top.leafage.hypervisor.system.domain.vo.AccessLogVO;
 import top.leafage.hypervisor.system.service.AccessLogService;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -101,6 +110,76 @@ class AccessLogControllerTest {
                 .hasStatus5xxServerError();
     }
 
+    @Test
+    void export() throws IOException {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("id,url\n1,test\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(accessLogService).export(anyString(), eq(ExportFormat.CSV), any(OutputStream.class));
+
+        assertThat(mvc.get().uri("/access-logs/export")
+                .queryParam("filters", "url:like:test")
+        )
+                .hasStatusOk()
+                .hasContentTypeCompatibleWith("text/csv")
+                .hasHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"access_logs.csv\"")
+                .hasBodyTextEqualTo("id,url\n1,test\n");
+    }
+
+    @Test
+    void export_gzip() throws IOException {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(accessLogService).export(isNull(), eq(ExportFormat.NDJSON), any(OutputStream.class));
+
+        assertThat(mvc.get().uri("/access-logs/export")
+                .queryParam("format", "ndjson")
+                .queryParam("gzip", "true")
+        )
+                .hasStatusOk()
+                .hasContentTypeCompatibleWith("application/gzip")
+                .hasHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"access_logs.ndjson.gz\"")
+                .body().satisfies(body -> {
+                    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                        assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}\n");
+                    }
+                });
+    }
+
+    @Test
+    void export_invalid_format() {
+        assertThat(mvc.get().uri("/access-logs/export").queryParam("format", "xml"))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void stats() {
+        AccessLogStatVO statVO = new AccessLogStatVO(Instant.parse("2026-01-01T10:00:00Z"), "/users/{id}", "GET",
+                2, 4, 0, 57, 200, 12, 250, 250);
+        when(accessLogService.stats(eq("hour"), any(Instant.class), isNull(), isNull(), isNull()))
+                .thenReturn(List.of(statVO));
+
+        assertThat(mvc.get().uri("/access-logs/stats")
+                .queryParam("resolution", "hour")
+                .queryParam("from", "2026-01-01T00:00:00Z")
+        )
+                .hasStatusOk()
+                .bodyJson().extractingPath("$[0].p50").isEqualTo(12);
+    }
+
+    @Test
+    void stats_error() {
+        when(accessLogService.stats(anyString(), any(Instant.class), isNull(), isNull(), isNull()))
+                .thenThrow(new IllegalArgumentException());
+
+        assertThat(mvc.get().uri("/access-logs/stats")
+                .queryParam("resolution", "day")
+                .queryParam("from", "2026-01-01T00:00:00Z")
+        )
+                .hasStatus(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void fetch() {
         when(accessLogService.fetch(anyLong())).thenReturn(Mockito.mock(AccessLogVO.class));
@@ -136,10 +215,11 @@ class AccessLogControllerTest {
 
     @Test
     void clear() {
-        this.accessLogService.clear();
+        when(accessLogService.clear()).thenReturn(3L);
 
         assertThat(mvc.delete().uri("/access-logs").with(csrf().asHeader()))
-                .hasStatus(HttpStatus.NO_CONTENT);
+                .hasStatusOk()
+                .bodyJson().isEqualTo("3");
     }
 
     @Test
@@ -37,6 +37,7 @@ import top.leafage.hypervisor.system.domain.GroupMembers;
 import top.leafage.hypervisor.system.domain.GroupPrivileges;
 import top.leafage.hypervisor.system.domain.GroupRoles;
 import top.leafage.hypervisor.system.domain.dto.GroupDTO;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.domain.vo.GroupVO;
 import top.leafage.hypervisor.system.service.GroupMembersService;
 import top.leafage.hypervisor.system.service.GroupPrivilegesService;
@@ -415,4 +416,42 @@ class GroupControllerTest {
                 .element(0).satisfies(vo -> assertThat(vo.name()).isEqualTo("test"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void relationPrivileges_batch() {
+        when(groupPrivilegesService.relationAll(anyLong(), anyList())).thenReturn(List.of(mock(GroupPrivileges.class)));
+
+        assertThat(mvc.patch().uri("/groups/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(1L, Set.of("create")))))
+                .with(csrf().asHeader())
+        )
+                .hasStatusOk()
+                .bodyJson()
+                .convertTo(InstanceOfAssertFactories.list(GroupPrivileges.class))
+                .hasSize(1);
+    }
+
+    @Test
+    void relationPrivileges_batch_invalid() {
+        assertThat(mvc.patch().uri("/groups/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(null, Set.of("create")))))
+                .with(csrf().asHeader())
+        )
+                .hasStatus(HttpStatus.BAD_REQUEST);
+        verify(groupPrivilegesService, never()).relationAll(anyLong(), anyList());
+    }
+
+    @Test
+    void removePrivileges_batch() {
+        doNothing().when(groupPrivilegesService).removeRelationAll(anyLong(), anyList());
+
+        assertThat(mvc.delete().uri("/groups/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(1L, null))))
+                .with(csrf().asHeader())
+        )
+                .hasStatus(HttpStatus.NO_CONTENT);
+        verify(groupPrivilegesService).removeRelationAll(anyLong(), anyList());
+    }
+}
@@ -137,10 +137,11 @@ class OperationLogControllerTest {
 
     @Test
     void clear() {
-        this.operationLogService.clear();
+        when(operationLogService.clear()).thenReturn(3L);
 
         assertThat(mvc.delete().uri("/operation-logs").with(csrf().asHeader()))
-                .hasStatus(HttpStatus.NO_CONTENT);
+                .hasStatusOk()
+                .bodyJson().isEqualTo("3");
     }
 
     @Test
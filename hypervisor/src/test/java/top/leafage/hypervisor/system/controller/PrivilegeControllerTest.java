@@ -32,6 +32,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
 import tools.jackson.databind.ObjectMapper;
 import top.leafage.common.data.domain.TreeNode;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeCheckDTO;
 import top.leafage.hypervisor.system.domain.dto.PrivilegeDTO;
 import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
 import top.leafage.hypervisor.system.service.PrivilegeService;
@@ -45,6 +46,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
@@ -155,6 +157,46 @@ class PrivilegeControllerTest {
                 .element(0).satisfies(vo -> assertThat(vo.name()).isEqualTo("test"));
     }
 
+    @Test
+    void authorize() {
+        when(privilegeService.authorize("test", 1L, "create")).thenReturn(true);
+
+        assertThat(mvc.get().uri("/privileges/{id}/authorize", 1L)
+                .queryParam("username", "test")
+                .queryParam("action", "create"))
+                .hasStatusOk()
+                .bodyJson()
+                .convertTo(Boolean.class)
+                .isEqualTo(true);
+    }
+
+    @Test
+    void authorize_batch() {
+        when(privilegeService.authorize(eq("test"), anyList())).thenReturn(new boolean[]{true, false});
+
+        assertThat(mvc.post().uri("/privileges/authorize")
+                .queryParam("username", "test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeCheckDTO(1L, "create"),
+                        new PrivilegeCheckDTO(2L, null))))
+                .with(csrf().asHeader()))
+                .hasStatusOk()
+                .bodyJson()
+                .isEqualTo("[true,false]");
+    }
+
+    @Test
+    void authorize_batch_invalid() {
+        assertThat(mvc.post().uri("/privileges/authorize")
+                .queryParam("username", "test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeCheckDTO(1L, "create"),
+                        new PrivilegeCheckDTO(null, "create"))))
+                .with(csrf().asHeader()))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+        verify(privilegeService, never()).authorize(anyString(), anyList());
+    }
+
     @Test
     void modify() {
         when(privilegeService.modify(anyLong(), any(PrivilegeDTO.class))).thenReturn(vo);
@@ -35,6 +35,7 @@ import top.leafage.hypervisor.system.controller.RoleController;
 import top.leafage.hypervisor.system.domain.RoleMembers;
 import top.leafage.hypervisor.system.domain.RolePrivileges;
 import top.leafage.hypervisor.system.domain.dto.RoleDTO;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.domain.vo.RoleVO;
 import top.leafage.hypervisor.system.service.RoleMembersService;
 import top.leafage.hypervisor.system.service.RolePrivilegesService;
@@ -336,4 +337,54 @@ class RoleControllerTest {
         )
                 .hasStatus(HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    @Test
+    void relationPrivileges_batch() {
+        when(rolePrivilegesService.relationAll(anyLong(), anyList())).thenReturn(List.of(mock(RolePrivileges.class)));
+
+        assertThat(mvc.patch().uri("/roles/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(1L, Set.of("create")))))
+                .with(csrf().asHeader())
+        )
+                .hasStatusOk()
+                .bodyJson()
+                .convertTo(InstanceOfAssertFactories.list(RolePrivileges.class))
+                .hasSize(1);
+    }
+
+    @Test
+    void relationPrivileges_batch_invalid() {
+        assertThat(mvc.patch().uri("/roles/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(null, Set.of("create")))))
+                .with(csrf().asHeader())
+        )
+                .hasStatus(HttpStatus.BAD_REQUEST);
+        verify(rolePrivilegesService, never()).relationAll(anyLong(), anyList());
+    }
+
+    @Test
+    void relationPrivileges_batch_blank_action() {
+        assertThat(mvc.patch().uri("/roles/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(1L, Set.of(" ")))))
+                .with(csrf().asHeader())
+        )
+                .hasStatus(HttpStatus.BAD_REQUEST);
+        verify(rolePrivilegesService, never()).relationAll(anyLong(), anyList());
+    }
+
+    @Test
+    void removePrivileges_batch() {
+        doNothing().when(rolePrivilegesService).removeRelationAll(anyLong(), anyList());
+
+        assertThat(mvc.delete().uri("/roles/{id}/privileges", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(new PrivilegeGrantDTO(1L, null))))
+                .with(csrf().asHeader())
+        )
+                .hasStatus(HttpStatus.NO_CONTENT);
+        verify(rolePrivilegesService).removeRelationAll(anyLong(), anyList());
+    }
+}
@@ -138,10 +138,11 @@ class SchedulerLogControllerTest {
 
     @Test
     void clear() {
-        this.schedulerLogService.clear();
+        when(schedulerLogService.clear()).thenReturn(3L);
 
         assertThat(mvc.delete().uri("/scheduler-logs").with(csrf().asHeader()))
-                .hasStatus(HttpStatus.NO_CONTENT);
+                .hasStatusOk()
+                .bodyJson().isEqualTo("3");
     }
 
     @Test
@@ -30,6 +30,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
 import tools.jackson.databind.ObjectMapper;
+import top.leafage.hypervisor.paging.CursorPage;
 import top.leafage.hypervisor.system.domain.dto.UserDTO;
 import top.leafage.hypervisor.system.domain.vo.UserVO;
 import top.leafage.hypervisor.system.service.UserService;
@@ -111,6 +112,34 @@ class UserControllerTest {
                 .hasStatus5xxServerError();
     }
 
+    @Test
+    void retrieve_invalid_count() {
+        assertThat(mvc.get().uri("/users")
+                .queryParam("page", "0")
+                .queryParam("size", "2")
+                .queryParam("count", "approximate")
+        )
+                .hasStatus(HttpStatus.BAD_REQUEST);
+
+        verify(userService, never()).retrieve(anyInt(), anyInt(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void seek() {
+        when(userService.seek(anyString(), anyInt(), anyString(), anyBoolean(), any()))
+                .thenReturn(new CursorPage<>(List.of(vo), "next"));
+
+        assertThat(mvc.get().uri("/users")
+                .queryParam("cursor", "")
+                .queryParam("size", "2")
+                .queryParam("sortBy", "id")
+        )
+                .hasStatusOk()
+                .bodyJson().extractingPath("$.next").isEqualTo("next");
+
+        verify(userService, never()).retrieve(anyInt(), anyInt(), any(), anyBoolean(), any());
+    }
+
     @Test
     void fetch() {
         when(userService.fetch(anyLong())).thenReturn(vo);
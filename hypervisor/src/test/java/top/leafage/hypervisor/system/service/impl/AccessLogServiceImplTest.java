@@ -27,17 +27,30 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import top.leafage.hypervisor.export.ExportFormat;
+import top.leafage.hypervisor.export.RowExporter;
+import top.leafage.hypervisor.logging.AccessLogRollup;
+import top.leafage.hypervisor.logging.AccessLogStat;
+import top.leafage.hypervisor.logging.LatencyHistogram;
+import top.leafage.hypervisor.logging.LogPurger;
+import top.leafage.hypervisor.logging.RollupResolution;
 import top.leafage.hypervisor.system.domain.AccessLog;
+import top.leafage.hypervisor.system.domain.vo.AccessLogStatVO;
 import top.leafage.hypervisor.system.domain.vo.AccessLogVO;
 import top.leafage.hypervisor.system.repository.AccessLogRepository;
 import top.leafage.hypervisor.system.service.impl.AccessLogServiceImpl;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.when;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -53,6 +66,15 @@ class AccessLogServiceImplTest {
     @Mock
     private AccessLogRepository accessLogRepository;
 
+    @Mock
+    private LogPurger logPurger;
+
+    @Mock
+    private RowExporter rowExporter;
+
+    @Mock
+    private AccessLogRollup accessLogRollup;
+
     @InjectMocks
     private AccessLogServiceImpl accessLogService;
 
@@ -122,9 +144,42 @@ class AccessLogServiceImplTest {
 
     @Test
     void clear() {
-        accessLogService.clear();
+        when(logPurger.purgeAll(eq("access_logs"), any(Instant.class))).thenReturn(3L);
+
+        assertEquals(3L, accessLogService.clear());
+    }
 
-        verify(accessLogRepository).deleteAll();
+    @Test
+    void export() throws IOException {
+        OutputStream out = new ByteArrayOutputStream();
+        accessLogService.export("url:like:test", ExportFormat.CSV, out);
+
+        verify(rowExporter).export(eq(AccessLog.class), ArgumentMatchers.<Specification<AccessLog>>any(),
+                eq(AccessLogVO.class), any(), eq(ExportFormat.CSV), eq(out));
+    }
+
+    @Test
+    void stats() {
+        long[] histogram = LatencyHistogram.empty();
+        histogram[LatencyHistogram.slot(10)] = 3;
+        histogram[LatencyHistogram.slot(200)] = 1;
+        Instant to = Instant.now();
+        Instant from = to.minusSeconds(3600);
+        when(accessLogRollup.stats(RollupResolution.HOUR, from, to, null, "GET")).thenReturn(List.of(
+                new AccessLogStat(from, "/users/{id}", "GET", 2, 4, 0, 230, 200, histogram)));
+
+        List<AccessLogStatVO> voList = accessLogService.stats("hour", from, to, null, "GET");
+        assertEquals(1, voList.size());
+        assertEquals(57, voList.getFirst().avg());
+        assertEquals(12, voList.getFirst().p50());
+        assertEquals(200, voList.getFirst().p99());
+    }
+
+    @Test
+    void stats_invalid_resolution() {
+        Instant to = Instant.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> accessLogService.stats("day", to.minusSeconds(60), to, null, null));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024-2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.hypervisor.system.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
+import top.leafage.hypervisor.system.domain.vo.ReconcileVO;
+import top.leafage.hypervisor.system.repository.GroupAuthoritiesRepository;
+import top.leafage.hypervisor.system.repository.GroupRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.when;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * group authorities service test
+ *
+ * @author wq li
+ **/
+@ExtendWith(MockitoExtension.class)
+class GroupAuthoritiesServiceImplTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private GroupAuthoritiesRepository groupAuthoritiesRepository;
+
+    @Mock
+    private PrivilegeTreeCache privilegeTreeCache;
+
+    private GroupAuthoritiesServiceImpl groupAuthoritiesService;
+
+    @BeforeEach
+    void setUp() {
+        groupAuthoritiesService = new GroupAuthoritiesServiceImpl(groupRepository, groupAuthoritiesRepository, privilegeTreeCache, 2);
+    }
+
+    @Test
+    void reconcile() {
+        when(groupRepository.findIdByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        when(groupRepository.findIdByIdGreaterThan(2L, Limit.of(2))).thenReturn(List.of(5L));
+        when(groupAuthoritiesRepository.deleteUnexpectedByGroupIdIn(any(Long[].class))).thenReturn(List.of(2L), List.of());
+        when(groupAuthoritiesRepository.insertMissingByGroupIdIn(any(Long[].class))).thenReturn(List.of(1L, 2L, 2L), List.of(5L, 5L));
+
+        ReconcileVO result = groupAuthoritiesService.reconcile();
+        assertEquals(3, result.groups());
+        assertEquals(5, result.inserted());
+        assertEquals(1, result.deleted());
+        verify(groupAuthoritiesRepository).deleteUnexpectedByGroupIdIn(new Long[]{1L, 2L});
+        verify(groupAuthoritiesRepository).insertMissingByGroupIdIn(new Long[]{5L});
+        verify(groupRepository, never()).findIdByIdGreaterThan(eq(5L), any(Limit.class));
+        verify(privilegeTreeCache).evictGroup(1L);
+        verify(privilegeTreeCache).evictGroup(2L);
+        verify(privilegeTreeCache).evictGroup(5L);
+    }
+
+    @Test
+    void reconcile_empty() {
+        when(groupRepository.findIdByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of());
+
+        ReconcileVO result = groupAuthoritiesService.reconcile();
+        assertEquals(0, result.groups());
+        verify(groupAuthoritiesRepository, never()).insertMissingByGroupIdIn(any(Long[].class));
+        verify(privilegeTreeCache, never()).evictGroup(any());
+    }
+
+    @Test
+    void reconcile_unchanged() {
+        when(groupRepository.findIdByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of(1L));
+        when(groupAuthoritiesRepository.deleteUnexpectedByGroupIdIn(any(Long[].class))).thenReturn(List.of());
+        when(groupAuthoritiesRepository.insertMissingByGroupIdIn(any(Long[].class))).thenReturn(List.of());
+
+        ReconcileVO result = groupAuthoritiesService.reconcile();
+        assertEquals(1, result.groups());
+        verify(privilegeTreeCache, never()).evictGroup(any());
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupMembers;
 import top.leafage.hypervisor.system.repository.GroupMembersRepository;
 import top.leafage.hypervisor.system.service.impl.GroupMembersServiceImpl;
@@ -46,6 +47,9 @@ class GroupMembersServiceImplTest {
     @Mock
     private GroupMembersRepository groupMembersRepository;
 
+    @Mock
+    private PrivilegeTreeCache privilegeTreeCache;
+
     @InjectMocks
     private GroupMembersServiceImpl groupMembersService;
 
@@ -81,6 +85,7 @@ class GroupMembersServiceImplTest {
         List<GroupMembers> relation = groupMembersService.relation(1L, Set.of("test"));
         assertEquals(1, relation.size());
         verify(groupMembersRepository).saveAllAndFlush(anyCollection());
+        verify(privilegeTreeCache).evict(Set.of("test"));
     }
 
     @Test
@@ -21,23 +21,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import top.leafage.hypervisor.system.domain.GroupAuthorities;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupPrivileges;
 import top.leafage.hypervisor.system.domain.Privilege;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.repository.GroupAuthoritiesRepository;
 import top.leafage.hypervisor.system.repository.GroupPrivilegesRepository;
 import top.leafage.hypervisor.system.repository.PrivilegeRepository;
 import top.leafage.hypervisor.system.service.impl.GroupPrivilegesServiceImpl;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 
@@ -58,11 +61,13 @@ class GroupPrivilegesServiceImplTest {
     @Mock
     private GroupAuthoritiesRepository groupAuthoritiesRepository;
 
+    @Mock
+    private PrivilegeTreeCache privilegeTreeCache;
+
     @InjectMocks
     private GroupPrivilegesServiceImpl groupPrivilegesService;
 
     private Privilege privilege;
-    private GroupAuthorities groupAuthority;
     private GroupPrivileges groupPrivileges;
 
     @BeforeEach
@@ -71,8 +76,6 @@ class GroupPrivilegesServiceImplTest {
         privilege.setName("test");
         privilege.setActions(Set.of("create"));
 
-        groupAuthority = new GroupAuthorities(1L, "test");
-
         groupPrivileges = new GroupPrivileges(1L, 1L, 1L, Set.of("test"));
     }
 
@@ -97,13 +100,56 @@ class GroupPrivilegesServiceImplTest {
     @Test
     void relation() {
         when(privilegeRepository.findById(anyLong())).thenReturn(Optional.of(privilege));
-        when(groupAuthoritiesRepository.findByGroupIdAndAuthority(anyLong(), anyString())).thenReturn(Optional.of(groupAuthority));
-        when(groupAuthoritiesRepository.saveAll(anyCollection())).thenReturn(Collections.singletonList(groupAuthority));
         when(groupPrivilegesRepository.saveAndFlush(any(GroupPrivileges.class))).thenReturn(groupPrivileges);
 
         GroupPrivileges relation = groupPrivilegesService.relation(1L, 2L, "test");
         assertEquals(1, relation.getGroupId());
         verify(groupPrivilegesRepository).saveAndFlush(any());
+        verify(groupAuthoritiesRepository).grant(List.of(1L), Set.of("test", "test:test"));
+    }
+
+    @Test
+    void relationAll() {
+        when(privilegeRepository.findNamesByIdIn(anyCollection())).thenReturn(Map.of(1L, "test", 2L, "other"));
+        when(groupPrivilegesRepository.findAllByGroupIdAndPrivilegeIdIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(groupPrivileges));
+        when(groupPrivilegesRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<GroupPrivileges> relations = groupPrivilegesService.relationAll(1L, List.of(
+                new PrivilegeGrantDTO(1L, Set.of("create")),
+                new PrivilegeGrantDTO(2L, null),
+                new PrivilegeGrantDTO(3L, Set.of("create"))));
+        assertEquals(2, relations.size());
+        assertEquals(Set.of("test", "create"), groupPrivileges.getActions());
+        verify(groupAuthoritiesRepository).grant(List.of(1L), Set.of("test", "test:create", "other"));
+        verify(groupAuthoritiesRepository, never()).findByGroupIdAndAuthority(anyLong(), anyString());
+        verify(privilegeTreeCache).evictGroup(1L);
+    }
+
+    @Test
+    void removeRelationAll() {
+        GroupPrivileges other = new GroupPrivileges(2L, 1L, 2L, Set.of("create", "modify"));
+        when(groupPrivilegesRepository.findAllByGroupIdAndPrivilegeIdIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(groupPrivileges, other));
+        when(privilegeRepository.findNamesByIdIn(anyCollection())).thenReturn(Map.of(1L, "test", 2L, "other"));
+
+        groupPrivilegesService.removeRelationAll(1L, List.of(
+                new PrivilegeGrantDTO(1L, null),
+                new PrivilegeGrantDTO(2L, Set.of("create"))));
+        assertEquals(Set.of("modify"), other.getActions());
+        verify(groupPrivilegesRepository).deleteAll(List.of(groupPrivileges));
+        verify(groupPrivilegesRepository).saveAll(List.of(other));
+        verify(groupAuthoritiesRepository).revoke(List.of(1L), Set.of("test", "test:test", "other:create"));
+        verify(privilegeTreeCache).evictGroup(1L);
+    }
+
+    @Test
+    void removeRelationAll_not_found() {
+        when(groupPrivilegesRepository.findAllByGroupIdAndPrivilegeIdIn(anyLong(), anyCollection())).thenReturn(List.of());
+
+        groupPrivilegesService.removeRelationAll(1L, List.of(new PrivilegeGrantDTO(1L, null)));
+        verify(groupAuthoritiesRepository, never()).revoke(anyCollection(), anyCollection());
+        verify(privilegeTreeCache, never()).evictGroup(anyLong());
     }
 
     @Test
@@ -112,7 +158,9 @@ class GroupPrivilegesServiceImplTest {
         when(privilegeRepository.findById(anyLong())).thenReturn(Optional.of(privilege));
 
         groupPrivilegesService.removeRelation(1L, 2L, "test");
-        verify(groupAuthoritiesRepository).deleteByGroupIdAndAuthority(anyLong(), anyString());
+        verify(groupPrivilegesRepository).save(groupPrivileges);
+        assertTrue(groupPrivileges.getActions().isEmpty());
+        verify(groupAuthoritiesRepository).revoke(List.of(1L), Set.of("test:test"));
     }
 
     @Test
@@ -122,6 +170,7 @@ class GroupPrivilegesServiceImplTest {
 
         groupPrivilegesService.removeRelation(1L, 2L, "");
         verify(groupPrivilegesRepository).deleteById(anyLong());
-        verify(groupAuthoritiesRepository).deleteByGroupIdAndAuthorityStartingWith(anyLong(), anyString());
+        // 只删除该privilege自身的authority，不影响同前缀的其他privilege
+        verify(groupAuthoritiesRepository).revoke(List.of(1L), Set.of("test", "test:test"));
     }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupRoles;
 import top.leafage.hypervisor.system.repository.GroupRolesRepository;
 import top.leafage.hypervisor.system.service.impl.GroupRolesServiceImpl;
@@ -46,6 +47,9 @@ class GroupRolesServiceImplTest {
     @Mock
     private GroupRolesRepository groupRolesRepository;
 
+    @Mock
+    private PrivilegeTreeCache privilegeTreeCache;
+
     @InjectMocks
     private GroupRolesServiceImpl groupRolesService;
 
@@ -187,16 +187,17 @@ class GroupServiceImplTest {
 
     @Test
     void enable() {
-        when(groupRepository.existsById(anyLong())).thenReturn(true);
-        when(groupRepository.updateEnabledById(anyLong())).thenReturn(1);
+        when(groupRepository.findById(anyLong())).thenReturn(Optional.of(entity));
+        boolean before = entity.isEnabled();
 
         boolean enabled = groupService.enable(1L);
         assertTrue(enabled);
+        assertEquals(!before, entity.isEnabled());
     }
 
     @Test
     void enable_not_found() {
-        when(groupRepository.existsById(anyLong())).thenReturn(false);
+        when(groupRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -27,17 +27,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import top.leafage.hypervisor.logging.LogPurger;
 import top.leafage.hypervisor.system.domain.OperationLog;
 import top.leafage.hypervisor.system.domain.vo.OperationLogVO;
 import top.leafage.hypervisor.system.repository.OperationLogRepository;
 import top.leafage.hypervisor.system.service.impl.OperationLogServiceImpl;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.when;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -54,6 +57,9 @@ class OperationLogServiceImplTest {
     @Mock
     private OperationLogRepository operationLogRepository;
 
+    @Mock
+    private LogPurger logPurger;
+
     @InjectMocks
     private OperationLogServiceImpl operationLogService;
 
@@ -125,9 +131,9 @@ class OperationLogServiceImplTest {
 
     @Test
     void clear() {
-        operationLogService.clear();
+        when(logPurger.purgeAll(eq("operation_logs"), any(Instant.class))).thenReturn(3L);
 
-        verify(operationLogRepository).deleteAll();
+        assertEquals(3L, operationLogService.clear());
     }
 
 }
\ No newline at end of file
@@ -28,7 +28,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import top.leafage.common.data.domain.TreeNode;
+import top.leafage.hypervisor.system.cache.PrivilegeBits;
+import top.leafage.hypervisor.system.cache.PrivilegeHierarchy;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.*;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeCheckDTO;
 import top.leafage.hypervisor.system.domain.dto.PrivilegeDTO;
 import top.leafage.hypervisor.system.domain.vo.PrivilegeVO;
 import top.leafage.hypervisor.system.service.impl.PrivilegeServiceImpl;
@@ -36,13 +40,16 @@ import top.leafage.hypervisor.system.repository.*;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.when;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 
 /**
@@ -53,23 +60,14 @@ import static org.mockito.Mockito.verify;
 @ExtendWith(MockitoExtension.class)
 class PrivilegeServiceImplTest {
 
-    @Mock
-    private RoleMembersRepository roleMembersRepository;
-
-    @Mock
-    private RolePrivilegesRepository rolePrivilegesRepository;
-
     @Mock
     private PrivilegeRepository privilegeRepository;
 
     @Mock
-    private GroupMembersRepository groupMembersRepository;
-
-    @Mock
-    private GroupRolesRepository groupRolesRepository;
+    private PrivilegeTreeCache privilegeTreeCache;
 
     @Mock
-    private GroupPrivilegesRepository groupPrivilegesRepository;
+    private PrivilegeHierarchy privilegeHierarchy;
 
     @InjectMocks
     private PrivilegeServiceImpl privilegeService;
@@ -101,6 +99,25 @@ class PrivilegeServiceImplTest {
         verify(privilegeRepository).findAll(ArgumentMatchers.<Specification<Privilege>>any(), any(Pageable.class));
     }
 
+    @Test
+    void retrieve_count_statements_constant() {
+        when(privilegeRepository.countBySuperiorIdIn(anyCollection())).thenReturn(Map.of(1L, 3L));
+
+        for (int size : new int[]{1, 20, 200}) {
+            List<Privilege> privileges = LongStream.rangeClosed(1, size)
+                    .mapToObj(id -> new Privilege(id, "test" + id, null, "/test", null, null, "test", null, null))
+                    .toList();
+            when(privilegeRepository.findAll(ArgumentMatchers.<Specification<Privilege>>any(),
+                    any(Pageable.class))).thenReturn(new PageImpl<>(privileges));
+
+            Page<PrivilegeVO> voPage = privilegeService.retrieve(0, size, "id", true, null);
+            assertEquals(size, voPage.getContent().size());
+            assertEquals(3L, voPage.getContent().getFirst().count());
+        }
+        verify(privilegeRepository, times(3)).countBySuperiorIdIn(anyCollection());
+        verify(privilegeRepository, never()).countBySuperiorId(anyLong());
+    }
+
     @Test
     void fetch() {
         when(privilegeRepository.findById(anyLong())).thenReturn(Optional.of(entity));
@@ -113,20 +130,61 @@ class PrivilegeServiceImplTest {
 
     @Test
     void subset() {
-        when(privilegeRepository.findAllBySuperiorId(anyLong())).thenReturn(List.of(entity));
+        when(privilegeHierarchy.subset(anyLong())).thenReturn(List.of(PrivilegeVO.from(entity)));
 
         List<PrivilegeVO> voList = privilegeService.subset(1L);
         assertEquals(1, voList.size());
+        verify(privilegeRepository, never()).findAllBySuperiorId(anyLong());
     }
 
     @Test
     void subset_empty() {
-        when(privilegeRepository.findAllBySuperiorId(anyLong())).thenReturn(Collections.emptyList());
+        when(privilegeHierarchy.subset(anyLong())).thenReturn(Collections.emptyList());
 
         List<PrivilegeVO> voList = privilegeService.subset(1L);
         assertEquals(Collections.emptyList(), voList);
     }
 
+    @Test
+    void authorize() {
+        PrivilegeBits bits = mock(PrivilegeBits.class);
+        when(privilegeTreeCache.getBits(eq("test"), any())).thenReturn(bits);
+        when(privilegeHierarchy.isCurrent(bits)).thenReturn(true);
+        when(privilegeHierarchy.decide(bits, 1L, "create")).thenReturn(true);
+
+        assertTrue(privilegeService.authorize("test", 1L, "create"));
+        verify(privilegeRepository, never()).findGrantedByUsername(anyString());
+    }
+
+    @Test
+    void authorize_batch() {
+        PrivilegeBits bits = mock(PrivilegeBits.class);
+        when(privilegeTreeCache.getBits(eq("test"), any())).thenReturn(bits);
+        when(privilegeHierarchy.isCurrent(bits)).thenReturn(true);
+        when(privilegeHierarchy.decide(bits, 1L, "create")).thenReturn(true);
+        when(privilegeHierarchy.decide(bits, 2L, null)).thenReturn(false);
+
+        boolean[] decisions = privilegeService.authorize("test",
+                List.of(new PrivilegeCheckDTO(1L, "create"), new PrivilegeCheckDTO(2L, null)));
+        assertArrayEquals(new boolean[]{true, false}, decisions);
+        // 批量判断只取一次
+        verify(privilegeTreeCache, times(1)).getBits(eq("test"), any());
+    }
+
+    @Test
+    void authorize_stale() {
+        PrivilegeBits stale = mock(PrivilegeBits.class);
+        PrivilegeBits bits = mock(PrivilegeBits.class);
+        when(privilegeTreeCache.getBits(eq("test"), any())).thenReturn(stale);
+        when(privilegeHierarchy.isCurrent(stale)).thenReturn(false);
+        when(privilegeRepository.findGrantedByUsername("test")).thenReturn(Map.of(1L, Set.of()));
+        when(privilegeHierarchy.compile(anyMap())).thenReturn(bits);
+        when(privilegeHierarchy.decide(bits, 1L, null)).thenReturn(true);
+
+        assertTrue(privilegeService.authorize("test", 1L, null));
+        verify(privilegeTreeCache).putBits("test", bits);
+    }
+
     @Test
     void modify() {
         when(privilegeRepository.findById(anyLong())).thenReturn(Optional.of(entity));
@@ -155,28 +213,42 @@ class PrivilegeServiceImplTest {
 
     @Test
     void tree() {
-        when(groupMembersRepository.findAllByUsername(anyString())).thenReturn(Collections.singletonList(mock(GroupMembers.class)));
-        when(groupRolesRepository.findAllByGroupId(anyLong())).thenReturn(Collections.singletonList(mock(GroupRoles.class)));
-        when(groupPrivilegesRepository.findAllByGroupId(anyLong())).thenReturn(Collections.singletonList(mock(GroupPrivileges.class)));
-        when(roleMembersRepository.findAllByUsername(anyString())).thenReturn(Collections.singletonList(mock(RoleMembers.class)));
-        when(rolePrivilegesRepository.findAllByRoleId(anyLong())).thenReturn(Collections.singletonList(mock(RolePrivileges.class)));
+        when(privilegeTreeCache.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Function<String, List<TreeNode<Long>>>>getArgument(1).apply(invocation.getArgument(0)));
+        EffectivePrivilege effective = mock(EffectivePrivilege.class);
+        when(effective.getId()).thenReturn(1L);
+        when(effective.getName()).thenReturn("test");
+        when(effective.getActions()).thenReturn("create,modify");
+        when(privilegeRepository.findAllEffectiveByUsername(anyString())).thenReturn(List.of(effective));
 
         List<TreeNode<Long>> nodes = privilegeService.tree("test");
-        assertNotNull(nodes);
+        assertEquals(1, nodes.size());
+    }
+
+    @Test
+    void tree_empty() {
+        when(privilegeTreeCache.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Function<String, List<TreeNode<Long>>>>getArgument(1).apply(invocation.getArgument(0)));
+        when(privilegeRepository.findAllEffectiveByUsername(anyString())).thenReturn(Collections.emptyList());
+
+        List<TreeNode<Long>> nodes = privilegeService.tree("test");
+        assertEquals(Collections.emptyList(), nodes);
     }
 
     @Test
     void enable() {
-        when(privilegeRepository.existsById(anyLong())).thenReturn(true);
-        when(privilegeRepository.updateEnabledById(anyLong())).thenReturn(1);
+        when(privilegeRepository.findById(anyLong())).thenReturn(Optional.of(entity));
+        boolean before = entity.isEnabled();
 
         boolean enabled = privilegeService.enable(1L);
         assertTrue(enabled);
+        assertEquals(!before, entity.isEnabled());
+        verify(privilegeTreeCache).evictAll();
     }
 
     @Test
     void enable_not_found() {
-        when(privilegeRepository.existsById(anyLong())).thenReturn(false);
+        when(privilegeRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
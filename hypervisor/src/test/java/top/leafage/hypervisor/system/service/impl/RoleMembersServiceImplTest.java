@@ -21,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.RoleMembers;
 import top.leafage.hypervisor.system.repository.RoleMembersRepository;
 import top.leafage.hypervisor.system.service.impl.RoleMembersServiceImpl;
@@ -45,6 +46,9 @@ class RoleMembersServiceImplTest {
     @Mock
     private RoleMembersRepository roleMembersRepository;
 
+    @Mock
+    private PrivilegeTreeCache privilegeTreeCache;
+
     @InjectMocks
     private RoleMembersServiceImpl roleMembersService;
 
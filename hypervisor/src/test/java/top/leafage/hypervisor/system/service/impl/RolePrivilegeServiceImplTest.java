@@ -21,10 +21,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import top.leafage.hypervisor.system.domain.GroupAuthorities;
+import top.leafage.hypervisor.system.cache.PrivilegeTreeCache;
 import top.leafage.hypervisor.system.domain.GroupRoles;
 import top.leafage.hypervisor.system.domain.Privilege;
 import top.leafage.hypervisor.system.domain.RolePrivileges;
+import top.leafage.hypervisor.system.domain.dto.PrivilegeGrantDTO;
 import top.leafage.hypervisor.system.repository.GroupAuthoritiesRepository;
 import top.leafage.hypervisor.system.repository.GroupRolesRepository;
 import top.leafage.hypervisor.system.repository.PrivilegeRepository;
@@ -32,13 +33,16 @@ import top.leafage.hypervisor.system.repository.RolePrivilegesRepository;
 import top.leafage.hypervisor.system.service.impl.RolePrivilegesServiceImpl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -61,6 +65,9 @@ class RolePrivilegeServiceImplTest {
     @Mock
     private GroupAuthoritiesRepository groupAuthoritiesRepository;
 
+    @Mock
+    private PrivilegeTreeCache privilegeTreeCache;
+
     @InjectMocks
     private RolePrivilegesServiceImpl rolePrivilegesService;
 
@@ -103,13 +110,61 @@ class RolePrivilegeServiceImplTest {
     void relation() {
         when(privilegeRepository.findById(anyLong())).thenReturn(Optional.of(privilege));
         when(groupRolesRepository.findAllByRoleId(anyLong())).thenReturn(List.of(groupRoles));
-        when(groupAuthoritiesRepository.findByGroupIdAndAuthority(anyLong(), anyString())).thenReturn(Optional.of(mock(GroupAuthorities.class)));
         when(rolePrivilegesRepository.saveAndFlush(any(RolePrivileges.class))).thenReturn(rolePrivilege);
 
         RolePrivileges relation = rolePrivilegesService.relation(1L, 1L, "");
         assertEquals(1, relation.getRoleId());
         verify(rolePrivilegesRepository).saveAndFlush(any(RolePrivileges.class));
-        verify(groupAuthoritiesRepository).saveAll(anyList());
+        verify(groupAuthoritiesRepository).grant(List.of(1L), Set.of("name"));
+    }
+
+    @Test
+    void relationAll() {
+        when(privilegeRepository.findNamesByIdIn(anyCollection())).thenReturn(Map.of(1L, "name", 2L, "other"));
+        when(rolePrivilegesRepository.findAllByRoleIdAndPrivilegeIdIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(new RolePrivileges(1L, 2L, 1L, Set.of("test"))));
+        when(groupRolesRepository.findAllByRoleId(anyLong())).thenReturn(List.of(groupRoles, groupRoles));
+        when(rolePrivilegesRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<RolePrivileges> relations = rolePrivilegesService.relationAll(2L, List.of(
+                new PrivilegeGrantDTO(1L, Set.of("create")),
+                new PrivilegeGrantDTO(2L, null),
+                new PrivilegeGrantDTO(3L, Set.of("create"))));
+        assertEquals(2, relations.size());
+        assertEquals(Set.of("test", "create"), relations.stream()
+                .filter(r -> r.getPrivilegeId() == 1L).findFirst().orElseThrow().getActions());
+        verify(groupAuthoritiesRepository).grant(List.of(1L), Set.of("name", "name:create", "other"));
+        verify(groupAuthoritiesRepository, never()).findByGroupIdAndAuthority(anyLong(), anyString());
+        verify(privilegeTreeCache).evictRole(2L);
+    }
+
+    @Test
+    void relationAll_unknown_privilege() {
+        when(privilegeRepository.findNamesByIdIn(anyCollection())).thenReturn(Map.of());
+        when(rolePrivilegesRepository.findAllByRoleIdAndPrivilegeIdIn(anyLong(), anyCollection())).thenReturn(List.of());
+
+        List<RolePrivileges> relations = rolePrivilegesService.relationAll(2L, List.of(new PrivilegeGrantDTO(3L, null)));
+        assertTrue(relations.isEmpty());
+        verify(groupAuthoritiesRepository, never()).grant(anyCollection(), anyCollection());
+        verify(rolePrivilegesRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void removeRelationAll() {
+        RolePrivileges other = new RolePrivileges(2L, 2L, 2L, Set.of("create", "modify"));
+        when(rolePrivilegesRepository.findAllByRoleIdAndPrivilegeIdIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(rolePrivilege, other));
+        when(privilegeRepository.findNamesByIdIn(anyCollection())).thenReturn(Map.of(1L, "name", 2L, "other"));
+        when(groupRolesRepository.findAllByRoleId(anyLong())).thenReturn(List.of(groupRoles));
+
+        rolePrivilegesService.removeRelationAll(2L, List.of(
+                new PrivilegeGrantDTO(1L, Set.of()),
+                new PrivilegeGrantDTO(2L, Set.of("create"))));
+        assertEquals(Set.of("modify"), other.getActions());
+        verify(rolePrivilegesRepository).deleteAll(List.of(rolePrivilege));
+        verify(rolePrivilegesRepository).saveAll(List.of(other));
+        verify(groupAuthoritiesRepository).revoke(List.of(1L), Set.of("name", "name:test", "other:create"));
+        verify(privilegeTreeCache).evictRole(2L);
     }
 
 
@@ -120,7 +175,9 @@ class RolePrivilegeServiceImplTest {
         when(groupRolesRepository.findAllByRoleId(anyLong())).thenReturn(List.of(groupRoles));
 
         rolePrivilegesService.removeRelation(1L, 2L, "test");
-        verify(groupAuthoritiesRepository).deleteByGroupIdAndAuthority(anyLong(), anyString());
+        verify(rolePrivilegesRepository).save(rolePrivilege);
+        assertTrue(rolePrivilege.getActions().isEmpty());
+        verify(groupAuthoritiesRepository).revoke(List.of(1L), Set.of("name:test"));
     }
 
     @Test
@@ -131,6 +188,7 @@ class RolePrivilegeServiceImplTest {
 
         rolePrivilegesService.removeRelation(1L, 2L, "");
         verify(rolePrivilegesRepository).deleteById(anyLong());
-        verify(groupAuthoritiesRepository).deleteByGroupIdAndAuthorityStartingWith(anyLong(), anyString());
+        // 只删除该privilege自身的authority，不影响同前缀的其他privilege
+        verify(groupAuthoritiesRepository).revoke(List.of(1L), Set.of("name", "name:test"));
     }
 }
\ No newline at end of file
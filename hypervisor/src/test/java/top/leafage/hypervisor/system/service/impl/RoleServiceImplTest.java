@@ -173,16 +173,17 @@ class RoleServiceImplTest {
 
     @Test
     void enable() {
-        when(roleRepository.existsById(anyLong())).thenReturn(true);
-        when(roleRepository.updateEnabledById(anyLong())).thenReturn(1);
+        when(roleRepository.findById(anyLong())).thenReturn(Optional.of(entity));
+        boolean before = entity.isEnabled();
 
         boolean enabled = roleService.enable(1L);
         assertTrue(enabled);
+        assertEquals(!before, entity.isEnabled());
     }
 
     @Test
     void enable_not_found() {
-        when(roleRepository.existsById(anyLong())).thenReturn(false);
+        when(roleRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
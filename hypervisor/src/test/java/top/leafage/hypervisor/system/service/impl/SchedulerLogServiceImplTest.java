@@ -27,6 +27,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import top.leafage.hypervisor.logging.LogPurger;
 import top.leafage.hypervisor.system.domain.SchedulerLog;
 import top.leafage.hypervisor.system.domain.vo.SchedulerLogVO;
 import top.leafage.hypervisor.system.repository.SchedulerLogRepository;
@@ -39,6 +40,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.when;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -54,6 +56,9 @@ class SchedulerLogServiceImplTest {
     @Mock
     private SchedulerLogRepository schedulerLogRepository;
 
+    @Mock
+    private LogPurger logPurger;
+
     @InjectMocks
     private SchedulerLogServiceImpl schedulerLogService;
 
@@ -124,9 +129,9 @@ class SchedulerLogServiceImplTest {
 
     @Test
     void clear() {
-        schedulerLogService.clear();
+        when(logPurger.purgeAll(eq("scheduler_logs"), any(Instant.class))).thenReturn(3L);
 
-        verify(schedulerLogRepository).deleteAll();
+        assertEquals(3L, schedulerLogService.clear());
     }
 
 }
\ No newline at end of file
@@ -175,16 +175,17 @@ class UserServiceImplTest {
 
     @Test
     void enable() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(userRepository.updateEnabledById(anyLong())).thenReturn(1);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(entity));
+        boolean before = entity.isEnabled();
 
         boolean enabled = userService.enable(1L);
         assertTrue(enabled);
+        assertEquals(!before, entity.isEnabled());
     }
 
     @Test
     void enable_not_found() {
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -195,16 +196,17 @@ class UserServiceImplTest {
 
     @Test
     void unlock() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(userRepository.updateAccountNonLockedById(anyLong())).thenReturn(1);
+        entity.setAccountNonLocked(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(entity));
 
         boolean unlock = userService.unlock(1L);
         assertTrue(unlock);
+        assertTrue(entity.isAccountNonLocked());
     }
 
     @Test
     void unlock_not_found() {
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,